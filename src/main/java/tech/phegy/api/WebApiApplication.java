@@ -3,19 +3,43 @@ package tech.phegy.api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.ImageFeedCacheProps;
 import tech.phegy.api.service.imageGenerator.ImageGeneratorProps;
+import tech.phegy.api.service.ingestion.ImageIngestionProps;
 import tech.phegy.api.service.jwt.JwtProps;
+import tech.phegy.api.service.leaderboard.LeaderboardProps;
+import tech.phegy.api.service.moderation.ModerationProps;
+import tech.phegy.api.service.points.PointsLedgerProps;
+import tech.phegy.api.service.points.VoteIngestionProps;
 import tech.phegy.api.service.points.VoteProps;
 import tech.phegy.api.service.register.RegisterProps;
+import tech.phegy.api.service.rendition.ImageRenditionProps;
 import tech.phegy.api.service.storage.AwsStorageProps;
+import tech.phegy.api.service.storage.StorageDeletionProps;
+import tech.phegy.api.service.tally.ImageTallyProps;
+import tech.phegy.api.service.validator.ImageFileProps;
 
 @SpringBootApplication()
+@EnableScheduling
 @EnableConfigurationProperties({
         JwtProps.class,
         AwsStorageProps.class,
         RegisterProps.class,
         ImageGeneratorProps.class,
-        VoteProps.class
+        VoteProps.class,
+        ImageFeedCacheProps.class,
+        ModerationProps.class,
+        HotScoreProps.class,
+        ImageIngestionProps.class,
+        ImageRenditionProps.class,
+        ImageFileProps.class,
+        StorageDeletionProps.class,
+        VoteIngestionProps.class,
+        PointsLedgerProps.class,
+        LeaderboardProps.class,
+        ImageTallyProps.class
 })
 public class WebApiApplication {
 
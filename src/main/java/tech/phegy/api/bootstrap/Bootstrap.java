@@ -6,16 +6,20 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import tech.phegy.api.model.points.PointsBag;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
 import tech.phegy.api.repository.PhegyRoleRepository;
 import tech.phegy.api.repository.PhegyUserRepository;
 import tech.phegy.api.model.user.PhegyRole;
 import tech.phegy.api.model.user.PhegyRoleLevel;
 import tech.phegy.api.model.user.PhegyUser;
 import tech.phegy.api.repository.PointsBagRepository;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
 import tech.phegy.api.service.imageGenerator.ImageGeneratorService;
 import tech.phegy.api.service.storage.CloudStorageService;
 import tech.phegy.api.service.storage.StoragePath;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,19 +34,22 @@ public class Bootstrap implements CommandLineRunner {
     private final ImageGeneratorService imageGeneratorService;
     private final CloudStorageService cloudStorageService;
     private final PointsBagRepository pointsBagRepository;
+    private final PointsLedgerEntryRepository pointsLedgerEntryRepository;
 
     public Bootstrap(PasswordEncoder passwordEncoder,
                      PhegyUserRepository userRepository,
                      PhegyRoleRepository roleRepository,
                      ImageGeneratorService imageGeneratorService,
                      CloudStorageService cloudStorageService,
-                     PointsBagRepository pointsBagRepository) {
+                     PointsBagRepository pointsBagRepository,
+                     PointsLedgerEntryRepository pointsLedgerEntryRepository) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.imageGeneratorService = imageGeneratorService;
         this.cloudStorageService = cloudStorageService;
         this.pointsBagRepository = pointsBagRepository;
+        this.pointsLedgerEntryRepository = pointsLedgerEntryRepository;
     }
 
     @Override
@@ -105,11 +112,17 @@ public class Bootstrap implements CommandLineRunner {
 
     private void createStatistics(PhegyUser user) {
         PointsBag pointsBag = PointsBag.builder()
-                .points(100000d)
+                .points(1000000L)
                 .user(user)
                 .build();
 
         pointsBagRepository.save(pointsBag);
+        pointsLedgerEntryRepository.save(PointsLedgerEntry.builder()
+                .userId(user.getId())
+                .points(pointsBag.getPoints())
+                .type(PointsLedgerEntryType.GRANT)
+                .createdOn(LocalDateTime.now())
+                .build());
     }
 
     private void setImage(PhegyUser user) {
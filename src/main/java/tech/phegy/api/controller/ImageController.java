@@ -1,6 +1,7 @@
 package tech.phegy.api.controller;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -8,11 +9,16 @@ import org.springframework.web.multipart.MultipartFile;
 import tech.phegy.api.dto.image.filter.ImageOrderFilter;
 import tech.phegy.api.dto.image.filter.ImagePublishFilter;
 import tech.phegy.api.dto.image.request.ImageDataDto;
+import tech.phegy.api.dto.image.request.ImageIdListDto;
+import tech.phegy.api.dto.image.response.ImageListResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageStatusResponseDto;
 import tech.phegy.api.mapper.image.ImageMapper;
+import tech.phegy.api.model.Image;
 import tech.phegy.api.service.ImageService;
 
 import java.security.Principal;
+import java.util.List;
 
 /**
  * Image controller.
@@ -38,6 +44,8 @@ public class ImageController {
      * @param publishFilter     default APPROVED
      * @param orderFilter       default NEWEST
      * @param publisherUsername default null -> all users
+     * @param cursor            default null -> offset page, otherwise nextCursor of the previous page
+     * @param withTotal         default true -> exact totalCount, false -> approximate totalCount without count query
      * @param authentication    user authentication
      * @return image page response dto.
      */
@@ -47,17 +55,47 @@ public class ImageController {
                                           @RequestParam(defaultValue = "APPROVED") ImagePublishFilter publishFilter,
                                           @RequestParam(defaultValue = "NEWEST") ImageOrderFilter orderFilter,
                                           @RequestParam(name = "publisher", required = false) String publisherUsername,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "true") boolean withTotal,
                                           Authentication authentication) {
+        final String principalUsername = authentication != null ? authentication.getName() : null;
+        if (cursor != null) {
+            return this.imageService.getImagesAfter(cursor, size, publishFilter, orderFilter, publisherUsername, principalUsername);
+        }
+
         final PageRequest pageRequest = PageRequest.of(page, size);
+        return this.imageService.getImages(pageRequest, withTotal, publishFilter, orderFilter, publisherUsername, principalUsername);
+    }
+
+    @GetMapping(params = "ids")
+    public ImageListResponseDto getImagesByIds(@RequestParam List<Long> ids,
+                                               Authentication authentication) {
         final String principalUsername = authentication != null ? authentication.getName() : null;
-        return this.imageService.getImages(pageRequest, publishFilter, orderFilter, publisherUsername, principalUsername);
+        return this.imageService.getImagesByIds(ids, principalUsername);
     }
 
+    /**
+     * Upload new image.
+     * The image file is uploaded to the cloud storage in the background,
+     * its status can be polled or received on the /queue/image-status websocket destination.
+     *
+     * @param image     image file.
+     * @param iamgeDto  image title and description.
+     * @param principal publisher.
+     * @return id and status of the created image.
+     */
     @PostMapping
-    public void postImage(@RequestParam MultipartFile image,
-                          @ModelAttribute ImageDataDto iamgeDto,
-                          Principal principal) {
-        this.imageService.createImage(image, imageMapper.imageDataDtoToImage(iamgeDto), principal.getName());
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImageStatusResponseDto postImage(@RequestParam MultipartFile image,
+                                            @ModelAttribute ImageDataDto iamgeDto,
+                                            Principal principal) {
+        final Image createdImage = this.imageService.createImage(image, imageMapper.imageDataDtoToImage(iamgeDto), principal.getName());
+        return new ImageStatusResponseDto(createdImage.getId(), createdImage.getStatus());
+    }
+
+    @GetMapping("/{imageId}/status")
+    public ImageStatusResponseDto getImageStatus(@PathVariable Long imageId, Principal principal) {
+        return new ImageStatusResponseDto(imageId, this.imageService.getImageStatus(imageId, principal.getName()));
     }
 
     @PostMapping("/approve/{imageId}")
@@ -66,12 +104,24 @@ public class ImageController {
         this.imageService.approveImage(imageId, principal.getName());
     }
 
+    @PostMapping("/approve")
+    @Secured({"ROLE_ADMIN", "ROLE_MODERATOR"})
+    public ImageIdListDto approveImages(@RequestBody ImageIdListDto idList, Principal principal) {
+        return new ImageIdListDto(this.imageService.approveImages(idList.getImageIds(), principal.getName()));
+    }
+
     @DeleteMapping("/reject/{imageId}")
     @Secured({"ROLE_ADMIN", "ROLE_MODERATOR"})
     public void rejectImage(@PathVariable Long imageId, Principal principal) {
         this.imageService.rejectImage(imageId, principal.getName());
     }
 
+    @DeleteMapping("/reject")
+    @Secured({"ROLE_ADMIN", "ROLE_MODERATOR"})
+    public ImageIdListDto rejectImages(@RequestBody ImageIdListDto idList, Principal principal) {
+        return new ImageIdListDto(this.imageService.rejectImages(idList.getImageIds(), principal.getName()));
+    }
+
     @DeleteMapping("/{imageId}")
     public void deleteImage(@PathVariable Long imageId, Principal principal) {
         this.imageService.deleteImage(imageId, principal.getName());
@@ -0,0 +1,27 @@
+package tech.phegy.api.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardWindow;
+import tech.phegy.api.dto.leaderboard.response.LeaderboardResponseDto;
+import tech.phegy.api.service.leaderboard.LeaderboardService;
+
+@RestController
+@RequestMapping("/api/v1/leaderboard")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping
+    public LeaderboardResponseDto getLeaderboard(@RequestParam LeaderboardType type,
+                                                 @RequestParam(defaultValue = "ALL_TIME") LeaderboardWindow window,
+                                                 @RequestParam(defaultValue = "10") int size) {
+        return this.leaderboardService.getLeaderboard(type, window, size);
+    }
+}
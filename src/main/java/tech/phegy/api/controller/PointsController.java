@@ -1,26 +1,35 @@
 package tech.phegy.api.controller;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import tech.phegy.api.dto.poins.request.VoteBatchDto;
 import tech.phegy.api.dto.poins.request.VoteDto;
 import tech.phegy.api.dto.poins.response.PointsBagResponseDto;
+import tech.phegy.api.dto.poins.response.PointsLedgerRebuildResponseDto;
 import tech.phegy.api.mapper.poins.PoinsMapper;
 import tech.phegy.api.service.points.PointsBagService;
+import tech.phegy.api.service.points.PointsLedgerService;
 import tech.phegy.api.service.points.VoteService;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/v1/points")
 public class PointsController {
     private final VoteService voteService;
     private final PointsBagService pointsBagService;
+    private final PointsLedgerService pointsLedgerService;
     private final PoinsMapper poinsMapper;
 
     public PointsController(VoteService voteService,
                             PointsBagService pointsBagService,
+                            PointsLedgerService pointsLedgerService,
                             PoinsMapper poinsMapper) {
         this.voteService = voteService;
         this.pointsBagService = pointsBagService;
+        this.pointsLedgerService = pointsLedgerService;
         this.poinsMapper = poinsMapper;
     }
 
@@ -30,8 +39,25 @@ public class PointsController {
                 pointsBagService.getPointsBag(principal.getName()));
     }
 
+    @GetMapping(value = "/bag", params = "at")
+    public PointsBagResponseDto getPoinsBagAt(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+                                              Principal principal) {
+        return new PointsBagResponseDto(this.pointsLedgerService.getBalanceAt(principal.getName(), at), principal.getName());
+    }
+
+    @PostMapping("/ledger/rebuild")
+    @Secured("ROLE_ADMIN")
+    public PointsLedgerRebuildResponseDto rebuildPointsBags() {
+        return new PointsLedgerRebuildResponseDto(this.pointsLedgerService.rebuildBalances());
+    }
+
     @PostMapping("/vote")
     public void vote(@RequestBody VoteDto voteDto, Principal principal) {
-        this.voteService.vote(voteDto.getImageId(), Math.round(voteDto.getPoints() * 10.0) / 10.0, principal.getName());
+        this.voteService.vote(voteDto.getImageId(), voteDto.getPoints(), principal.getName());
+    }
+
+    @PostMapping("/vote/batch")
+    public void voteAll(@RequestBody VoteBatchDto voteBatchDto, Principal principal) {
+        this.voteService.voteAll(voteBatchDto.getVotes(), principal.getName());
     }
 }
@@ -0,0 +1,123 @@
+package tech.phegy.api.dto.image.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.ImageView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor for image listings.
+ * Holds the order filter, the sort key and the id of the last image of the previous page.
+ *
+ * @author Nikita
+ */
+@Getter
+@AllArgsConstructor
+public class ImageCursor {
+    private static final String SEPARATOR = ",";
+
+    private final ImageOrderFilter orderFilter;
+    private final String sortKey;
+    private final Long id;
+
+    /**
+     * Check if an order filter can be paginated with a cursor.
+     *
+     * @param orderFilter image order filter.
+     * @return true if cursor pagination is supported.
+     */
+    public static boolean isSupported(ImageOrderFilter orderFilter) {
+        switch (orderFilter) {
+            case NEWEST:
+            case OLDEST:
+            case MOST_VOTED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Create cursor pointing after a specific image.
+     *
+     * @param orderFilter image order filter.
+     * @param image       last image of the current page.
+     * @return cursor.
+     * @throws PhegyHttpException when the order filter does not support cursors.
+     */
+    public static ImageCursor after(ImageOrderFilter orderFilter, ImageView image) throws PhegyHttpException {
+        switch (orderFilter) {
+            case NEWEST:
+            case OLDEST:
+                return new ImageCursor(orderFilter, image.getApprovedOn().toString(), image.getId());
+            case MOST_VOTED:
+                return new ImageCursor(orderFilter, image.getTotalPoints().toString(), image.getId());
+            default:
+                throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
+        }
+    }
+
+    /**
+     * Decode cursor from its opaque string form.
+     *
+     * @param cursor encoded cursor.
+     * @return cursor.
+     * @throws PhegyHttpException IMAGE_CURSOR_INVALID when the cursor can not be decoded.
+     */
+    public static ImageCursor decode(String cursor) throws PhegyHttpException {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = decoded.split(SEPARATOR);
+            if (parts.length != 3) {
+                throw new PhegyHttpException("IMAGE_CURSOR_INVALID", HttpStatus.BAD_REQUEST);
+            }
+
+            return new ImageCursor(ImageOrderFilter.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new PhegyHttpException("IMAGE_CURSOR_INVALID", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Encode cursor to an opaque url safe string.
+     *
+     * @return encoded cursor.
+     */
+    public String encode() {
+        final String decoded = orderFilter.name() + SEPARATOR + sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get sort key as date.
+     *
+     * @return sort key date.
+     * @throws PhegyHttpException IMAGE_CURSOR_INVALID when the sort key is not a date.
+     */
+    public LocalDateTime getSortKeyAsDate() throws PhegyHttpException {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (Exception e) {
+            throw new PhegyHttpException("IMAGE_CURSOR_INVALID", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get sort key as number.
+     *
+     * @return sort key number.
+     * @throws PhegyHttpException IMAGE_CURSOR_INVALID when the sort key is not a number.
+     */
+    public Long getSortKeyAsNumber() throws PhegyHttpException {
+        try {
+            return Long.parseLong(sortKey);
+        } catch (Exception e) {
+            throw new PhegyHttpException("IMAGE_CURSOR_INVALID", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -7,5 +7,6 @@ public enum ImageOrderFilter {
     MOST_VOTED,
     TOP_VOTED_LAST_3_DAYS,
     TOP_VOTED_LAST_WEEK,
-    TOP_VOTED_LAST_MONTH
+    TOP_VOTED_LAST_MONTH,
+    HOT
 }
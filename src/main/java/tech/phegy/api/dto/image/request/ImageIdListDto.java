@@ -0,0 +1,16 @@
+package tech.phegy.api.dto.image.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Collection;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageIdListDto {
+    private Collection<Long> imageIds;
+}
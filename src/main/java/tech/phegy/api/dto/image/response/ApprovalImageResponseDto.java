@@ -2,6 +2,7 @@ package tech.phegy.api.dto.image.response;
 
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import tech.phegy.api.model.ImageStatus;
 
 @Getter
 @Setter
@@ -10,4 +11,5 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 public class ApprovalImageResponseDto extends ImageResponseDto {
     private boolean isApproved;
+    private ImageStatus status;
 }
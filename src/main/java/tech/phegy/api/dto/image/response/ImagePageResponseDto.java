@@ -11,5 +11,7 @@ import java.util.Collection;
 public class ImagePageResponseDto {
     @Builder.Default
     private Collection<ImageResponseDto> images = new ArrayList<>();
-    private long totalCount;
+    private Long totalCount;
+    private boolean hasNext;
+    private String nextCursor;
 }
@@ -0,0 +1,14 @@
+package tech.phegy.api.dto.image.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageRenditionResponseDto {
+    private Integer size;
+    private String format;
+    private String imageKey;
+}
@@ -4,6 +4,7 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -17,5 +18,8 @@ public class ImageResponseDto {
     private String imageKey;
     private String publisherUsername;
     private LocalDateTime publishedOn;
-    private Double points;
+    private Long points;
+    private List<ImageRenditionResponseDto> renditions;
+    private Boolean votedByMe;
+    private Long myPoints;
 }
@@ -0,0 +1,14 @@
+package tech.phegy.api.dto.image.response;
+
+import lombok.*;
+import tech.phegy.api.model.ImageStatus;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageStatusResponseDto {
+    private Long id;
+    private ImageStatus status;
+}
@@ -0,0 +1,18 @@
+package tech.phegy.api.dto.image.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageTallyResponseDto {
+    private Long id;
+
+    /**
+     * Points in tenths of a point.
+     */
+    private Long totalPoints;
+    private Long voteCount;
+}
@@ -0,0 +1,7 @@
+package tech.phegy.api.dto.leaderboard.filter;
+
+public enum LeaderboardType {
+    POINTS_RECEIVED,
+    POINTS_SENT,
+    IMAGES_PUBLISHED
+}
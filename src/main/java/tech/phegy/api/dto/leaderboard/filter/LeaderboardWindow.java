@@ -0,0 +1,22 @@
+package tech.phegy.api.dto.leaderboard.filter;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum LeaderboardWindow {
+    ALL_TIME(0),
+    LAST_3_DAYS(3),
+    LAST_WEEK(7),
+    LAST_MONTH(30);
+
+    /**
+     * Days counted by the window, 0 when every score is counted.
+     */
+    private final int days;
+
+    public boolean isRolling() {
+        return this.days > 0;
+    }
+}
@@ -0,0 +1,18 @@
+package tech.phegy.api.dto.leaderboard.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardEntryResponseDto {
+    private int rank;
+    private String username;
+
+    /**
+     * Points in tenths of a point, or count of images.
+     */
+    private long score;
+}
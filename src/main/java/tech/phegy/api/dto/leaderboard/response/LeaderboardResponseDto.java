@@ -0,0 +1,18 @@
+package tech.phegy.api.dto.leaderboard.response;
+
+import lombok.*;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardWindow;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardResponseDto {
+    private LeaderboardType type;
+    private LeaderboardWindow window;
+    private List<LeaderboardEntryResponseDto> entries;
+}
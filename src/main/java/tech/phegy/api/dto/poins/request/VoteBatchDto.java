@@ -0,0 +1,16 @@
+package tech.phegy.api.dto.poins.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class VoteBatchDto {
+    private List<VoteDto> votes;
+}
@@ -11,5 +11,5 @@ import lombok.Setter;
 @NoArgsConstructor
 public class VoteDto {
     private long imageId;
-    private double points;
+    private long points;
 }
@@ -8,6 +8,6 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 public class PointsBagResponseDto {
-    private Double points;
+    private long points;
     private String username;
 }
@@ -0,0 +1,15 @@
+package tech.phegy.api.dto.poins.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsLedgerRebuildResponseDto {
+    /**
+     * Count of points bags that differed from the ledger and were corrected.
+     */
+    private long correctedBags;
+}
@@ -1,7 +1,8 @@
 package tech.phegy.api.mapper.image;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageView;
 import tech.phegy.api.dto.image.request.ImageDataDto;
 import tech.phegy.api.dto.image.response.ApprovalImageResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
@@ -14,5 +15,9 @@ public interface ImageMapper {
 
     ApprovalImageResponseDto imageToApprovalImageResponseDto(Image image);
 
-    ImagePageResponseDto createImagePageResponseDto(Page<Image> imagePage, boolean isPublisherOrAdmin);
+    ImageResponseDto imageViewToImageResponseDto(ImageView imageView);
+
+    ApprovalImageResponseDto imageViewToApprovalImageResponseDto(ImageView imageView);
+
+    ImagePageResponseDto createImagePageResponseDto(Slice<ImageView> imageSlice, boolean isPublisherOrAdmin);
 }
@@ -1,14 +1,18 @@
 package tech.phegy.api.mapper.image;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 import tech.phegy.api.dto.image.request.ImageDataDto;
 import tech.phegy.api.dto.image.response.ApprovalImageResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageRenditionResponseDto;
 import tech.phegy.api.dto.image.response.ImageResponseDto;
-import tech.phegy.api.model.points.Vote;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageRendition;
+import tech.phegy.api.model.ImageView;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -45,7 +49,8 @@ public class ImageMapperImpl implements ImageMapper {
                 .imageKey(image.getImageKey())
                 .publisherUsername(image.getPublisher() != null ? image.getPublisher().getUsername() : null)
                 .publishedOn(image.isApproved() ? image.getApprovedOn() : image.getPublishedOn())
-                .points(image.getVotes().stream().mapToDouble(Vote::getPoints).sum())
+                .points(image.getTotalPoints())
+                .renditions(toRenditionDtos(image.getImageKey(), image.getRenditions()))
                 .build();
     }
 
@@ -63,30 +68,91 @@ public class ImageMapperImpl implements ImageMapper {
                 .publisherUsername(image.getPublisher() != null ? image.getPublisher().getUsername() : null)
                 .publishedOn(image.isApproved() ? image.getApprovedOn() : image.getPublishedOn())
                 .isApproved(image.isApproved())
-                .points(image.getVotes().stream().mapToDouble(Vote::getPoints).sum())
+                .status(image.getStatus())
+                .points(image.getTotalPoints())
+                .renditions(toRenditionDtos(image.getImageKey(), image.getRenditions()))
                 .build();
     }
 
     @Override
-    public ImagePageResponseDto createImagePageResponseDto(Page<Image> imagePage, boolean isPublisherOrAdmin) {
-        if (imagePage == null) {
+    public ImageResponseDto imageViewToImageResponseDto(ImageView imageView) {
+        if (imageView == null) {
+            return null;
+        }
+
+        return ImageResponseDto.builder()
+                .id(imageView.getId())
+                .title(imageView.getTitle())
+                .description(imageView.getDescription())
+                .imageKey(imageView.getImageKey())
+                .publisherUsername(imageView.getPublisherUsername())
+                .publishedOn(isApproved(imageView) ? imageView.getApprovedOn() : imageView.getPublishedOn())
+                .points(imageView.getTotalPoints())
+                .renditions(toRenditionDtos(imageView.getImageKey(), imageView.getRenditions()))
+                .build();
+    }
+
+    @Override
+    public ApprovalImageResponseDto imageViewToApprovalImageResponseDto(ImageView imageView) {
+        if (imageView == null) {
+            return null;
+        }
+
+        return ApprovalImageResponseDto.builder()
+                .id(imageView.getId())
+                .title(imageView.getTitle())
+                .description(imageView.getDescription())
+                .imageKey(imageView.getImageKey())
+                .publisherUsername(imageView.getPublisherUsername())
+                .publishedOn(isApproved(imageView) ? imageView.getApprovedOn() : imageView.getPublishedOn())
+                .isApproved(isApproved(imageView))
+                .status(imageView.getStatus())
+                .points(imageView.getTotalPoints())
+                .renditions(toRenditionDtos(imageView.getImageKey(), imageView.getRenditions()))
+                .build();
+    }
+
+    @Override
+    public ImagePageResponseDto createImagePageResponseDto(Slice<ImageView> imageSlice, boolean isPublisherOrAdmin) {
+        if (imageSlice == null) {
             return null;
         }
 
         List<ImageResponseDto> imageResponseDtos;
         if (isPublisherOrAdmin) {
-            imageResponseDtos = StreamSupport.stream(imagePage.spliterator(), false)
-                    .map(this::imageToApprovalImageResponseDto).
+            imageResponseDtos = StreamSupport.stream(imageSlice.spliterator(), false)
+                    .map(this::imageViewToApprovalImageResponseDto).
                     collect(Collectors.toList());
         } else {
-            imageResponseDtos = StreamSupport.stream(imagePage.spliterator(), false)
-                    .map(this::imageToImageResponseDto).
+            imageResponseDtos = StreamSupport.stream(imageSlice.spliterator(), false)
+                    .map(this::imageViewToImageResponseDto).
                     collect(Collectors.toList());
         }
 
+        // total count is only known for pages, slices are not counted
+        final Long totalCount = imageSlice instanceof Page
+                ? ((Page<ImageView>) imageSlice).getTotalElements()
+                : null;
+
         return ImagePageResponseDto.builder()
                 .images(imageResponseDtos)
-                .totalCount(imagePage.getTotalElements())
+                .totalCount(totalCount)
+                .hasNext(imageSlice.hasNext())
                 .build();
     }
+
+    private static List<ImageRenditionResponseDto> toRenditionDtos(String imageKey, String renditions) {
+        return ImageRendition.parseAll(renditions).stream()
+                .map(rendition -> ImageRenditionResponseDto.builder()
+                        .size(rendition.getSize())
+                        .format(rendition.getFormat())
+                        .imageKey(rendition.getKey(imageKey))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isApproved(ImageView imageView) {
+        return imageView.getApprovedOn() != null
+                && imageView.getApprovedOn().isBefore(LocalDateTime.now());
+    }
 }
@@ -12,6 +12,13 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_image_approved_on", columnList = "approved_on"),
+        @Index(name = "idx_image_total_points", columnList = "total_points"),
+        @Index(name = "idx_image_last_voted_on", columnList = "last_voted_on"),
+        @Index(name = "idx_image_hot_score", columnList = "hot_score"),
+        @Index(name = "idx_image_image_key", columnList = "image_key")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -37,10 +44,17 @@ public class Image {
     })
     private String description;
 
-    @Lob
     @NotNull(message = "IMAGE_KEY_NULL")
+    @Column(length = 80)
     private String imageKey;
 
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImageStatus status = ImageStatus.READY;
+
+    private String renditions;
+
     @ManyToOne
     @JoinColumn(name = "publisher_id", nullable = false)
     private PhegyUser publisher;
@@ -53,10 +67,33 @@ public class Image {
 
     private LocalDateTime approvedOn;
 
+    /**
+     * Sum of vote points in tenths of a point.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private long totalPoints = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long voteCount = 0L;
+
+    private LocalDateTime lastVotedOn;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private double hotScore = 0d;
+
+    private LocalDateTime hotScoreDecayedOn;
+
     @Builder.Default
     @OneToMany(mappedBy = "image", cascade = CascadeType.REMOVE)
     private Collection<Vote> votes = Sets.newHashSet();
 
+    public boolean isReady() {
+        return this.status == ImageStatus.READY;
+    }
+
     public boolean isApproved() {
         return this.approvedOn != null
                 && this.approvedOn.isBefore(LocalDateTime.now());
@@ -0,0 +1,32 @@
+package tech.phegy.api.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Image file stored on the cloud storage under a content addressed key.
+ * Images with the same content share the file, it is removed when the last referencing image is deleted.
+ */
+@Entity
+@Table(name = "image_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageBlob {
+
+    @Id
+    @Column(length = 80, nullable = false, updatable = false)
+    private String imageKey;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long referenceCount = 0L;
+
+    @Column(nullable = false)
+    private boolean uploaded;
+
+    private String renditions;
+}
@@ -0,0 +1,92 @@
+package tech.phegy.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Downscaled copy of an {@link Image} file.
+ * Rendition keys are derived from the image key, so an image only stores which renditions were generated,
+ * e.g. "256.jpg,256.png,512.jpg,512.png".
+ *
+ * @author Nikita
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ImageRendition {
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Length of the longer side in pixels.
+     */
+    private final int size;
+
+    /**
+     * File extension, which is also the image format name.
+     */
+    private final String format;
+
+    /**
+     * Parse renditions stored on an image.
+     *
+     * @param renditions stored renditions or null.
+     * @return renditions.
+     */
+    public static List<ImageRendition> parseAll(String renditions) {
+        if (renditions == null || renditions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(renditions.split(SEPARATOR))
+                .map(rendition -> {
+                    final int dot = rendition.indexOf('.');
+                    return new ImageRendition(Integer.parseInt(rendition.substring(0, dot)), rendition.substring(dot + 1));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Join renditions to be stored on an image.
+     *
+     * @param renditions renditions.
+     * @return stored renditions or null when there are none.
+     */
+    public static String joinAll(Collection<ImageRendition> renditions) {
+        if (renditions.isEmpty()) {
+            return null;
+        }
+
+        return renditions.stream()
+                .map(rendition -> rendition.getSize() + "." + rendition.getFormat())
+                .collect(Collectors.joining(SEPARATOR));
+    }
+
+    /**
+     * Get storage key of this rendition of an image, e.g. "uuid-256.jpg" for "uuid.png".
+     *
+     * @param imageKey key of the original image.
+     * @return rendition key.
+     */
+    public String getKey(String imageKey) {
+        return getKeyPrefix(imageKey) + this.size + "." + this.format;
+    }
+
+    /**
+     * Get common storage key prefix of all renditions of an image, e.g. "uuid-" for "uuid.png".
+     *
+     * @param imageKey key of the original image.
+     * @return rendition key prefix.
+     */
+    public static String getKeyPrefix(String imageKey) {
+        final int dot = imageKey.lastIndexOf('.');
+        final String baseKey = dot >= 0 ? imageKey.substring(0, dot) : imageKey;
+        return baseKey + "-";
+    }
+}
@@ -0,0 +1,21 @@
+package tech.phegy.api.model;
+
+/**
+ * Ingestion state of an {@link Image} file.
+ *
+ * @author Nikita
+ */
+public enum ImageStatus {
+    /**
+     * Image is saved, its file is still being uploaded to the cloud storage.
+     */
+    UPLOADING,
+    /**
+     * Image file is available on the cloud storage.
+     */
+    READY,
+    /**
+     * Image file could not be uploaded to the cloud storage.
+     */
+    FAILED
+}
@@ -0,0 +1,14 @@
+package tech.phegy.api.model;
+
+/**
+ * Read only projection of the denormalized vote totals of an {@link Image}.
+ *
+ * @author Nikita
+ */
+public interface ImageTallyView {
+    Long getId();
+
+    Long getTotalPoints();
+
+    Long getVoteCount();
+}
@@ -0,0 +1,31 @@
+package tech.phegy.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read only projection of an {@link Image} with the columns needed by image listings.
+ * Selecting the projection avoids hydrating the image publisher with its roles and points bag.
+ *
+ * @author Nikita
+ */
+public interface ImageView {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getImageKey();
+
+    String getPublisherUsername();
+
+    LocalDateTime getPublishedOn();
+
+    LocalDateTime getApprovedOn();
+
+    Long getTotalPoints();
+
+    ImageStatus getStatus();
+
+    String getRenditions();
+}
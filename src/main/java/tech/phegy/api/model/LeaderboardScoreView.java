@@ -0,0 +1,31 @@
+package tech.phegy.api.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Score of a user loaded when the leaderboards are rebuilt.
+ * Hourly scores are grouped by the hour parts, so the queries run on every database.
+ */
+public interface LeaderboardScoreView {
+    String getUsername();
+
+    Long getScore();
+
+    Integer getBucketYear();
+
+    Integer getBucketMonth();
+
+    Integer getBucketDay();
+
+    Integer getBucketHour();
+
+    /**
+     * Hour of the scores, null for all time scores.
+     */
+    default LocalDateTime getBucket() {
+        if (getBucketYear() == null) {
+            return null;
+        }
+        return LocalDateTime.of(getBucketYear(), getBucketMonth(), getBucketDay(), getBucketHour(), 0);
+    }
+}
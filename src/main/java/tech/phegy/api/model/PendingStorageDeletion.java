@@ -0,0 +1,39 @@
+package tech.phegy.api.model;
+
+import lombok.*;
+import tech.phegy.api.service.storage.StoragePath;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * File waiting to be removed from the cloud storage.
+ * Saved in the same transaction that deletes the owning row, the file is removed later in batches.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_pending_storage_deletion_requested_on", columnList = "requested_on"),
+        @Index(name = "idx_pending_storage_deletion_path_file_key", columnList = "path, file_key")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingStorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private String fileKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private StoragePath path;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedOn;
+}
@@ -0,0 +1,60 @@
+package tech.phegy.api.model.points;
+
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import tech.phegy.api.model.Image;
+import tech.phegy.api.model.user.PhegyUser;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Votes received by an image, rolled up into hourly buckets.
+ */
+@Entity
+@Table(name = "image_vote_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_image_vote_rollup_image_bucket",
+                columnNames = {"image_id", "bucket"}),
+        indexes = {
+                @Index(name = "idx_image_vote_rollup_bucket", columnList = "bucket, image_id, points_sum"),
+                @Index(name = "idx_image_vote_rollup_publisher_bucket", columnList = "publisher_id, bucket, image_id, points_sum")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageVoteRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    @ManyToOne
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "image_id", nullable = false)
+    private Image image;
+
+    /**
+     * Publisher of the image, denormalized so publisher windows are served by an index range.
+     */
+    @ManyToOne
+    @JoinColumn(name = "publisher_id", nullable = false)
+    private PhegyUser publisher;
+
+    @NotNull(message = "VOTE_ROLLUP_BUCKET_CAN_NOT_BE_NULL")
+    @Column(nullable = false)
+    private LocalDateTime bucket;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long pointsSum = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long voteCount = 0L;
+}
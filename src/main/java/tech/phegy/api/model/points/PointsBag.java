@@ -4,8 +4,7 @@ import lombok.*;
 import tech.phegy.api.model.user.PhegyUser;
 
 import javax.persistence.*;
-import javax.validation.constraints.DecimalMin;
-import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Min;
 
 @Entity
 @Getter
@@ -18,19 +17,13 @@ public class PointsBag {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotNull(message = "STATISTICS_POINTS_CAN_NOT_BE_NULL")
-    @DecimalMin(value = "0", message = "STATISTICS_POINTS_TOO_LOW")
-    private Double points;
+    /**
+     * Available points in tenths of a point.
+     */
+    @Min(value = 0, message = "STATISTICS_POINTS_TOO_LOW")
+    private long points;
 
     @OneToOne
     @JoinColumn(name = "user_id")
     private PhegyUser user;
-
-    public void addPoints(Double points) {
-        this.points += points;
-    }
-
-    public void removePoints(Double points) {
-        this.points -= points;
-    }
 }
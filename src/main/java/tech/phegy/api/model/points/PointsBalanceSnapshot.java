@@ -0,0 +1,48 @@
+package tech.phegy.api.model.points;
+
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Balance of a user materialized from the points ledger,
+ * so a balance at any time only sums the ledger entries after the last entry of the latest snapshot before it.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_points_balance_snapshot_user_taken_on", columnList = "user_id, taken_on")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsBalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    @Type(type = "org.hibernate.type.UUIDCharType")
+    private UUID userId;
+
+    /**
+     * Balance in tenths of a point, including every ledger entry of the user up to the last entry.
+     */
+    @Column(nullable = false, updatable = false)
+    private long points;
+
+    /**
+     * Id of the last ledger entry of the user included in the balance.
+     * Entries of a user are created while the points bag row is locked, so their ids follow the commit order.
+     */
+    @Column(name = "last_entry_id", nullable = false, updatable = false)
+    private long lastEntryId;
+
+    @Column(name = "taken_on", nullable = false, updatable = false)
+    private LocalDateTime takenOn;
+}
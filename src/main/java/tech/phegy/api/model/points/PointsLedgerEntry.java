@@ -0,0 +1,52 @@
+package tech.phegy.api.model.points;
+
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Append only change of a user balance, every change of a {@link PointsBag} is recorded with one.
+ * Entries are never updated or deleted, so the sum of the entries of a user is the balance of the user.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_points_ledger_entry_user_created_on", columnList = "user_id, created_on"),
+        @Index(name = "idx_points_ledger_entry_user_id", columnList = "user_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PointsLedgerEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    @Type(type = "org.hibernate.type.UUIDCharType")
+    private UUID userId;
+
+    /**
+     * Change of the balance in tenths of a point, negative when withdrawn.
+     */
+    @Column(nullable = false, updatable = false)
+    private long points;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 16)
+    private PointsLedgerEntryType type;
+
+    /**
+     * Voted image, null when the points are not transferred for a vote.
+     */
+    @Column(updatable = false)
+    private Long imageId;
+
+    @Column(name = "created_on", nullable = false, updatable = false)
+    private LocalDateTime createdOn;
+}
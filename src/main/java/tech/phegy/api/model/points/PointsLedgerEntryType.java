@@ -0,0 +1,15 @@
+package tech.phegy.api.model.points;
+
+public enum PointsLedgerEntryType {
+    /**
+     * Balance of the points bag when the ledger was introduced.
+     */
+    OPENING,
+    GRANT,
+    VOTE_SENT,
+    VOTE_RECEIVED,
+    /**
+     * Points of a vote returned to the voter, because the vote could not be saved.
+     */
+    REVERSAL
+}
@@ -0,0 +1,29 @@
+package tech.phegy.api.model.points;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Vote saved in a batch, either queued by the write-behind ingestion or sent in a vote batch.
+ * The voter points are already withdrawn.
+ *
+ * @author Nikita
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class QueuedVote {
+    /**
+     * Position in the vote journal, 0 when the vote is not journaled.
+     */
+    private final long sequence;
+    private final UUID voterId;
+    private final UUID publisherId;
+    private final Long imageId;
+    private final long points;
+    private final LocalDateTime submittedAt;
+}
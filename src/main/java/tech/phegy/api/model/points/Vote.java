@@ -6,17 +6,24 @@ import tech.phegy.api.model.Image;
 import tech.phegy.api.model.user.PhegyUser;
 
 import javax.persistence.*;
-import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vote_sender_image", columnNames = {"sender_id", "image_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Vote {
+    /**
+     * Points are stored as whole tenths of a point, so sums are exact.
+     */
+    public static final long TENTHS_PER_POINT = 10L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,9 +33,11 @@ public class Vote {
     @NotNull(message = "VOTE_SUBMITTED_DATE_TIME_CAN_NOT_BE_NULL")
     private LocalDateTime submittedAt;
 
-    @NotNull(message = "VOTE_POINTS_CAN_NOT_BE_NULL")
-    @DecimalMin(value = "1", message = "VOTE_POINTS_TOO_LOW")
-    private Double points;
+    /**
+     * Vote points in tenths of a point.
+     */
+    @Min(value = 1, message = "VOTE_POINTS_TOO_LOW")
+    private long points;
 
     @ManyToOne
     @JoinColumn(name = "sender_id")
@@ -0,0 +1,12 @@
+package tech.phegy.api.model.points;
+
+/**
+ * Read only projection of the points a voter gave to an image.
+ *
+ * @author Nikita
+ */
+public interface VotedImageView {
+    Long getImageId();
+
+    Long getPoints();
+}
@@ -0,0 +1,39 @@
+package tech.phegy.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tech.phegy.api.model.ImageBlob;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "insert into image_blob (image_key, reference_count, uploaded) " +
+                    "values (:imageKey, 1, false) " +
+                    "on duplicate key update image_blob.reference_count = image_blob.reference_count + 1")
+    int acquire(@Param("imageKey") String imageKey);
+
+    @Modifying
+    @Query("update ImageBlob b set b.referenceCount = b.referenceCount - 1 " +
+            "where b.imageKey = :imageKey and b.referenceCount > 0")
+    int release(@Param("imageKey") String imageKey);
+
+    @Modifying
+    @Query("delete from ImageBlob b where b.imageKey = :imageKey and b.referenceCount <= 0")
+    int deleteUnreferenced(@Param("imageKey") String imageKey);
+
+    @Transactional
+    @Modifying
+    @Query("update ImageBlob b set b.uploaded = true where b.imageKey = :imageKey")
+    int markUploaded(@Param("imageKey") String imageKey);
+
+    @Transactional
+    @Modifying
+    @Query("update ImageBlob b set b.renditions = :renditions where b.imageKey = :imageKey")
+    int updateRenditions(@Param("imageKey") String imageKey, @Param("renditions") String renditions);
+}
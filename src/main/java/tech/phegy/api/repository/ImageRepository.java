@@ -2,12 +2,23 @@ package tech.phegy.api.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageStatus;
+import tech.phegy.api.model.ImageTallyView;
+import tech.phegy.api.model.ImageView;
+import tech.phegy.api.model.LeaderboardScoreView;
+import tech.phegy.api.model.user.PhegyUser;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,55 +27,266 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
 
     long countByPublisherUsernameAndApprovedOnNotNull(String publisherUsername);
 
-    Page<Image> findAllByApprovedOnNull(Pageable pageable);
+    Page<ImageView> findAllBy(Pageable pageable);
 
-    Page<Image> findAllByApprovedOnNotNull(Pageable pageable);
+    Page<ImageView> findAllByApprovedOnNull(Pageable pageable);
 
-    Page<Image> findAllByPublisherUsername(String publisherUsername, Pageable pageable);
+    Page<ImageView> findAllByApprovedOnNotNull(Pageable pageable);
 
-    Page<Image> findAllByPublisherUsernameAndApprovedOnNull(String publisherUsername, Pageable pageable);
+    Page<ImageView> findAllByPublisherUsername(String publisherUsername, Pageable pageable);
 
-    Page<Image> findAllByPublisherUsernameAndApprovedOnNotNull(String publisherUsername, Pageable pageable);
+    Page<ImageView> findAllByPublisherUsernameAndApprovedOnNull(String publisherUsername, Pageable pageable);
+
+    Page<ImageView> findAllByPublisherUsernameAndApprovedOnNotNull(String publisherUsername, Pageable pageable);
+
+    long countByApprovedOnNull();
+
+    long countByApprovedOnNotNull();
+
+    long countByPublisherUsername(String publisherUsername);
+
+    long countByPublisherUsernameAndApprovedOnNull(String publisherUsername);
+
+    Slice<ImageView> findSliceBy(Pageable pageable);
+
+    Slice<ImageView> findSliceByApprovedOnNull(Pageable pageable);
+
+    Slice<ImageView> findSliceByApprovedOnNotNull(Pageable pageable);
+
+    Slice<ImageView> findSliceByPublisherUsername(String publisherUsername, Pageable pageable);
+
+    Slice<ImageView> findSliceByPublisherUsernameAndApprovedOnNull(String publisherUsername, Pageable pageable);
+
+    Slice<ImageView> findSliceByPublisherUsernameAndApprovedOnNotNull(String publisherUsername, Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "select * from image i " +
-                    "left join vote d on i.id = d.image_id " +
+            value = "select i.id as id, i.title as title, i.description as description, " +
+                    "i.image_key as imageKey, u.username as publisherUsername, " +
+                    "i.published_on as publishedOn, i.approved_on as approvedOn, i.total_points as totalPoints, i.status as status, i.renditions as renditions " +
+                    "from image i " +
+                    "join user u on u.id = i.publisher_id " +
+                    "join (select r.image_id, sum(r.points_sum) as window_points " +
+                    "      from image_vote_rollup r " +
+                    "      where r.bucket >= :since " +
+                    "      group by r.image_id) w on w.image_id = i.id " +
                     "where i.approved_on is not null " +
-                    "group by i.id " +
-                    "order by max(d.submitted_at) desc, approved_on desc")
-    Page<Image> findAllByApprovedOnNotNullOrderByLatestTipped(Pageable pageable);
+                    "order by w.window_points desc, i.approved_on desc, i.id desc",
+            countQuery = "select count(distinct r.image_id) from image_vote_rollup r " +
+                    "join image i on i.id = r.image_id " +
+                    "where r.bucket >= :since and i.approved_on is not null")
+    Page<ImageView> findAllByApprovedOnNotNullOrderByTopVotedSince(@Param("since") LocalDateTime since, Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "select * from image m " +
-                    "left join vote d on m.id = d.image_id " +
-                    "join user u on m.publisher_id = u.id " +
-                    "where u.username = :publisherUsername and m.approved_on is not null " +
-                    "group by m.id " +
-                    "order by max(d.submitted_at) desc, approved_on desc")
-    Page<Image> findAllByPublisherUsernameApprovedOnNotNullOrderByLatestTipped(@Param("publisherUsername") String publisherUsername, Pageable pageable);
+            value = "select i.id as id, i.title as title, i.description as description, " +
+                    "i.image_key as imageKey, u.username as publisherUsername, " +
+                    "i.published_on as publishedOn, i.approved_on as approvedOn, i.total_points as totalPoints, i.status as status, i.renditions as renditions " +
+                    "from image i " +
+                    "join user u on u.id = i.publisher_id " +
+                    "join (select r.image_id, sum(r.points_sum) as window_points " +
+                    "      from image_vote_rollup r " +
+                    "      where r.bucket >= :since " +
+                    "      group by r.image_id) w on w.image_id = i.id " +
+                    "where i.approved_on is not null " +
+                    "order by w.window_points desc, i.approved_on desc, i.id desc")
+    Slice<ImageView> findSliceByApprovedOnNotNullOrderByTopVotedSince(@Param("since") LocalDateTime since, Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "select * from image m " +
-                    "left join vote d on m.id = d.image_id " +
-                    "where m.approved_on is not null " +
-                    "group by m.id " +
-                    "order by sum(d.points) desc, approved_on desc")
-    Page<Image> findAllByApprovedOnNotNullOrderByMostTipped(Pageable pageable);
+            value = "select count(distinct r.image_id) from image_vote_rollup r " +
+                    "join image i on i.id = r.image_id " +
+                    "where r.bucket >= :since and i.approved_on is not null")
+    long countByApprovedOnNotNullAndVotedSince(@Param("since") LocalDateTime since);
 
     @Query(nativeQuery = true,
-            value = "select * from image m " +
-                    "left join vote d on m.id = d.image_id " +
-                    "join user u on m.publisher_id = u.id " +
-                    "where u.username = :publisherUsername and m.approved_on is not null " +
-                    "group by m.id " +
-                    "order by sum(d.points) desc, approved_on desc")
-    Page<Image> findAllByPublisherUsernameApprovedOnNotNullOrderByMostTipped(@Param("publisherUsername") String publisherUsername, Pageable pageable);
+            value = "select i.id as id, i.title as title, i.description as description, " +
+                    "i.image_key as imageKey, u.username as publisherUsername, " +
+                    "i.published_on as publishedOn, i.approved_on as approvedOn, i.total_points as totalPoints, i.status as status, i.renditions as renditions " +
+                    "from image i " +
+                    "join user u on u.id = i.publisher_id " +
+                    "join (select r.image_id, sum(r.points_sum) as window_points " +
+                    "      from image_vote_rollup r " +
+                    "      where r.publisher_id = (select id from user where username = :publisherUsername) " +
+                    "      and r.bucket >= :since " +
+                    "      group by r.image_id) w on w.image_id = i.id " +
+                    "where i.approved_on is not null " +
+                    "order by w.window_points desc, i.approved_on desc, i.id desc",
+            countQuery = "select count(distinct r.image_id) from image_vote_rollup r " +
+                    "join image i on i.id = r.image_id " +
+                    "where r.publisher_id = (select id from user where username = :publisherUsername) " +
+                    "and r.bucket >= :since and i.approved_on is not null")
+    Page<ImageView> findAllByPublisherUsernameAndApprovedOnNotNullOrderByTopVotedSince(@Param("publisherUsername") String publisherUsername,
+                                                                                        @Param("since") LocalDateTime since,
+                                                                                        Pageable pageable);
 
     @Query(nativeQuery = true,
-            value = "select * from image m " +
-                    "left join vote d on m.id = d.image_id " +
-                    "where d.submitted_at BETWEEN NOW() - INTERVAL :days DAY AND NOW() and m.approved_on is not null " +
-                    "group by m.id " +
-                    "order by sum(d.points) desc, approved_on desc")
-    Page<Image> findAllByApprovedOnNotNullOrderByTopTipped(Pageable pageable, @Param("days") int daysFromNow);
+            value = "select i.id as id, i.title as title, i.description as description, " +
+                    "i.image_key as imageKey, u.username as publisherUsername, " +
+                    "i.published_on as publishedOn, i.approved_on as approvedOn, i.total_points as totalPoints, i.status as status, i.renditions as renditions " +
+                    "from image i " +
+                    "join user u on u.id = i.publisher_id " +
+                    "join (select r.image_id, sum(r.points_sum) as window_points " +
+                    "      from image_vote_rollup r " +
+                    "      where r.publisher_id = (select id from user where username = :publisherUsername) " +
+                    "      and r.bucket >= :since " +
+                    "      group by r.image_id) w on w.image_id = i.id " +
+                    "where i.approved_on is not null " +
+                    "order by w.window_points desc, i.approved_on desc, i.id desc")
+    Slice<ImageView> findSliceByPublisherUsernameAndApprovedOnNotNullOrderByTopVotedSince(@Param("publisherUsername") String publisherUsername,
+                                                                                           @Param("since") LocalDateTime since,
+                                                                                           Pageable pageable);
+
+    @Query(nativeQuery = true,
+            value = "select count(distinct r.image_id) from image_vote_rollup r " +
+                    "join image i on i.id = r.image_id " +
+                    "where r.publisher_id = (select id from user where username = :publisherUsername) " +
+                    "and r.bucket >= :since and i.approved_on is not null")
+    long countByPublisherUsernameAndApprovedOnNotNullAndVotedSince(@Param("publisherUsername") String publisherUsername,
+                                                                   @Param("since") LocalDateTime since);
+
+    @Query("select i.id as id, i.title as title, i.description as description, " +
+            "i.imageKey as imageKey, p.username as publisherUsername, " +
+            "i.publishedOn as publishedOn, i.approvedOn as approvedOn, i.totalPoints as totalPoints, i.status as status, i.renditions as renditions " +
+            "from Image i join i.publisher p " +
+            "where i.approvedOn is not null " +
+            "and (:publisherUsername is null or p.username = :publisherUsername) " +
+            "and (i.approvedOn < :approvedOn or (i.approvedOn = :approvedOn and i.id < :id)) " +
+            "order by i.approvedOn desc, i.id desc")
+    List<ImageView> findAllApprovedNewestAfter(@Param("publisherUsername") String publisherUsername,
+                                           @Param("approvedOn") LocalDateTime approvedOn,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    @Query("select i.id as id, i.title as title, i.description as description, " +
+            "i.imageKey as imageKey, p.username as publisherUsername, " +
+            "i.publishedOn as publishedOn, i.approvedOn as approvedOn, i.totalPoints as totalPoints, i.status as status, i.renditions as renditions " +
+            "from Image i join i.publisher p " +
+            "where i.approvedOn is not null " +
+            "and (:publisherUsername is null or p.username = :publisherUsername) " +
+            "and (i.approvedOn > :approvedOn or (i.approvedOn = :approvedOn and i.id > :id)) " +
+            "order by i.approvedOn asc, i.id asc")
+    List<ImageView> findAllApprovedOldestAfter(@Param("publisherUsername") String publisherUsername,
+                                           @Param("approvedOn") LocalDateTime approvedOn,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    @Query("select i.id as id, i.title as title, i.description as description, " +
+            "i.imageKey as imageKey, p.username as publisherUsername, " +
+            "i.publishedOn as publishedOn, i.approvedOn as approvedOn, i.totalPoints as totalPoints, i.status as status, i.renditions as renditions " +
+            "from Image i join i.publisher p " +
+            "where i.approvedOn is not null " +
+            "and (:publisherUsername is null or p.username = :publisherUsername) " +
+            "and (i.totalPoints < :totalPoints or (i.totalPoints = :totalPoints and i.id < :id)) " +
+            "order by i.totalPoints desc, i.id desc")
+    List<ImageView> findAllApprovedMostVotedAfter(@Param("publisherUsername") String publisherUsername,
+                                              @Param("totalPoints") Long totalPoints,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("update Image i " +
+            "set i.totalPoints = i.totalPoints + :points, " +
+            "i.voteCount = i.voteCount + 1, " +
+            "i.lastVotedOn = :votedOn " +
+            "where i.id = :imageId")
+    int addVote(@Param("imageId") Long imageId,
+                @Param("points") long points,
+                @Param("votedOn") LocalDateTime votedOn);
+
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "update image " +
+                    "set hot_score = hot_score * pow(0.5, timestampdiff(second, coalesce(hot_score_decayed_on, :votedOn), :votedOn) / :halfLifeSeconds) + :points, " +
+                    "hot_score_decayed_on = :votedOn " +
+                    "where id = :imageId")
+    int addHotScore(@Param("imageId") Long imageId,
+                    @Param("points") Double points,
+                    @Param("votedOn") LocalDateTime votedOn,
+                    @Param("halfLifeSeconds") long halfLifeSeconds);
+
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "update image " +
+                    "set hot_score = if(hot_score * pow(0.5, timestampdiff(second, hot_score_decayed_on, :now) / :halfLifeSeconds) < :minScore, " +
+                    "0, hot_score * pow(0.5, timestampdiff(second, hot_score_decayed_on, :now) / :halfLifeSeconds)), " +
+                    "hot_score_decayed_on = :now " +
+                    "where hot_score > 0 and hot_score_decayed_on < :now")
+    int decayHotScores(@Param("now") LocalDateTime now,
+                       @Param("halfLifeSeconds") long halfLifeSeconds,
+                       @Param("minScore") double minScore);
+
+    @Query("select i.id as id, i.totalPoints as totalPoints, i.voteCount as voteCount " +
+            "from Image i where i.id in :ids")
+    List<ImageTallyView> findAllTalliesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i from Image i join fetch i.publisher where i.id in :ids")
+    List<Image> findAllWithPublisherByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i from Image i join fetch i.publisher " +
+            "where i.id in :ids and i.approvedOn is null")
+    List<Image> findAllPendingByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Image i " +
+            "set i.approvedBy = :approvedBy, i.approvedOn = :approvedOn, " +
+            "i.hotScore = :hotScore, i.hotScoreDecayedOn = :approvedOn " +
+            "where i.id in :ids and i.approvedOn is null")
+    int approveAllByIdIn(@Param("ids") Collection<Long> ids,
+                         @Param("approvedBy") PhegyUser approvedBy,
+                         @Param("approvedOn") LocalDateTime approvedOn,
+                         @Param("hotScore") Double hotScore);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.status = :status where i.id = :imageId and i.status = :currentStatus")
+    int updateStatus(@Param("imageId") Long imageId,
+                     @Param("currentStatus") ImageStatus currentStatus,
+                     @Param("status") ImageStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.status = :status where i.status = :currentStatus and i.publishedOn < :publishedBefore")
+    int updateStatusByPublishedOnBefore(@Param("currentStatus") ImageStatus currentStatus,
+                                        @Param("status") ImageStatus status,
+                                        @Param("publishedBefore") LocalDateTime publishedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.renditions = :renditions where i.id = :imageId")
+    int updateRenditions(@Param("imageId") Long imageId, @Param("renditions") String renditions);
+
+    @Transactional
+    @Modifying
+    @Query("update Image i set i.renditions = :renditions where i.imageKey = :imageKey")
+    int updateRenditionsByImageKey(@Param("imageKey") String imageKey, @Param("renditions") String renditions);
+
+    @Modifying
+    @Query("delete from Image i where i.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select i.id as id, i.title as title, i.description as description, " +
+            "i.imageKey as imageKey, p.username as publisherUsername, " +
+            "i.publishedOn as publishedOn, i.approvedOn as approvedOn, i.totalPoints as totalPoints, i.status as status, i.renditions as renditions " +
+            "from Image i join i.publisher p " +
+            "where i.id in :ids " +
+            "and (i.approvedOn is not null or :includePending = true or p.username = :principalUsername)")
+    List<ImageView> findAllVisibleByIdIn(@Param("ids") Collection<Long> ids,
+                                         @Param("principalUsername") String principalUsername,
+                                         @Param("includePending") boolean includePending);
+
+    @Query("select p.username as username, sum(i.totalPoints) as score " +
+            "from Image i join i.publisher p " +
+            "group by p.username")
+    List<LeaderboardScoreView> sumTotalPointsGroupByPublisher();
+
+    @Query("select p.username as username, count(i) as score " +
+            "from Image i join i.publisher p " +
+            "where i.approvedOn is not null " +
+            "group by p.username")
+    List<LeaderboardScoreView> countApprovedGroupByPublisher();
+
+    @Query("select p.username as username, count(i) as score, " +
+            "year(i.approvedOn) as bucketYear, month(i.approvedOn) as bucketMonth, day(i.approvedOn) as bucketDay, hour(i.approvedOn) as bucketHour " +
+            "from Image i join i.publisher p " +
+            "where i.approvedOn >= :since " +
+            "group by p.username, year(i.approvedOn), month(i.approvedOn), day(i.approvedOn), hour(i.approvedOn)")
+    List<LeaderboardScoreView> countApprovedSinceGroupByPublisherAndHour(@Param("since") LocalDateTime since);
 }
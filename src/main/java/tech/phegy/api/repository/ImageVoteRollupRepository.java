@@ -0,0 +1,38 @@
+package tech.phegy.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.phegy.api.model.LeaderboardScoreView;
+import tech.phegy.api.model.points.ImageVoteRollup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ImageVoteRollupRepository extends JpaRepository<ImageVoteRollup, Long> {
+
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "insert into image_vote_rollup (image_id, publisher_id, bucket, points_sum, vote_count) " +
+                    "select i.id, i.publisher_id, :bucket, :points, 1 from image i where i.id = :imageId " +
+                    "on duplicate key update " +
+                    "image_vote_rollup.points_sum = image_vote_rollup.points_sum + :points, " +
+                    "image_vote_rollup.vote_count = image_vote_rollup.vote_count + 1")
+    int addVote(@Param("imageId") Long imageId,
+                @Param("bucket") LocalDateTime bucket,
+                @Param("points") long points);
+
+    @Modifying
+    @Query("delete from ImageVoteRollup r where r.bucket < :before")
+    int deleteAllByBucketBefore(@Param("before") LocalDateTime before);
+
+    @Query("select p.username as username, sum(r.pointsSum) as score, " +
+            "year(r.bucket) as bucketYear, month(r.bucket) as bucketMonth, day(r.bucket) as bucketDay, hour(r.bucket) as bucketHour " +
+            "from ImageVoteRollup r join r.publisher p " +
+            "where r.bucket >= :since " +
+            "group by p.username, year(r.bucket), month(r.bucket), day(r.bucket), hour(r.bucket)")
+    List<LeaderboardScoreView> sumPointsSinceGroupByPublisherAndHour(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,34 @@
+package tech.phegy.api.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.phegy.api.model.PendingStorageDeletion;
+import tech.phegy.api.service.storage.StoragePath;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PendingStorageDeletionRepository extends JpaRepository<PendingStorageDeletion, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from PendingStorageDeletion d order by d.requestedOn asc, d.id asc")
+    List<PendingStorageDeletion> findOldestForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("delete from PendingStorageDeletion d where d.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PendingStorageDeletion d " +
+            "where d.path = :path and (d.fileKey = :fileKey or d.fileKey like concat(:fileKeyPrefix, '%'))")
+    int deleteAllByFileKeyOrPrefix(@Param("path") StoragePath path,
+                                   @Param("fileKey") String fileKey,
+                                   @Param("fileKeyPrefix") String fileKeyPrefix);
+}
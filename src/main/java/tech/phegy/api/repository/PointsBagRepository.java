@@ -1,12 +1,44 @@
 package tech.phegy.api.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import tech.phegy.api.model.points.PointsBag;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface PointsBagRepository extends JpaRepository<PointsBag, Long> {
     Optional<PointsBag> findByUserUsername(String username);
+
+    @Modifying
+    @Query("update PointsBag b set b.points = b.points - :points where b.user.id = :userId and b.points >= :points")
+    int withdrawPoints(@Param("userId") UUID userId, @Param("points") long points);
+
+    @Modifying
+    @Query("update PointsBag b set b.points = b.points + :points where b.user.id = :userId")
+    int depositPoints(@Param("userId") UUID userId, @Param("points") long points);
+
+    @Query("select b.id from PointsBag b order by b.id")
+    List<Long> findAllIds();
+
+    /**
+     * Set the points of bags that differ from the sum of the ledger entries of their users.
+     *
+     * @return count of corrected bags.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "update points_bag b " +
+                    "set b.points = (select coalesce(sum(e.points), 0) from points_ledger_entry e where e.user_id = b.user_id) " +
+                    "where b.id in :ids " +
+                    "and b.points <> (select coalesce(sum(e.points), 0) from points_ledger_entry e where e.user_id = b.user_id)")
+    int rebuildPointsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,36 @@
+package tech.phegy.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import tech.phegy.api.model.points.PointsBalanceSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PointsBalanceSnapshotRepository extends JpaRepository<PointsBalanceSnapshot, Long> {
+    Optional<PointsBalanceSnapshot> findFirstByUserIdAndTakenOnLessThanEqualOrderByTakenOnDesc(UUID userId, LocalDateTime takenOn);
+
+    /**
+     * Snapshot the balance of every user with ledger entries after the last entry of their latest snapshot.
+     * Entries are selected by id instead of creation time, so an entry committed after a snapshot passed
+     * its creation time is included in the next one. The balance of other users is unchanged,
+     * their latest snapshot stays valid.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true,
+            value = "insert into points_balance_snapshot (user_id, points, last_entry_id, taken_on) " +
+                    "select e.user_id, coalesce(s.points, 0) + sum(e.points), max(e.id), :takenOn " +
+                    "from points_bag b " +
+                    "left join points_balance_snapshot s on s.id = (select l.id from points_balance_snapshot l " +
+                    "where l.user_id = b.user_id order by l.taken_on desc, l.id desc limit 1) " +
+                    "join points_ledger_entry e on e.user_id = b.user_id and e.id > coalesce(s.last_entry_id, 0) " +
+                    "group by e.user_id, s.points")
+    int snapshotAllChanged(@Param("takenOn") LocalDateTime takenOn);
+}
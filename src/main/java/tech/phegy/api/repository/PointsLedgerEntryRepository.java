@@ -0,0 +1,23 @@
+package tech.phegy.api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface PointsLedgerEntryRepository extends JpaRepository<PointsLedgerEntry, Long> {
+
+    boolean existsByUserIdAndImageIdAndType(UUID userId, Long imageId, PointsLedgerEntryType type);
+
+    @Query("select coalesce(sum(e.points), 0) from PointsLedgerEntry e " +
+            "where e.userId = :userId and e.id > :afterEntryId and e.createdOn <= :until")
+    long sumPointsByUserIdAfterEntryCreatedUntil(@Param("userId") UUID userId,
+                                                 @Param("afterEntryId") long afterEntryId,
+                                                 @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,149 @@
+package tech.phegy.api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.QueuedVote;
+import tech.phegy.api.model.points.Vote;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC batch writes of queued votes, so a whole batch is saved with a few round trips.
+ * Aggregates are updated once per image and user of the batch instead of once per vote,
+ * so a viral image does not lock its row for every single vote.
+ * Relies on the update count of every statement of a batch, the datasource must not rewrite batched statements.
+ *
+ * @author Nikita
+ */
+@Repository
+public class VoteBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public VoteBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert votes, skipping duplicate votes and votes for deleted images.
+     *
+     * @param votes votes to insert.
+     * @return update count of every vote, 0 when skipped.
+     */
+    public int[] insertAll(List<QueuedVote> votes) {
+        final List<Object[]> args = votes.stream()
+                .map(vote -> new Object[]{
+                        Timestamp.valueOf(vote.getSubmittedAt()),
+                        vote.getPoints(),
+                        vote.getVoterId().toString(),
+                        vote.getImageId()})
+                .collect(Collectors.toList());
+        return this.jdbcTemplate.batchUpdate(
+                "insert ignore into vote (submitted_at, points, sender_id, image_id) values (?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * Deposit points to users, in the order of the user ids.
+     *
+     * @param points points in tenths of a point by user id.
+     */
+    public void depositAll(Map<UUID, Long> points) {
+        final List<Object[]> args = new TreeMap<>(points).entrySet().stream()
+                .map(deposit -> new Object[]{deposit.getValue(), deposit.getKey().toString()})
+                .collect(Collectors.toList());
+        this.jdbcTemplate.batchUpdate("update points_bag set points = points + ? where user_id = ?", args);
+    }
+
+    /**
+     * Append entries to the points ledger, after the bags of their users are updated.
+     *
+     * @param entries ledger entries.
+     */
+    public void insertAllLedgerEntries(Collection<PointsLedgerEntry> entries) {
+        final List<Object[]> args = entries.stream()
+                .map(entry -> new Object[]{
+                        entry.getUserId().toString(),
+                        entry.getPoints(),
+                        entry.getType().name(),
+                        entry.getImageId(),
+                        Timestamp.valueOf(entry.getCreatedOn())})
+                .collect(Collectors.toList());
+        this.jdbcTemplate.batchUpdate(
+                "insert into points_ledger_entry (user_id, points, type, image_id, created_on) values (?, ?, ?, ?, ?)",
+                args);
+    }
+
+    /**
+     * Add votes to the denormalized vote aggregates and HOT scores of their images.
+     * The HOT score of an image is decayed once to its latest vote of the batch.
+     *
+     * @param votes           saved votes.
+     * @param halfLifeSeconds HOT score half life.
+     */
+    public void addAllToImages(Collection<QueuedVote> votes, long halfLifeSeconds) {
+        final List<Object[]> args = new ArrayList<>();
+        votes.stream()
+                .collect(Collectors.groupingBy(QueuedVote::getImageId, TreeMap::new, Collectors.toList()))
+                .forEach((imageId, imageVotes) -> {
+                    final long points = imageVotes.stream().mapToLong(QueuedVote::getPoints).sum();
+                    final Timestamp votedOn = Timestamp.valueOf(imageVotes.stream()
+                            .map(QueuedVote::getSubmittedAt)
+                            .max(Comparator.naturalOrder())
+                            .orElseThrow());
+                    args.add(new Object[]{
+                            points, imageVotes.size(), votedOn,
+                            votedOn, votedOn, halfLifeSeconds, (double) points / Vote.TENTHS_PER_POINT,
+                            votedOn,
+                            imageId});
+                });
+        this.jdbcTemplate.batchUpdate(
+                "update image " +
+                        "set total_points = total_points + ?, " +
+                        "vote_count = vote_count + ?, " +
+                        "last_voted_on = ?, " +
+                        "hot_score = hot_score * pow(0.5, timestampdiff(second, coalesce(hot_score_decayed_on, ?), ?) / ?) + ?, " +
+                        "hot_score_decayed_on = ? " +
+                        "where id = ?",
+                args);
+    }
+
+    /**
+     * Add votes to the hourly vote rollup buckets of their images.
+     *
+     * @param votes saved votes.
+     */
+    public void addAllToRollups(Collection<QueuedVote> votes) {
+        final List<Object[]> args = new ArrayList<>();
+        votes.stream()
+                .collect(Collectors.groupingBy(QueuedVote::getImageId, TreeMap::new,
+                        Collectors.groupingBy(vote -> vote.getSubmittedAt().truncatedTo(ChronoUnit.HOURS), TreeMap::new, Collectors.toList())))
+                .forEach((imageId, buckets) -> buckets.forEach((LocalDateTime bucket, List<QueuedVote> bucketVotes) -> {
+                    final long points = bucketVotes.stream().mapToLong(QueuedVote::getPoints).sum();
+                    args.add(new Object[]{
+                            Timestamp.valueOf(bucket), points, bucketVotes.size(),
+                            imageId,
+                            points, bucketVotes.size()});
+                }));
+        this.jdbcTemplate.batchUpdate(
+                "insert into image_vote_rollup (image_id, publisher_id, bucket, points_sum, vote_count) " +
+                        "select i.id, i.publisher_id, ?, ?, ? from image i where i.id = ? " +
+                        "on duplicate key update " +
+                        "image_vote_rollup.points_sum = image_vote_rollup.points_sum + ?, " +
+                        "image_vote_rollup.vote_count = image_vote_rollup.vote_count + ?",
+                args);
+    }
+}
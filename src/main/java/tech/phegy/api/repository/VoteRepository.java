@@ -1,23 +1,56 @@
 package tech.phegy.api.repository;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tech.phegy.api.model.LeaderboardScoreView;
 import tech.phegy.api.model.points.Vote;
+import tech.phegy.api.model.points.VotedImageView;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface VoteRepository extends CrudRepository<Vote, Long> {
 
+    boolean existsByVoterIdAndImageId(UUID voterId, Long imageId);
+
     @Query("select sum(d.points) " +
             "from Vote d join PhegyUser u on d.image.publisher.id = u.id " +
             "where u.username = :username " +
             "group by u.username")
-    Double getVotePointsReceivedBy(@Param("username") String receiverUsername);
+    Long getVotePointsReceivedBy(@Param("username") String receiverUsername);
 
     @Query("select sum(d.points) " +
             "from Vote d join PhegyUser u on d.voter.id = u.id " +
             "where u.username = :username " +
             "group by u.username")
-    Double getVotePointsSentBy(@Param("username") String senderUsername);
+    Long getVotePointsSentBy(@Param("username") String senderUsername);
+
+    @Query("select v.image.id as imageId, sum(v.points) as points " +
+            "from Vote v " +
+            "where v.voter.id = :voterId and v.image.id in :imageIds " +
+            "group by v.image.id")
+    List<VotedImageView> findAllVotedByVoterIdAndImageIdIn(@Param("voterId") UUID voterId,
+                                                            @Param("imageIds") Collection<Long> imageIds);
+
+    @Modifying
+    @Query("delete from Vote v where v.image.id in :imageIds")
+    int deleteAllByImageIdIn(@Param("imageIds") Collection<Long> imageIds);
+
+    @Query("select u.username as username, sum(v.points) as score " +
+            "from Vote v join v.voter u " +
+            "group by u.username")
+    List<LeaderboardScoreView> sumPointsGroupByVoter();
+
+    @Query("select u.username as username, sum(v.points) as score, " +
+            "year(v.submittedAt) as bucketYear, month(v.submittedAt) as bucketMonth, day(v.submittedAt) as bucketDay, hour(v.submittedAt) as bucketHour " +
+            "from Vote v join v.voter u " +
+            "where v.submittedAt >= :since " +
+            "group by u.username, year(v.submittedAt), month(v.submittedAt), day(v.submittedAt), hour(v.submittedAt)")
+    List<LeaderboardScoreView> sumPointsSinceGroupByVoterAndHour(@Param("since") LocalDateTime since);
 }
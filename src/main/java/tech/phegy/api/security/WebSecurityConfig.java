@@ -68,7 +68,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                         "/api/v1/refresh/*",
                         "/api/v1/achievements/*",
                         "/phegy-websocket/**").permitAll()
-                .antMatchers(HttpMethod.GET, "/api/v1/image").permitAll()
+                .antMatchers(HttpMethod.GET, "/api/v1/image", "/api/v1/leaderboard").permitAll()
                 .anyRequest().authenticated();
     }
 
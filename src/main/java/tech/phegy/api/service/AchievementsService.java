@@ -4,6 +4,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import tech.phegy.api.dto.user.response.AchievementResponseDto;
 import tech.phegy.api.dto.user.response.AchievementsListResponseDto;
+import tech.phegy.api.model.points.Vote;
 import tech.phegy.api.service.points.VoteService;
 
 import java.util.List;
@@ -43,12 +44,17 @@ public class AchievementsService {
                                 .build(),
                         AchievementResponseDto.builder()
                                 .name("Получени точки")
-                                .value(voteService.getPointsReceivedBy(username).toString())
+                                .value(formatPoints(voteService.getPointsReceivedBy(username)))
                                 .build(),
                         AchievementResponseDto.builder()
                                 .name("Изпратени точки")
-                                .value(voteService.getPointsSentBy(username).toString())
+                                .value(formatPoints(voteService.getPointsSentBy(username)))
                                 .build()
                 )).build();
     }
+
+    private static String formatPoints(long tenths) {
+        // achievements are displayed in whole points, e.g. 23.5
+        return String.valueOf((double) tenths / Vote.TENTHS_PER_POINT);
+    }
 }
@@ -1,13 +1,19 @@
 package tech.phegy.api.service;
 
 import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.io.ByteStreams;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 /**
  * Simple hashing service.
  * Mainly used for hashing sensitive data (refresh tokens, activation tokens) before saving it to the database
+ * and for content addressing uploaded images
  *
  * @author Nikita
  */
@@ -23,4 +29,18 @@ public class HashingService {
         // uses google guava sha256 hashing algorithm to hash provided string
         return Hashing.sha256().hashString(string, StandardCharsets.UTF_8).toString();
     }
+
+    /**
+     * Copies a stream and hashes its content on the way, so the content is read only once
+     *
+     * @param source stream to be hashed, not closed by this method
+     * @param target stream receiving the content, not closed by this method
+     * @return hashed content
+     * @throws IOException when can not read or write the content
+     */
+    public String hashCopy(InputStream source, OutputStream target) throws IOException {
+        final HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), source);
+        ByteStreams.copy(hashingStream, target);
+        return hashingStream.hash().toString();
+    }
 }
@@ -1,30 +1,67 @@
 package tech.phegy.api.service;
 
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import tech.phegy.api.exception.PhegyHttpException;
 import tech.phegy.api.model.Image;
-import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.model.ImageBlob;
+import tech.phegy.api.model.ImageRendition;
+import tech.phegy.api.model.ImageStatus;
+import tech.phegy.api.model.ImageView;
+import tech.phegy.api.service.feed.ImageCountCache;
+import tech.phegy.api.service.feed.ImageCountKey;
+import tech.phegy.api.service.feed.ImageFeedCache;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.ImageFeedKey;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+import tech.phegy.api.service.leaderboard.event.OnLeaderboardChangedEvent;
+import tech.phegy.api.service.ingestion.ImageIngestionService;
+import tech.phegy.api.service.ingestion.SpooledImage;
+import tech.phegy.api.service.ingestion.event.OnImageUploadRequestedEvent;
+import tech.phegy.api.service.storage.StorageDeletionService;
 import tech.phegy.api.service.storage.StoragePath;
+import tech.phegy.api.service.validator.ImageFileVerifier;
 import tech.phegy.api.service.validator.ModelValidatorService;
+import tech.phegy.api.dto.image.filter.ImageCursor;
+import tech.phegy.api.dto.image.response.ImageListResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageResponseDto;
 import tech.phegy.api.dto.image.filter.ImageOrderFilter;
 import tech.phegy.api.mapper.image.ImageMapper;
 import tech.phegy.api.dto.image.filter.ImagePublishFilter;
 import tech.phegy.api.model.notification.Notification;
 import tech.phegy.api.model.notification.NotificationCategory;
+import tech.phegy.api.model.points.Vote;
+import tech.phegy.api.model.points.VotedImageView;
 import tech.phegy.api.model.user.PhegyUser;
+import tech.phegy.api.repository.ImageBlobRepository;
 import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.repository.ImageVoteRollupRepository;
+import tech.phegy.api.repository.VoteRepository;
+import tech.phegy.api.service.moderation.ModerationProps;
+import tech.phegy.api.service.points.VoteProps;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing images.
@@ -33,28 +70,64 @@ import java.util.UUID;
  */
 @Service
 public class ImageService {
+    private static final int MAX_LOOKUP_IDS = 100;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ImageRepository imageRepository;
+    private final ImageVoteRollupRepository imageVoteRollupRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final VoteRepository voteRepository;
     private final PhegyUserService userService;
-    private final CloudStorageService cloudStorageService;
+    private final StorageDeletionService storageDeletionService;
+    private final ImageIngestionService imageIngestionService;
     private final NotificationService notificationService;
     private final ModelValidatorService modelValidatorService;
+    private final ImageFileVerifier imageFileVerifier;
     private final ImageMapper imageMapper;
+    private final VoteProps voteProps;
+    private final ImageFeedCache imageFeedCache;
+    private final ImageCountCache imageCountCache;
+    private final ModerationProps moderationProps;
+    private final HotScoreProps hotScoreProps;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructs new instance with needed dependencies.
      */
     public ImageService(ImageRepository imageRepository,
+                        ImageVoteRollupRepository imageVoteRollupRepository,
+                        ImageBlobRepository imageBlobRepository,
+                        VoteRepository voteRepository,
                         PhegyUserService userService,
-                        CloudStorageService cloudStorageService,
+                        StorageDeletionService storageDeletionService,
+                        ImageIngestionService imageIngestionService,
                         NotificationService notificationService,
                         ModelValidatorService modelValidatorService,
-                        ImageMapper imageMapper) {
+                        ImageFileVerifier imageFileVerifier,
+                        ImageMapper imageMapper,
+                        VoteProps voteProps,
+                        ImageFeedCache imageFeedCache,
+                        ImageCountCache imageCountCache,
+                        ModerationProps moderationProps,
+                        HotScoreProps hotScoreProps,
+                        ApplicationEventPublisher eventPublisher) {
         this.imageRepository = imageRepository;
+        this.imageVoteRollupRepository = imageVoteRollupRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.voteRepository = voteRepository;
         this.userService = userService;
-        this.cloudStorageService = cloudStorageService;
+        this.storageDeletionService = storageDeletionService;
+        this.imageIngestionService = imageIngestionService;
         this.notificationService = notificationService;
         this.modelValidatorService = modelValidatorService;
+        this.imageFileVerifier = imageFileVerifier;
         this.imageMapper = imageMapper;
+        this.voteProps = voteProps;
+        this.imageFeedCache = imageFeedCache;
+        this.imageCountCache = imageCountCache;
+        this.moderationProps = moderationProps;
+        this.hotScoreProps = hotScoreProps;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -69,10 +142,32 @@ public class ImageService {
         return imageRepository.countByPublisherUsernameAndApprovedOnNotNull(username);
     }
 
+    /**
+     * Get page of images with the exact total count.
+     *
+     * @param pageRequest       selected page and size.
+     * @param publishFilter     image publish filter.
+     * @param orderFilter       image order filter.
+     * @param publisherUsername publisher username or null.
+     * @param principalUsername principal username or null.
+     * @return page of images.
+     * @throws PhegyHttpException when can not get images.
+     */
+    public ImagePageResponseDto getImages(PageRequest pageRequest,
+                                          ImagePublishFilter publishFilter,
+                                          ImageOrderFilter orderFilter,
+                                          String publisherUsername,
+                                          String principalUsername) throws PhegyHttpException {
+        return this.getImages(pageRequest, true, publishFilter, orderFilter, publisherUsername, principalUsername);
+    }
+
     /**
      * Get page of images.
+     * Without total the images are fetched as a slice, which skips the count query,
+     * and the total count is approximated by a periodically refreshed count.
      *
      * @param pageRequest       selected page and size.
+     * @param withTotal         whether the exact total count is needed.
      * @param publishFilter     image publish filter.
      * @param orderFilter       image order filter.
      * @param publisherUsername publisher username or null.
@@ -81,29 +176,42 @@ public class ImageService {
      * @throws PhegyHttpException when can not get images.
      */
     public ImagePageResponseDto getImages(PageRequest pageRequest,
+                                          boolean withTotal,
                                           ImagePublishFilter publishFilter,
                                           ImageOrderFilter orderFilter,
                                           String publisherUsername,
                                           String principalUsername) throws PhegyHttpException {
-        // retrieve user from database
-        PhegyUser principal;
-        try {
-            principal = this.userService.getUserByUsername(principalUsername);
-        } catch (UsernameNotFoundException e) {
-            principal = null;
+        // the first approved pages are the same for every anonymous user
+        if (principalUsername == null && this.imageFeedCache.isCacheable(publishFilter, pageRequest)) {
+            final ImageFeedKey key = new ImageFeedKey(publishFilter, orderFilter, publisherUsername,
+                    pageRequest.getPageNumber(), pageRequest.getPageSize(), withTotal);
+            return this.imageFeedCache.get(key,
+                    () -> this.loadImages(pageRequest, withTotal, publishFilter, orderFilter, publisherUsername, principalUsername));
         }
 
+        return this.loadImages(pageRequest, withTotal, publishFilter, orderFilter, publisherUsername, principalUsername);
+    }
+
+    private ImagePageResponseDto loadImages(PageRequest pageRequest,
+                                            boolean withTotal,
+                                            ImagePublishFilter publishFilter,
+                                            ImageOrderFilter orderFilter,
+                                            String publisherUsername,
+                                            String principalUsername) {
+        // retrieve user from database
+        final PhegyUser principal = this.findPrincipal(principalUsername);
+
         final boolean isPublisherOrAdmin = principal != null
                 && (principal.isAdminOrModerator() || principal.getUsername().equals(publisherUsername));
 
         // properties to be populated after the filtration
-        Page<Image> imagePage;
+        Slice<ImageView> imageSlice;
 
         // determine and get requested images
         switch (publishFilter) {
             case APPROVED:
                 // only approved images are requested
-                imagePage = this.getApprovedImages(publisherUsername, pageRequest, orderFilter);
+                imageSlice = this.getApprovedImages(publisherUsername, pageRequest, orderFilter, withTotal);
                 break;
             case PENDING:
                 // only the publisher and admins/moderators have access to the pending images
@@ -112,7 +220,7 @@ public class ImageService {
                 }
 
                 // only pending images requested
-                imagePage = this.getPendingImages(publisherUsername, pageRequest, orderFilter);
+                imageSlice = this.getPendingImages(publisherUsername, pageRequest, orderFilter, withTotal);
                 break;
             case ALL:
                 // only the publisher and admins/moderators have access to the pending images
@@ -121,14 +229,129 @@ public class ImageService {
                 }
 
                 // all images requested
-                imagePage = this.getAllImages(publisherUsername, pageRequest, orderFilter);
+                imageSlice = this.getAllImages(publisherUsername, pageRequest, orderFilter, withTotal);
                 break;
             default:
                 // no filter type provided
                 throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
         }
 
-        return imageMapper.createImagePageResponseDto(imagePage, isPublisherOrAdmin);
+        final ImagePageResponseDto imagePageResponseDto = imageMapper.createImagePageResponseDto(imageSlice, isPublisherOrAdmin);
+        this.setPrincipalVotes(imagePageResponseDto.getImages(), principal);
+        if (!withTotal) {
+            imagePageResponseDto.setTotalCount(this.imageCountCache.get(
+                    new ImageCountKey(publishFilter, orderFilter, publisherUsername),
+                    () -> this.countImages(publishFilter, orderFilter, publisherUsername)));
+        }
+        if (publishFilter == ImagePublishFilter.APPROVED) {
+            imagePageResponseDto.setNextCursor(this.getNextCursor(imageSlice, orderFilter));
+        }
+        return imagePageResponseDto;
+    }
+
+    /**
+     * Get page of approved images following a keyset cursor.
+     * Unlike offset pages, cursor pages are not counted and do not get slower the deeper the client scrolls.
+     *
+     * @param cursor            cursor returned with the previous page.
+     * @param size              page size.
+     * @param publishFilter     image publish filter, only APPROVED is supported.
+     * @param orderFilter       image order filter.
+     * @param publisherUsername publisher username or null.
+     * @param principalUsername principal username or null.
+     * @return page of images.
+     * @throws PhegyHttpException when can not get images or the cursor is invalid.
+     * @throws PhegyHttpException IMAGE_PAGE_SIZE_INVALID if the size is not positive or too large.
+     */
+    public ImagePageResponseDto getImagesAfter(String cursor,
+                                               int size,
+                                               ImagePublishFilter publishFilter,
+                                               ImageOrderFilter orderFilter,
+                                               String publisherUsername,
+                                               String principalUsername) throws PhegyHttpException {
+        if (publishFilter != ImagePublishFilter.APPROVED || !ImageCursor.isSupported(orderFilter)) {
+            throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
+        }
+        if (size <= 0 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new PhegyHttpException("IMAGE_PAGE_SIZE_INVALID", HttpStatus.BAD_REQUEST);
+        }
+
+        final ImageCursor imageCursor = ImageCursor.decode(cursor);
+        if (imageCursor.getOrderFilter() != orderFilter) {
+            throw new PhegyHttpException("IMAGE_CURSOR_INVALID", HttpStatus.BAD_REQUEST);
+        }
+
+        // retrieve user from database
+        final PhegyUser principal = this.findPrincipal(principalUsername);
+
+        final boolean isPublisherOrAdmin = principal != null
+                && (principal.isAdminOrModerator() || principal.getUsername().equals(publisherUsername));
+
+        // fetch one extra image to find out if there is a next page
+        final PageRequest limit = PageRequest.of(0, size + 1);
+        List<ImageView> images;
+        switch (orderFilter) {
+            case NEWEST:
+                images = this.imageRepository.findAllApprovedNewestAfter(
+                        publisherUsername, imageCursor.getSortKeyAsDate(), imageCursor.getId(), limit);
+                break;
+            case OLDEST:
+                images = this.imageRepository.findAllApprovedOldestAfter(
+                        publisherUsername, imageCursor.getSortKeyAsDate(), imageCursor.getId(), limit);
+                break;
+            case MOST_VOTED:
+                images = this.imageRepository.findAllApprovedMostVotedAfter(
+                        publisherUsername, imageCursor.getSortKeyAsNumber(), imageCursor.getId(), limit);
+                break;
+            default:
+                throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
+        }
+
+        final boolean hasNext = images.size() > size;
+        final Slice<ImageView> imageSlice = new SliceImpl<>(
+                hasNext ? images.subList(0, size) : images, PageRequest.of(0, size), hasNext);
+
+        final ImagePageResponseDto imagePageResponseDto = imageMapper.createImagePageResponseDto(imageSlice, isPublisherOrAdmin);
+        this.setPrincipalVotes(imagePageResponseDto.getImages(), principal);
+        imagePageResponseDto.setNextCursor(this.getNextCursor(imageSlice, orderFilter));
+        return imagePageResponseDto;
+    }
+
+    /**
+     * Get specific images with a single query.
+     * Applies the visibility rules of {@link #getImage(Long, String)}, ids of images that are missing
+     * or not visible to the principal are skipped. Images are returned in the order of the requested ids.
+     *
+     * @param imageIds          image ids.
+     * @param principalUsername principal username or null.
+     * @return visible images.
+     * @throws PhegyHttpException IMAGE_IDS_TOO_MANY when too many ids are requested.
+     */
+    public ImageListResponseDto getImagesByIds(List<Long> imageIds, String principalUsername) throws PhegyHttpException {
+        if (imageIds.size() > MAX_LOOKUP_IDS) {
+            throw new PhegyHttpException("IMAGE_IDS_TOO_MANY", HttpStatus.BAD_REQUEST);
+        }
+        if (imageIds.isEmpty()) {
+            return ImageListResponseDto.builder().build();
+        }
+
+        // retrieve user from database
+        final PhegyUser principal = principalUsername != null ? this.findPrincipal(principalUsername) : null;
+        final boolean isAdmin = principal != null && principal.isAdminOrModerator();
+        final String username = principal != null ? principal.getUsername() : null;
+
+        final List<ImageResponseDto> images = this.imageRepository.findAllVisibleByIdIn(imageIds, username, isAdmin)
+                .stream()
+                .sorted(Comparator.comparingInt(image -> imageIds.indexOf(image.getId())))
+                .map(image -> isAdmin || image.getPublisherUsername().equals(username)
+                        ? this.imageMapper.imageViewToApprovalImageResponseDto(image)
+                        : this.imageMapper.imageViewToImageResponseDto(image))
+                .collect(Collectors.toList());
+        this.setPrincipalVotes(images, principal);
+
+        return ImageListResponseDto.builder()
+                .images(images)
+                .build();
     }
 
     /**
@@ -158,27 +381,59 @@ public class ImageService {
         throw new PhegyHttpException("IMAGE_ID_INVALID", HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Get several images visible to the principal, with their publishers.
+     *
+     * @param imageIds          image ids.
+     * @param principalUsername principal username.
+     * @return images.
+     * @throws PhegyHttpException IMAGE_ID_INVALID if any image does not exist or is not visible to the principal.
+     * @see #getImage(Long, String)
+     */
+    public List<Image> getImages(Collection<Long> imageIds, String principalUsername) throws PhegyHttpException {
+        final List<Image> images = this.imageRepository.findAllWithPublisherByIdIn(imageIds);
+        if (images.size() != new HashSet<>(imageIds).size()) {
+            throw new PhegyHttpException("IMAGE_ID_INVALID", HttpStatus.NOT_FOUND);
+        }
+
+        final PhegyUser user = this.userService.getUserByUsername(principalUsername);
+        for (Image image : images) {
+            if (!image.isApproved()
+                    && !user.isAdminOrModerator()
+                    && !user.equals(image.getPublisher())) {
+                throw new PhegyHttpException("IMAGE_ID_INVALID", HttpStatus.NOT_FOUND);
+            }
+        }
+        return images;
+    }
+
     /**
      * Create new image.
+     * The image file is spooled to disk and stored under a key derived from its content hash.
+     * When a file with the same content is already uploaded, the image shares it and is ready right away,
+     * otherwise the image is saved as {@link ImageStatus#UPLOADING} and the upload to the cloud storage
+     * starts after commit on the image ingestion workers.
      *
      * @param imageFile         image file.
      * @param image             image object.
      * @param principalUsername publisher username.
+     * @return created image.
      * @throws PhegyHttpException when can not create image.
      */
     @Transactional
-    public void createImage(MultipartFile imageFile, Image image, String principalUsername) throws PhegyHttpException {
+    public Image createImage(MultipartFile imageFile, Image image, String principalUsername) throws PhegyHttpException {
         final PhegyUser publisher = this.userService.getConfirmedUser(principalUsername);
 
+        final SpooledImage spooledImage;
         try {
-            final String imageId = UUID.randomUUID() + ".png";
-            this.cloudStorageService.upload(imageFile.getBytes(), imageId, StoragePath.IMAGE);
-            image.setImageKey(imageId);
+            spooledImage = this.imageIngestionService.spool(imageFile);
         } catch (IOException e) {
             throw new PhegyHttpException("CAN_NOT_READ_IMAGE_BYTES", HttpStatus.BAD_REQUEST);
         }
 
         image.setId(null);
+        image.setImageKey(spooledImage.getImageKey());
+        image.setStatus(ImageStatus.UPLOADING);
         image.setPublisher(publisher);
         image.setApprovedBy(null);
         image.setApprovedOn(null);
@@ -190,8 +445,45 @@ public class ImageService {
             image.setDescription(null);
         }
 
-        this.modelValidatorService.validate(image);
+        try {
+            // reject unsupported files before anything is stored
+            this.imageFileVerifier.verifyImageFile(spooledImage.getFile());
+            this.modelValidatorService.validate(image);
+        } catch (PhegyHttpException e) {
+            this.imageIngestionService.discard(spooledImage.getFile());
+            throw e;
+        }
+
+        // reference the shared file, the reference is released when the image is deleted
+        this.imageBlobRepository.acquire(image.getImageKey());
+        final ImageBlob imageBlob = this.imageBlobRepository.findById(image.getImageKey())
+                .orElseThrow(() -> new PhegyHttpException("CAN_NOT_SAVE_IMAGE", HttpStatus.INTERNAL_SERVER_ERROR));
+        if (imageBlob.isUploaded()) {
+            this.imageIngestionService.discard(spooledImage.getFile());
+            image.setStatus(ImageStatus.READY);
+            image.setRenditions(imageBlob.getRenditions());
+            this.imageRepository.save(image);
+            return image;
+        }
+
+        // the same content may still be queued for removal after its last image was deleted
+        this.storageDeletionService.cancelImageFiles(image.getImageKey());
         this.imageRepository.save(image);
+        this.eventPublisher.publishEvent(new OnImageUploadRequestedEvent(
+                this, image.getId(), image.getImageKey(), spooledImage.getContentType(), publisher.getUsername(), spooledImage.getFile(), spooledImage.getSize()));
+        return image;
+    }
+
+    /**
+     * Get ingestion status of a specific image.
+     *
+     * @param imageId           image id.
+     * @param principalUsername principal username.
+     * @return image status.
+     * @throws PhegyHttpException when can not find image with that id.
+     */
+    public ImageStatus getImageStatus(Long imageId, String principalUsername) throws PhegyHttpException {
+        return this.getImage(imageId, principalUsername).getStatus();
     }
 
     /**
@@ -209,11 +501,19 @@ public class ImageService {
         if (image.isApproved()) {
             throw new PhegyHttpException("IMAGE_ALREADY_APPROVED", HttpStatus.BAD_REQUEST);
         }
+        if (!image.isReady()) {
+            throw new PhegyHttpException("IMAGE_NOT_READY", HttpStatus.BAD_REQUEST);
+        }
 
         image.setApprovedBy(principal);
         image.setApprovedOn(LocalDateTime.now());
+        image.setHotScore(this.hotScoreProps.getApprovalPoints());
+        image.setHotScoreDecayedOn(image.getApprovedOn());
 
         final Image approvedImage = this.imageRepository.save(image);
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.imagesChanged(this));
+        this.eventPublisher.publishEvent(OnLeaderboardChangedEvent.imagesApproved(this,
+                Collections.singletonList(approvedImage.getPublisher().getUsername()), approvedImage.getApprovedOn()));
         this.notificationService.pushNotificationTo(
                 Notification.builder()
                         .title("Снимката е публичка!")
@@ -243,6 +543,7 @@ public class ImageService {
 
         // remove image from the storage
         this.removeImage(image);
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.imagesChanged(this));
 
         // push notification to the image publisher
         this.notificationService.pushNotificationTo(
@@ -274,6 +575,7 @@ public class ImageService {
 
         // remove image from the storage
         this.removeImage(image);
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.imagesChanged(this));
 
         // if publisher is different from the principal, push notification to the publisher
         if (!image.getPublisher().equals(principal)) {
@@ -288,43 +590,266 @@ public class ImageService {
     }
 
     /**
-     * Remove image from the database and the cloud storage.
+     * Approve pending images with a single update.
+     * Ids of missing, already approved or not yet uploaded images are skipped.
+     *
+     * @param imageIds          ids of the images to be approved.
+     * @param principalUsername principal username.
+     * @return ids of the approved images.
+     * @throws PhegyHttpException when too many images are requested.
+     */
+    @Transactional
+    public Collection<Long> approveImages(Collection<Long> imageIds, String principalUsername) throws PhegyHttpException {
+        final PhegyUser principal = this.userService.getConfirmedUser(principalUsername);
+        final List<Image> images = this.getPendingImagesToModerate(imageIds).stream()
+                .filter(Image::isReady)
+                .collect(Collectors.toList());
+        if (images.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final Collection<Long> approvedIds = images.stream().map(Image::getId).collect(Collectors.toList());
+        final LocalDateTime approvedOn = LocalDateTime.now();
+        this.imageRepository.approveAllByIdIn(approvedIds, principal, approvedOn, this.hotScoreProps.getApprovalPoints());
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.imagesChanged(this));
+        this.eventPublisher.publishEvent(OnLeaderboardChangedEvent.imagesApproved(this,
+                images.stream().map(image -> image.getPublisher().getUsername()).collect(Collectors.toList()),
+                approvedOn));
+
+        // push one notification to every publisher
+        this.notificationService.pushNotifications(groupByPublisher(images).values().stream()
+                .map(publisherImages -> createApprovedNotification(publisherImages, principal.getUsername()))
+                .collect(Collectors.toList()));
+
+        return approvedIds;
+    }
+
+    /**
+     * Reject pending images and delete them with batched deletes.
+     * Ids of missing or already approved images are skipped.
+     *
+     * @param imageIds          ids of the images to be rejected.
+     * @param principalUsername principal username.
+     * @return ids of the rejected images.
+     * @throws PhegyHttpException when too many images are requested.
+     */
+    @Transactional
+    public Collection<Long> rejectImages(Collection<Long> imageIds, String principalUsername) throws PhegyHttpException {
+        final PhegyUser principal = this.userService.getConfirmedUser(principalUsername);
+        final List<Image> images = this.getPendingImagesToModerate(imageIds);
+        if (images.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // remove images from the storage
+        images.forEach(this::removeImageFiles);
+
+        final Collection<Long> rejectedIds = images.stream().map(Image::getId).collect(Collectors.toList());
+        this.voteRepository.deleteAllByImageIdIn(rejectedIds);
+        this.imageRepository.deleteAllByIdIn(rejectedIds);
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.imagesChanged(this));
+
+        // push one notification to every publisher
+        this.notificationService.pushNotifications(groupByPublisher(images).values().stream()
+                .map(publisherImages -> createRejectedNotification(publisherImages, principal.getUsername()))
+                .collect(Collectors.toList()));
+
+        return rejectedIds;
+    }
+
+    /**
+     * Add a vote to the stored image vote aggregates and to the hourly vote rollup.
+     * The updates are performed in the database, so concurrent votes do not overwrite each other.
+     *
+     * @param imageId voted image id.
+     * @param points  vote points in tenths of a point.
+     * @param votedOn vote submission date.
+     */
+    @Transactional
+    public void addVote(Long imageId, long points, LocalDateTime votedOn) {
+        this.imageRepository.addVote(imageId, points, votedOn);
+        // hot scores are decayed floating point values counted in whole points
+        this.imageRepository.addHotScore(imageId, (double) points / Vote.TENTHS_PER_POINT, votedOn, this.hotScoreProps.getHalfLifeSeconds());
+        this.imageVoteRollupRepository.addVote(imageId, votedOn.truncatedTo(ChronoUnit.HOURS), points);
+    }
+
+    /**
+     * Decay the HOT scores of all images to the current time.
+     * Votes decay only the score of the voted image, so without this, images that stop receiving votes keep their score.
+     */
+    @Scheduled(fixedDelayString = "${application.image.hot.decay-interval-ms}")
+    @Transactional
+    public void decayHotScores() {
+        this.imageRepository.decayHotScores(
+                LocalDateTime.now(),
+                this.hotScoreProps.getHalfLifeSeconds(),
+                this.hotScoreProps.getMinScore());
+    }
+
+    /**
+     * Remove vote rollup buckets older than the configured retention.
+     * No top voted window reaches past the retention, so these buckets are never read.
+     */
+    @Scheduled(cron = "${application.vote.rollup-purge-cron}")
+    @Transactional
+    public void purgeVoteRollups() {
+        final LocalDateTime before = LocalDateTime.now()
+                .truncatedTo(ChronoUnit.HOURS)
+                .minusDays(this.voteProps.getRollupRetentionDays());
+        this.imageVoteRollupRepository.deleteAllByBucketBefore(before);
+    }
+
+    /**
+     * Remove image from the database and queue removal of its files from the cloud storage.
      *
      * @param image image to be deleted.
      */
     private void removeImage(Image image) {
-        this.cloudStorageService.remove(image.getImageKey(), StoragePath.IMAGE);
+        this.removeImageFiles(image);
         this.imageRepository.delete(image);
     }
 
-    private Page<Image> getApprovedImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter) {
+    /**
+     * Release image file and queue its removal with its renditions from the cloud storage when no other image shares it.
+     *
+     * @param image image to be deleted.
+     */
+    private void removeImageFiles(Image image) {
+        // files shared with other images are kept, images without a blob own their files
+        if (this.imageBlobRepository.release(image.getImageKey()) > 0
+                && this.imageBlobRepository.deleteUnreferenced(image.getImageKey()) == 0) {
+            return;
+        }
+
+        final List<String> fileKeys = new ArrayList<>();
+        fileKeys.add(image.getImageKey());
+        ImageRendition.parseAll(image.getRenditions()).forEach(rendition -> fileKeys.add(rendition.getKey(image.getImageKey())));
+        this.storageDeletionService.enqueueAll(fileKeys, StoragePath.IMAGE);
+    }
+
+    private List<Image> getPendingImagesToModerate(Collection<Long> imageIds) {
+        if (imageIds == null || imageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (imageIds.size() > this.moderationProps.getMaxBatchSize()) {
+            throw new PhegyHttpException("IMAGE_BATCH_TOO_LARGE", HttpStatus.BAD_REQUEST);
+        }
+
+        return this.imageRepository.findAllPendingByIdIn(imageIds);
+    }
+
+    private static Map<PhegyUser, List<Image>> groupByPublisher(List<Image> images) {
+        return images.stream()
+                .collect(Collectors.groupingBy(Image::getPublisher, LinkedHashMap::new, Collectors.toList()));
+    }
+
+    private static Notification createApprovedNotification(List<Image> publisherImages, String principalUsername) {
+        final Notification notification = publisherImages.size() == 1
+                ? Notification.builder()
+                .title("Снимката е публичка!")
+                .message("Снимката Ви \"" + publisherImages.get(0).getTitle() + "\" е одобрена от " + principalUsername)
+                .build()
+                : Notification.builder()
+                .title("Снимките са публични!")
+                .message(publisherImages.size() + " от снимките Ви са одобрени от " + principalUsername)
+                .build();
+        notification.setCategory(NotificationCategory.SUCCESS);
+        notification.setUser(publisherImages.get(0).getPublisher());
+        return notification;
+    }
+
+    private static Notification createRejectedNotification(List<Image> publisherImages, String principalUsername) {
+        final Notification notification = publisherImages.size() == 1
+                ? Notification.builder()
+                .title("Неодобрена снимка!")
+                .message("Снимката Ви \"" + publisherImages.get(0).getTitle() + "\" не е бе одобрена от " + principalUsername)
+                .build()
+                : Notification.builder()
+                .title("Неодобрени снимки!")
+                .message(publisherImages.size() + " от снимките Ви не бяха одобрени от " + principalUsername)
+                .build();
+        notification.setCategory(NotificationCategory.DANGER);
+        notification.setUser(publisherImages.get(0).getPublisher());
+        return notification;
+    }
+
+    /**
+     * Mark images the principal voted for with the given points, using a single query for all of them.
+     * Images of anonymous users are left unmarked, so they can be shared by the feed cache.
+     *
+     * @param images    mapped images.
+     * @param principal principal or null.
+     */
+    private void setPrincipalVotes(Collection<ImageResponseDto> images, PhegyUser principal) {
+        if (principal == null || images.isEmpty()) {
+            return;
+        }
+
+        final Map<Long, Long> pointsByImageId = this.voteRepository.findAllVotedByVoterIdAndImageIdIn(
+                        principal.getId(),
+                        images.stream().map(ImageResponseDto::getId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(VotedImageView::getImageId, VotedImageView::getPoints));
+        images.forEach(image -> {
+            image.setVotedByMe(pointsByImageId.containsKey(image.getId()));
+            image.setMyPoints(pointsByImageId.get(image.getId()));
+        });
+    }
+
+    private PhegyUser findPrincipal(String principalUsername) {
+        try {
+            return this.userService.getUserByUsername(principalUsername);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    private String getNextCursor(Slice<ImageView> imageSlice, ImageOrderFilter orderFilter) {
+        if (!imageSlice.hasNext() || !ImageCursor.isSupported(orderFilter)) {
+            return null;
+        }
+
+        final List<ImageView> images = imageSlice.getContent();
+        return ImageCursor.after(orderFilter, images.get(images.size() - 1)).encode();
+    }
+
+    private Slice<ImageView> getApprovedImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter, boolean withTotal) {
         try {
             pageRequest = getPageRequestWithBasicOrderFilter(pageRequest, orderFilter);
         } catch (PhegyHttpException e) {
-            return this.getApprovedImagesWithAdvanceOrderFilter(publisherUsername, pageRequest, orderFilter);
+            return this.getApprovedImagesWithAdvanceOrderFilter(publisherUsername, pageRequest, orderFilter, withTotal);
         }
 
         if (publisherUsername != null) {
             // approved images from a specific user
-            return this.imageRepository.findAllByPublisherUsernameAndApprovedOnNotNull(publisherUsername, pageRequest);
+            return withTotal
+                    ? this.imageRepository.findAllByPublisherUsernameAndApprovedOnNotNull(publisherUsername, pageRequest)
+                    : this.imageRepository.findSliceByPublisherUsernameAndApprovedOnNotNull(publisherUsername, pageRequest);
         }
         // approved images from all users
-        return this.imageRepository.findAllByApprovedOnNotNull(pageRequest);
+        return withTotal
+                ? this.imageRepository.findAllByApprovedOnNotNull(pageRequest)
+                : this.imageRepository.findSliceByApprovedOnNotNull(pageRequest);
+    }
+
+    private Slice<ImageView> getApprovedImagesWithAdvanceOrderFilter(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter, boolean withTotal) {
+        final LocalDateTime since = this.getTopVotedSince(orderFilter);
+
+        if (publisherUsername != null) {
+            // top voted approved images from a specific user
+            return withTotal
+                    ? this.imageRepository.findAllByPublisherUsernameAndApprovedOnNotNullOrderByTopVotedSince(publisherUsername, since, pageRequest)
+                    : this.imageRepository.findSliceByPublisherUsernameAndApprovedOnNotNullOrderByTopVotedSince(publisherUsername, since, pageRequest);
+        }
+        // top voted approved images from all users
+        return withTotal
+                ? this.imageRepository.findAllByApprovedOnNotNullOrderByTopVotedSince(since, pageRequest)
+                : this.imageRepository.findSliceByApprovedOnNotNullOrderByTopVotedSince(since, pageRequest);
     }
 
-    private Page<Image> getApprovedImagesWithAdvanceOrderFilter(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter) {
-        int daysFromNow = 0;
+    private LocalDateTime getTopVotedSince(ImageOrderFilter orderFilter) {
+        int daysFromNow;
         switch (orderFilter) {
-            case LATEST_VOTED:
-                if (publisherUsername != null) {
-                    return this.imageRepository.findAllByPublisherUsernameApprovedOnNotNullOrderByLatestTipped(publisherUsername, pageRequest);
-                }
-                return this.imageRepository.findAllByApprovedOnNotNullOrderByLatestTipped(pageRequest);
-            case MOST_VOTED:
-                if (publisherUsername != null) {
-                    return this.imageRepository.findAllByPublisherUsernameApprovedOnNotNullOrderByMostTipped(publisherUsername, pageRequest);
-                }
-                return this.imageRepository.findAllByApprovedOnNotNullOrderByMostTipped(pageRequest);
             case TOP_VOTED_LAST_3_DAYS:
                 daysFromNow = 3;
                 break;
@@ -334,45 +859,87 @@ public class ImageService {
             case TOP_VOTED_LAST_MONTH:
                 daysFromNow = 30;
                 break;
+            default:
+                throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
         }
 
-        if (publisherUsername == null && daysFromNow > 0) {
-            return this.imageRepository.findAllByApprovedOnNotNullOrderByTopTipped(pageRequest, daysFromNow);
-        }
-
-        throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
+        return LocalDateTime.now()
+                .truncatedTo(ChronoUnit.HOURS)
+                .minusDays(daysFromNow);
     }
 
-    private Page<Image> getPendingImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter) {
+    private Slice<ImageView> getPendingImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter, boolean withTotal) {
         pageRequest = getPageRequestWithBasicOrderFilter(pageRequest, orderFilter);
 
         if (publisherUsername != null) {
             // pending images from a specific user
-            return this.imageRepository.findAllByPublisherUsernameAndApprovedOnNull(publisherUsername, pageRequest);
+            return withTotal
+                    ? this.imageRepository.findAllByPublisherUsernameAndApprovedOnNull(publisherUsername, pageRequest)
+                    : this.imageRepository.findSliceByPublisherUsernameAndApprovedOnNull(publisherUsername, pageRequest);
         }
 
         // pending images from all users
-        return this.imageRepository.findAllByApprovedOnNull(pageRequest);
+        return withTotal
+                ? this.imageRepository.findAllByApprovedOnNull(pageRequest)
+                : this.imageRepository.findSliceByApprovedOnNull(pageRequest);
     }
 
-    private Page<Image> getAllImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter) {
+    private Slice<ImageView> getAllImages(String publisherUsername, PageRequest pageRequest, ImageOrderFilter orderFilter, boolean withTotal) {
         pageRequest = getPageRequestWithBasicOrderFilter(pageRequest, orderFilter);
 
         if (publisherUsername != null) {
             // all images from a specific user
-            return this.imageRepository.findAllByPublisherUsername(publisherUsername, pageRequest);
+            return withTotal
+                    ? this.imageRepository.findAllByPublisherUsername(publisherUsername, pageRequest)
+                    : this.imageRepository.findSliceByPublisherUsername(publisherUsername, pageRequest);
         }
 
         // all images from all users
-        return this.imageRepository.findAll(pageRequest);
+        return withTotal
+                ? this.imageRepository.findAllBy(pageRequest)
+                : this.imageRepository.findSliceBy(pageRequest);
+    }
+
+    private long countImages(ImagePublishFilter publishFilter, ImageOrderFilter orderFilter, String publisherUsername) {
+        switch (publishFilter) {
+            case APPROVED:
+                switch (orderFilter) {
+                    case TOP_VOTED_LAST_3_DAYS:
+                    case TOP_VOTED_LAST_WEEK:
+                    case TOP_VOTED_LAST_MONTH:
+                        // only images voted in the window are listed
+                        final LocalDateTime since = this.getTopVotedSince(orderFilter);
+                        return publisherUsername != null
+                                ? this.imageRepository.countByPublisherUsernameAndApprovedOnNotNullAndVotedSince(publisherUsername, since)
+                                : this.imageRepository.countByApprovedOnNotNullAndVotedSince(since);
+                    default:
+                        return publisherUsername != null
+                                ? this.imageRepository.countByPublisherUsernameAndApprovedOnNotNull(publisherUsername)
+                                : this.imageRepository.countByApprovedOnNotNull();
+                }
+            case PENDING:
+                return publisherUsername != null
+                        ? this.imageRepository.countByPublisherUsernameAndApprovedOnNull(publisherUsername)
+                        : this.imageRepository.countByApprovedOnNull();
+            default:
+                return publisherUsername != null
+                        ? this.imageRepository.countByPublisherUsername(publisherUsername)
+                        : this.imageRepository.count();
+        }
     }
 
     private PageRequest getPageRequestWithBasicOrderFilter(PageRequest pageRequest, ImageOrderFilter orderFilter) {
         switch (orderFilter) {
             case NEWEST:
-                return pageRequest.withSort(Sort.by(Sort.Direction.DESC, "approvedOn", "publishedOn"));
+                return pageRequest.withSort(Sort.by(Sort.Direction.DESC, "approvedOn", "id"));
             case OLDEST:
-                return pageRequest.withSort(Sort.by(Sort.Direction.ASC, "approvedOn", "publishedOn"));
+                return pageRequest.withSort(Sort.by(Sort.Direction.ASC, "approvedOn", "id"));
+            case LATEST_VOTED:
+                return pageRequest.withSort(Sort.by(Sort.Direction.DESC, "lastVotedOn", "approvedOn", "id"));
+            case MOST_VOTED:
+                return pageRequest.withSort(Sort.by(Sort.Direction.DESC, "totalPoints", "id"));
+            case HOT:
+                return pageRequest.withSort(Sort.by(Sort.Direction.DESC, "hotScore", "approvedOn", "id"));
             default:
                 throw new PhegyHttpException("IMAGE_FILTER_NOT_ALLOWED", HttpStatus.FORBIDDEN);
         }
@@ -61,6 +61,24 @@ public class NotificationService {
         webSocketService.sendTo(user.getUsername(), "/queue/notification", notificationDto);
     }
 
+    /**
+     * Saves notifications to the database in one batch and sends each of them to its user.
+     * @param notifications notifications linked to the users to receive them.
+     */
+    @Transactional
+    public void pushNotifications(Collection<Notification> notifications) {
+        // validate notifications and save them to the database
+        notifications.forEach(modelValidatorService::validate);
+        final Iterable<Notification> savedNotifications = this.notificationRepository.saveAll(notifications);
+
+        // send notifications to live user connections
+        for (Notification savedNotification : savedNotifications) {
+            final NotificationResponseDto notificationDto = notificationMapper
+                    .notificationToNotificationResponseDto(savedNotification);
+            webSocketService.sendTo(savedNotification.getUser().getUsername(), "/queue/notification", notificationDto);
+        }
+    }
+
     /**
      * Retrieves all notifications related to a specific user from the database.
      * @param username username of the user to search notifications for.
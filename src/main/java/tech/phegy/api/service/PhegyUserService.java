@@ -26,6 +26,7 @@ import tech.phegy.api.model.user.PhegyRoleLevel;
 import tech.phegy.api.model.user.PhegyUser;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Service for common user operations.
@@ -139,7 +140,7 @@ public class PhegyUserService implements UserDetailsService {
         modelValidatorService.validate(user);
         PhegyUser savedUser = userRepository.save(user);
 
-        pointsBagRepository.save(PointsBag.builder().points(0d).user(user).build());
+        pointsBagRepository.save(PointsBag.builder().points(0L).user(user).build());
 
         // generate personalized profile pic and save it to cloud storage
         try {
@@ -241,7 +242,9 @@ public class PhegyUserService implements UserDetailsService {
         try {
             // try to upload image bytes to cloud storage
             final String imageId = user.getUsername() + ".png";
-            this.cloudStorageService.upload(image.getBytes(), imageId, StoragePath.USER);
+            try (InputStream imageStream = image.getInputStream()) {
+                this.cloudStorageService.upload(imageStream, image.getSize(), imageId, StoragePath.USER);
+            }
         } catch (IOException e) {
             throw new PhegyHttpException("CAN_NOT_READ_IMAGE_BYTES", HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
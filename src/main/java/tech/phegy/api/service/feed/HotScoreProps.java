@@ -0,0 +1,39 @@
+package tech.phegy.api.service.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * HOT ranking configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.hot")
+public class HotScoreProps {
+    /**
+     * Hours after which the weight of a vote is halved.
+     */
+    private double halfLifeHours;
+
+    /**
+     * Score given to an image when it is approved, so new images can reach the HOT feed.
+     */
+    private double approvalPoints;
+
+    /**
+     * Scores decayed below this value are reset to zero and no longer decayed.
+     */
+    private double minScore;
+
+    /**
+     * Milliseconds between two re-decays of all scores.
+     */
+    private long decayIntervalMs;
+
+    public long getHalfLifeSeconds() {
+        return Math.round(this.halfLifeHours * 3600);
+    }
+}
@@ -0,0 +1,46 @@
+package tech.phegy.api.service.feed;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Approximate image counts, each one counted at most once per configured interval.
+ *
+ * @author Nikita
+ */
+@Component
+public class ImageCountCache {
+    private final Cache<ImageCountKey, Long> cache;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageCountCache(ImageFeedCacheProps imageFeedCacheProps) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(imageFeedCacheProps.getMaxSize())
+                .expireAfterWrite(imageFeedCacheProps.getCountTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Get approximate count or count and cache it.
+     *
+     * @param key     count key.
+     * @param counter counts the images in the database.
+     * @return approximate count.
+     */
+    public Long get(ImageCountKey key, Supplier<Long> counter) {
+        final Long cached = this.cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Long counted = counter.get();
+        this.cache.put(key, counted);
+        return counted;
+    }
+}
@@ -0,0 +1,23 @@
+package tech.phegy.api.service.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import tech.phegy.api.dto.image.filter.ImageOrderFilter;
+import tech.phegy.api.dto.image.filter.ImagePublishFilter;
+
+/**
+ * Key of a cached image count.
+ *
+ * @author Nikita
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ImageCountKey {
+    private final ImagePublishFilter publishFilter;
+    private final ImageOrderFilter orderFilter;
+    private final String publisherUsername;
+}
@@ -0,0 +1,125 @@
+package tech.phegy.api.service.feed;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import tech.phegy.api.dto.image.filter.ImageOrderFilter;
+import tech.phegy.api.dto.image.filter.ImagePublishFilter;
+import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageRenditionResponseDto;
+import tech.phegy.api.dto.image.response.ImageResponseDto;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of the first pages of the anonymous image feed.
+ * Pages are copied in and out of the cache, so callers never share a cached page.
+ *
+ * @author Nikita
+ */
+@Component
+public class ImageFeedCache {
+    private final Cache<ImageFeedKey, ImagePageResponseDto> cache;
+    private final ImageFeedCacheProps imageFeedCacheProps;
+    private final Map<ImageOrderFilter, AtomicLong> generations = new EnumMap<>(ImageOrderFilter.class);
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageFeedCache(ImageFeedCacheProps imageFeedCacheProps) {
+        this.imageFeedCacheProps = imageFeedCacheProps;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(imageFeedCacheProps.getMaxSize())
+                .expireAfterWrite(imageFeedCacheProps.getTtlSeconds(), TimeUnit.SECONDS)
+                .build();
+        for (ImageOrderFilter orderFilter : ImageOrderFilter.values()) {
+            this.generations.put(orderFilter, new AtomicLong());
+        }
+    }
+
+    /**
+     * Check if a feed page can be cached.
+     *
+     * @param publishFilter image publish filter.
+     * @param pageRequest   selected page and size.
+     * @return true if the page can be cached.
+     */
+    public boolean isCacheable(ImagePublishFilter publishFilter, PageRequest pageRequest) {
+        return publishFilter == ImagePublishFilter.APPROVED
+                && pageRequest.getPageNumber() < this.imageFeedCacheProps.getMaxPage();
+    }
+
+    /**
+     * Get cached feed page or load and cache it.
+     * A page loaded while pages of its order filter are being invalidated is returned but not cached,
+     * such an invalidation right after it is cached removes it again.
+     *
+     * @param key    feed page key.
+     * @param loader loads the page from the database.
+     * @return feed page.
+     */
+    public ImagePageResponseDto get(ImageFeedKey key, Supplier<ImagePageResponseDto> loader) {
+        final ImagePageResponseDto cached = this.cache.getIfPresent(key);
+        if (cached != null) {
+            return copy(cached);
+        }
+
+        // invalidations of other order filters, like every vote for NEWEST pages, do not keep the page out of the cache
+        final AtomicLong generation = this.generations.get(key.getOrderFilter());
+        final long loadGeneration = generation.get();
+        final ImagePageResponseDto loaded = loader.get();
+        if (loadGeneration == generation.get()) {
+            final ImagePageResponseDto copy = copy(loaded);
+            this.cache.put(key, copy);
+            if (loadGeneration != generation.get()) {
+                // invalidated between the check and the put, the invalidation may have missed it
+                this.cache.asMap().remove(key, copy);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Remove cached feed pages with specific order filters.
+     *
+     * @param orderFilters order filters whose pages are no longer valid.
+     */
+    public void invalidate(Collection<ImageOrderFilter> orderFilters) {
+        orderFilters.forEach(orderFilter -> this.generations.get(orderFilter).incrementAndGet());
+        this.cache.asMap().keySet().removeIf(key -> orderFilters.contains(key.getOrderFilter()));
+    }
+
+    private static ImagePageResponseDto copy(ImagePageResponseDto page) {
+        return ImagePageResponseDto.builder()
+                .images(page.getImages().stream().map(ImageFeedCache::copy).collect(Collectors.toList()))
+                .totalCount(page.getTotalCount())
+                .hasNext(page.isHasNext())
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+
+    private static ImageResponseDto copy(ImageResponseDto image) {
+        return ImageResponseDto.builder()
+                .id(image.getId())
+                .title(image.getTitle())
+                .description(image.getDescription())
+                .imageKey(image.getImageKey())
+                .publisherUsername(image.getPublisherUsername())
+                .publishedOn(image.getPublishedOn())
+                .points(image.getPoints())
+                .renditions(image.getRenditions() == null ? null : image.getRenditions().stream()
+                        .map(rendition -> new ImageRenditionResponseDto(
+                                rendition.getSize(), rendition.getFormat(), rendition.getImageKey()))
+                        .collect(Collectors.toList()))
+                .votedByMe(image.getVotedByMe())
+                .myPoints(image.getMyPoints())
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package tech.phegy.api.service.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Image feed cache configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.feed-cache")
+public class ImageFeedCacheProps {
+    /**
+     * Maximum count of cached feed pages.
+     */
+    private long maxSize;
+
+    /**
+     * Seconds after which a cached feed page expires.
+     */
+    private long ttlSeconds;
+
+    /**
+     * Pages with index lower than this are cached, deeper pages always hit the database.
+     */
+    private int maxPage;
+
+    /**
+     * Seconds after which an approximate image count is recounted.
+     */
+    private long countTtlSeconds;
+}
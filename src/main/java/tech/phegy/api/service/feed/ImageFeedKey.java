@@ -0,0 +1,26 @@
+package tech.phegy.api.service.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import tech.phegy.api.dto.image.filter.ImageOrderFilter;
+import tech.phegy.api.dto.image.filter.ImagePublishFilter;
+
+/**
+ * Key of a cached image feed page.
+ *
+ * @author Nikita
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ImageFeedKey {
+    private final ImagePublishFilter publishFilter;
+    private final ImageOrderFilter orderFilter;
+    private final String publisherUsername;
+    private final int page;
+    private final int size;
+    private final boolean withTotal;
+}
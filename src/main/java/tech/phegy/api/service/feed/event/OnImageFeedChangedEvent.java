@@ -0,0 +1,38 @@
+package tech.phegy.api.service.feed.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import tech.phegy.api.dto.image.filter.ImageOrderFilter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+public class OnImageFeedChangedEvent extends ApplicationEvent {
+    private final Set<ImageOrderFilter> orderFilters;
+
+    public OnImageFeedChangedEvent(Object source, Set<ImageOrderFilter> orderFilters) {
+        super(source);
+        this.orderFilters = orderFilters;
+    }
+
+    /**
+     * Event for an image entering or leaving the feed, every order is affected.
+     */
+    public static OnImageFeedChangedEvent imagesChanged(Object source) {
+        return new OnImageFeedChangedEvent(source, EnumSet.allOf(ImageOrderFilter.class));
+    }
+
+    /**
+     * Event for a vote, only the vote based orders are affected.
+     */
+    public static OnImageFeedChangedEvent voteCast(Object source) {
+        return new OnImageFeedChangedEvent(source, EnumSet.of(
+                ImageOrderFilter.LATEST_VOTED,
+                ImageOrderFilter.MOST_VOTED,
+                ImageOrderFilter.TOP_VOTED_LAST_3_DAYS,
+                ImageOrderFilter.TOP_VOTED_LAST_WEEK,
+                ImageOrderFilter.TOP_VOTED_LAST_MONTH,
+                ImageOrderFilter.HOT));
+    }
+}
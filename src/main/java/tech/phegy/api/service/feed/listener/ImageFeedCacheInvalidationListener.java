@@ -0,0 +1,23 @@
+package tech.phegy.api.service.feed.listener;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.phegy.api.service.feed.ImageFeedCache;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+
+@Component
+public class ImageFeedCacheInvalidationListener {
+    private final ImageFeedCache imageFeedCache;
+
+    public ImageFeedCacheInvalidationListener(ImageFeedCache imageFeedCache) {
+        this.imageFeedCache = imageFeedCache;
+    }
+
+    /**
+     * Invalidate after commit, so a concurrent read can not cache the state before the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageFeedChanged(OnImageFeedChangedEvent onImageFeedChangedEvent) {
+        this.imageFeedCache.invalidate(onImageFeedChangedEvent.getOrderFilters());
+    }
+}
@@ -0,0 +1,35 @@
+package tech.phegy.api.service.ingestion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Image ingestion configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.ingestion")
+public class ImageIngestionProps {
+    /**
+     * Count of worker threads uploading image files to the cloud storage.
+     */
+    private int poolSize;
+
+    /**
+     * Maximum count of image files waiting for a free worker, further uploads fail right away.
+     */
+    private int queueCapacity;
+
+    /**
+     * Minutes after which an image still uploading is considered lost and marked as failed.
+     */
+    private long staleAfterMinutes;
+
+    /**
+     * Milliseconds between two checks for lost uploads.
+     */
+    private long staleCheckIntervalMs;
+}
@@ -0,0 +1,216 @@
+package tech.phegy.api.service.ingestion;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import tech.phegy.api.dto.image.response.ImageStatusResponseDto;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.ImageBlob;
+import tech.phegy.api.model.ImageStatus;
+import tech.phegy.api.repository.ImageBlobRepository;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.service.HashingService;
+import tech.phegy.api.service.ingestion.event.OnImageIngestedEvent;
+import tech.phegy.api.service.ingestion.event.OnImageUploadRequestedEvent;
+import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.service.storage.StorageDeletionService;
+import tech.phegy.api.service.storage.StoragePath;
+import tech.phegy.api.service.validator.ImageFileVerifier;
+import tech.phegy.api.websocket.WebSocketService;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for uploading image files to the cloud storage in the background.
+ * Request threads only spool the file to disk and save the image as {@link ImageStatus#UPLOADING},
+ * the upload itself runs on a bounded worker pool without holding a database connection.
+ *
+ * @author Nikita
+ */
+@Service
+public class ImageIngestionService {
+    public static final String IMAGE_STATUS_DESTINATION = "/queue/image-status";
+
+    private final ImageRepository imageRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final CloudStorageService cloudStorageService;
+    private final StorageDeletionService storageDeletionService;
+    private final WebSocketService webSocketService;
+    private final HashingService hashingService;
+    private final ImageFileVerifier imageFileVerifier;
+    private final ImageIngestionProps imageIngestionProps;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageIngestionService(ImageRepository imageRepository,
+                                 ImageBlobRepository imageBlobRepository,
+                                 CloudStorageService cloudStorageService,
+                                 StorageDeletionService storageDeletionService,
+                                 WebSocketService webSocketService,
+                                 HashingService hashingService,
+                                 ImageFileVerifier imageFileVerifier,
+                                 ImageIngestionProps imageIngestionProps,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.imageRepository = imageRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.cloudStorageService = cloudStorageService;
+        this.storageDeletionService = storageDeletionService;
+        this.webSocketService = webSocketService;
+        this.hashingService = hashingService;
+        this.imageFileVerifier = imageFileVerifier;
+        this.imageIngestionProps = imageIngestionProps;
+        this.eventPublisher = eventPublisher;
+        this.executor = new ThreadPoolExecutor(
+                imageIngestionProps.getPoolSize(),
+                imageIngestionProps.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageIngestionProps.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("image-ingestion-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Copy uploaded image file to a temporary file owned by the ingestion workers and hash its content on the way.
+     * The format is detected from the spooled file, the declared file name and content type are ignored.
+     * The multipart temporary file is removed as soon as the request completes.
+     *
+     * @param imageFile uploaded image file.
+     * @return spooled image.
+     * @throws IOException when can not read or write the image file.
+     * @throws PhegyHttpException IMAGE_FILE_INVALID if the spooled file can not be read.
+     */
+    public SpooledImage spool(MultipartFile imageFile) throws IOException {
+        final Path imageFilePath = Files.createTempFile("phegy-image-", ".upload");
+        try {
+            final String contentHash;
+            try (InputStream imageStream = imageFile.getInputStream();
+                 OutputStream spoolStream = Files.newOutputStream(imageFilePath)) {
+                contentHash = this.hashingService.hashCopy(imageStream, spoolStream);
+            }
+            final String format = this.imageFileVerifier.detectFormat(imageFilePath);
+            return new SpooledImage(imageFilePath, imageFile.getSize(), contentHash, format);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(imageFilePath);
+            throw e;
+        }
+    }
+
+    /**
+     * Queue image file upload.
+     * When the queue is full the image is marked as failed instead of blocking the caller.
+     *
+     * @param upload requested upload.
+     */
+    public void submit(OnImageUploadRequestedEvent upload) {
+        try {
+            this.executor.execute(() -> this.ingest(upload));
+        } catch (RejectedExecutionException e) {
+            this.discard(upload.getFile());
+            this.changeStatus(upload, ImageStatus.FAILED);
+        }
+    }
+
+    /**
+     * Upload spooled image file to the cloud storage and mark the image as ready or failed.
+     * Files already uploaded for another image with the same content are not uploaded again.
+     * If every image referencing the file was deleted while uploading, the uploaded file is queued for removal.
+     * Ready images without renditions are handed over for rendition generation together with the spooled file.
+     *
+     * @param upload requested upload.
+     */
+    public void ingest(OnImageUploadRequestedEvent upload) {
+        final Optional<ImageBlob> imageBlob = this.imageBlobRepository.findById(upload.getImageKey());
+        if (imageBlob.isEmpty()) {
+            // every image referencing the file was deleted before the upload started
+            this.discard(upload.getFile());
+            return;
+        }
+
+        if (!imageBlob.get().isUploaded()) {
+            try (InputStream imageStream = Files.newInputStream(upload.getFile())) {
+                this.cloudStorageService.upload(imageStream, upload.getSize(), upload.getImageKey(), upload.getContentType(), StoragePath.IMAGE);
+            } catch (Exception e) {
+                this.discard(upload.getFile());
+                this.changeStatus(upload, ImageStatus.FAILED);
+                return;
+            }
+
+            if (this.imageBlobRepository.markUploaded(upload.getImageKey()) == 0) {
+                this.discard(upload.getFile());
+                this.storageDeletionService.enqueueAll(List.of(upload.getImageKey()), StoragePath.IMAGE);
+                return;
+            }
+        }
+
+        if (!this.changeStatus(upload, ImageStatus.READY)) {
+            this.discard(upload.getFile());
+            return;
+        }
+
+        final String renditions = imageBlob.get().getRenditions();
+        if (renditions != null) {
+            this.discard(upload.getFile());
+            this.imageRepository.updateRenditions(upload.getImageId(), renditions);
+            return;
+        }
+
+        this.eventPublisher.publishEvent(new OnImageIngestedEvent(this, upload.getImageId(), upload.getImageKey(), upload.getFile()));
+    }
+
+    /**
+     * Remove spooled image file.
+     *
+     * @param file spooled image file.
+     */
+    public void discard(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // temporary files are cleaned up by the operating system as well
+        }
+    }
+
+    /**
+     * Mark images that have been uploading for too long as failed.
+     * Uploads queued when the application stops are never completed.
+     */
+    @Scheduled(fixedDelayString = "${application.image.ingestion.stale-check-interval-ms}")
+    public void failStaleUploads() {
+        this.imageRepository.updateStatusByPublishedOnBefore(
+                ImageStatus.UPLOADING,
+                ImageStatus.FAILED,
+                LocalDateTime.now().minusMinutes(this.imageIngestionProps.getStaleAfterMinutes()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private boolean changeStatus(OnImageUploadRequestedEvent upload, ImageStatus status) {
+        final boolean changed = this.imageRepository.updateStatus(upload.getImageId(), ImageStatus.UPLOADING, status) > 0;
+        if (changed) {
+            this.webSocketService.sendTo(upload.getPublisherUsername(), IMAGE_STATUS_DESTINATION,
+                    new ImageStatusResponseDto(upload.getImageId(), status));
+        }
+        return changed;
+    }
+}
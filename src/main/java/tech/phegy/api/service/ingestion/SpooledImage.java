@@ -0,0 +1,43 @@
+package tech.phegy.api.service.ingestion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Uploaded image file copied to a temporary file, together with its size, SHA-256 content hash and detected format.
+ */
+@Getter
+@AllArgsConstructor
+public class SpooledImage {
+    private final Path file;
+    private final long size;
+    private final String contentHash;
+    private final String format;
+
+    /**
+     * Get content addressed storage key of the image.
+     * The extension follows the detected format, unknown formats get no extension.
+     *
+     * @return image key.
+     */
+    public String getImageKey() {
+        if (this.format == null) {
+            return this.contentHash;
+        }
+        return this.contentHash + "." + ("jpeg".equals(this.format) ? "jpg" : this.format);
+    }
+
+    /**
+     * Get media type of the image matching its detected format.
+     *
+     * @return image content type.
+     */
+    public String getContentType() {
+        if (this.format == null) {
+            return "application/octet-stream";
+        }
+        return "image/" + this.format;
+    }
+}
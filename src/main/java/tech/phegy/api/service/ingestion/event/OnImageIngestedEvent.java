@@ -0,0 +1,20 @@
+package tech.phegy.api.service.ingestion.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.nio.file.Path;
+
+@Getter
+public class OnImageIngestedEvent extends ApplicationEvent {
+    private final Long imageId;
+    private final String imageKey;
+    private final Path file;
+
+    public OnImageIngestedEvent(Object source, Long imageId, String imageKey, Path file) {
+        super(source);
+        this.imageId = imageId;
+        this.imageKey = imageKey;
+        this.file = file;
+    }
+}
@@ -0,0 +1,26 @@
+package tech.phegy.api.service.ingestion.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.nio.file.Path;
+
+@Getter
+public class OnImageUploadRequestedEvent extends ApplicationEvent {
+    private final Long imageId;
+    private final String imageKey;
+    private final String contentType;
+    private final String publisherUsername;
+    private final Path file;
+    private final long size;
+
+    public OnImageUploadRequestedEvent(Object source, Long imageId, String imageKey, String contentType, String publisherUsername, Path file, long size) {
+        super(source);
+        this.imageId = imageId;
+        this.imageKey = imageKey;
+        this.contentType = contentType;
+        this.publisherUsername = publisherUsername;
+        this.file = file;
+        this.size = size;
+    }
+}
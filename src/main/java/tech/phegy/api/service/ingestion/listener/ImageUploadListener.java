@@ -0,0 +1,32 @@
+package tech.phegy.api.service.ingestion.listener;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.phegy.api.service.ingestion.ImageIngestionService;
+import tech.phegy.api.service.ingestion.event.OnImageUploadRequestedEvent;
+
+@Component
+public class ImageUploadListener {
+    private final ImageIngestionService imageIngestionService;
+
+    public ImageUploadListener(ImageIngestionService imageIngestionService) {
+        this.imageIngestionService = imageIngestionService;
+    }
+
+    /**
+     * Start the upload after commit, so the worker always finds the image row.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageUploadRequested(OnImageUploadRequestedEvent onImageUploadRequestedEvent) {
+        this.imageIngestionService.submit(onImageUploadRequestedEvent);
+    }
+
+    /**
+     * The image row and its blob reference were never saved, only the spooled file has to be removed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onImageUploadRolledBack(OnImageUploadRequestedEvent onImageUploadRequestedEvent) {
+        this.imageIngestionService.discard(onImageUploadRequestedEvent.getFile());
+    }
+}
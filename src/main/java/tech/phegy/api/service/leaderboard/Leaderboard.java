@@ -0,0 +1,118 @@
+package tech.phegy.api.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * In-memory ranking of users by score, kept sorted on every change so reading the top entries does not sort.
+ * A rolling leaderboard keeps the scores in hourly buckets and drops the buckets leaving its window.
+ *
+ * @author Nikita
+ */
+public class Leaderboard {
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::getScore).reversed()
+            .thenComparing(Entry::getUsername);
+
+    /**
+     * Days counted by a rolling leaderboard, 0 when every score is counted.
+     */
+    private final int days;
+    private final Map<String, Long> scores = new HashMap<>();
+    private final NavigableSet<Entry> ranking = new TreeSet<>(RANKING);
+    private final NavigableMap<LocalDateTime, Map<String, Long>> buckets = new TreeMap<>();
+
+    public Leaderboard(int days) {
+        this.days = days;
+    }
+
+    /**
+     * Add to the score of a user.
+     *
+     * @param username user username.
+     * @param score    score to add, negative to subtract.
+     * @param scoredOn time of the score, a rolling leaderboard ignores scores outside of its window.
+     */
+    public synchronized void add(String username, long score, LocalDateTime scoredOn) {
+        if (this.days > 0) {
+            final LocalDateTime bucket = scoredOn.truncatedTo(ChronoUnit.HOURS);
+            if (bucket.isBefore(this.windowStart(LocalDateTime.now()))) {
+                return;
+            }
+            this.buckets.computeIfAbsent(bucket, key -> new HashMap<>()).merge(username, score, Long::sum);
+        }
+        this.change(username, score);
+    }
+
+    /**
+     * Get the highest scores.
+     *
+     * @param size maximum count of entries.
+     * @return entries ordered by descending score, users with equal scores ordered by username.
+     */
+    public synchronized List<Entry> top(int size) {
+        this.expire(LocalDateTime.now());
+
+        final List<Entry> top = new ArrayList<>(Math.min(size, this.ranking.size()));
+        final Iterator<Entry> entries = this.ranking.iterator();
+        while (entries.hasNext() && top.size() < size) {
+            top.add(entries.next());
+        }
+        return top;
+    }
+
+    /**
+     * Drop the buckets that left the window of a rolling leaderboard.
+     *
+     * @param now current time.
+     */
+    public synchronized void expire(LocalDateTime now) {
+        if (this.days == 0) {
+            return;
+        }
+
+        final Map<LocalDateTime, Map<String, Long>> expired = this.buckets.headMap(this.windowStart(now));
+        expired.values().forEach(bucket -> bucket.forEach((username, score) -> this.change(username, -score)));
+        expired.clear();
+    }
+
+    private LocalDateTime windowStart(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.HOURS).minusDays(this.days);
+    }
+
+    private void change(String username, long score) {
+        final Long current = this.scores.get(username);
+        if (current != null) {
+            this.ranking.remove(new Entry(username, current));
+        }
+
+        final long changed = (current == null ? 0L : current) + score;
+        if (changed == 0) {
+            this.scores.remove(username);
+            return;
+        }
+        this.scores.put(username, changed);
+        this.ranking.add(new Entry(username, changed));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Entry {
+        private final String username;
+        private final long score;
+    }
+}
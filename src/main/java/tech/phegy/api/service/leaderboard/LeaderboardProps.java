@@ -0,0 +1,26 @@
+package tech.phegy.api.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Leaderboard configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.leaderboard")
+public class LeaderboardProps {
+    /**
+     * Maximum count of entries returned for a leaderboard.
+     */
+    private int maxSize;
+
+    /**
+     * Cron expression for rebuilding the leaderboards from the database,
+     * correcting scores of deleted images and votes.
+     */
+    private String rebuildCron;
+}
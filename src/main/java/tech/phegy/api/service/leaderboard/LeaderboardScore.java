@@ -0,0 +1,19 @@
+package tech.phegy.api.service.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Score added to a user on the leaderboards of a type.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardScore {
+    private final LeaderboardType type;
+    private final String username;
+    private final long score;
+    private final LocalDateTime scoredOn;
+}
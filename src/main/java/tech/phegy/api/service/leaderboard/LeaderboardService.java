@@ -0,0 +1,169 @@
+package tech.phegy.api.service.leaderboard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardWindow;
+import tech.phegy.api.dto.leaderboard.response.LeaderboardEntryResponseDto;
+import tech.phegy.api.dto.leaderboard.response.LeaderboardResponseDto;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.LeaderboardScoreView;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.repository.ImageVoteRollupRepository;
+import tech.phegy.api.repository.VoteRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for top user leaderboards, held in memory so reading them does not query the database.
+ * Votes and approvals update the leaderboards after commit, the leaderboards are rebuilt
+ * from the database on start and periodically, which also drops scores of deleted images and votes.
+ *
+ * @author Nikita
+ */
+@Service
+public class LeaderboardService {
+    private final ImageRepository imageRepository;
+    private final ImageVoteRollupRepository imageVoteRollupRepository;
+    private final VoteRepository voteRepository;
+    private final LeaderboardProps leaderboardProps;
+    private final Object rebuildLock = new Object();
+    private volatile Map<LeaderboardType, Map<LeaderboardWindow, Leaderboard>> leaderboards = createLeaderboards();
+    /**
+     * Scores added while rebuilding, replayed onto the rebuilt leaderboards before they replace the current ones.
+     * Null when no rebuild is running, guarded by the rebuild lock.
+     */
+    private List<LeaderboardScore> pendingScores;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public LeaderboardService(ImageRepository imageRepository,
+                              ImageVoteRollupRepository imageVoteRollupRepository,
+                              VoteRepository voteRepository,
+                              LeaderboardProps leaderboardProps) {
+        this.imageRepository = imageRepository;
+        this.imageVoteRollupRepository = imageVoteRollupRepository;
+        this.voteRepository = voteRepository;
+        this.leaderboardProps = leaderboardProps;
+    }
+
+    /**
+     * Get the top users of a leaderboard.
+     *
+     * @param type   leaderboard type.
+     * @param window leaderboard window.
+     * @param size   maximum count of entries.
+     * @return leaderboard.
+     * @throws PhegyHttpException LEADERBOARD_SIZE_INVALID if the size is not positive or too large.
+     */
+    public LeaderboardResponseDto getLeaderboard(LeaderboardType type, LeaderboardWindow window, int size) throws PhegyHttpException {
+        if (size <= 0 || size > this.leaderboardProps.getMaxSize()) {
+            throw new PhegyHttpException("LEADERBOARD_SIZE_INVALID", HttpStatus.BAD_REQUEST);
+        }
+
+        final List<Leaderboard.Entry> top = this.leaderboards.get(type).get(window).top(size);
+        final List<LeaderboardEntryResponseDto> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            entries.add(new LeaderboardEntryResponseDto(i + 1, top.get(i).getUsername(), top.get(i).getScore()));
+        }
+        return new LeaderboardResponseDto(type, window, entries);
+    }
+
+    /**
+     * Add scores to every window of their leaderboards.
+     *
+     * @param scores scores.
+     */
+    public void addAll(Collection<LeaderboardScore> scores) {
+        synchronized (this.rebuildLock) {
+            if (this.pendingScores != null) {
+                this.pendingScores.addAll(scores);
+            }
+            add(this.leaderboards, scores);
+        }
+    }
+
+    /**
+     * Rebuild the leaderboards from the denormalized image points, the vote rollups and the votes.
+     * Rolling windows are loaded in hourly buckets of the longest window, every window drops the buckets outside of it.
+     * Scores added while rebuilding are kept on the current leaderboards and replayed onto the rebuilt ones.
+     * A score committed before the database was read but added after the rebuild started
+     * may be counted twice until the next rebuild.
+     */
+    @PostConstruct
+    @Scheduled(cron = "${application.leaderboard.rebuild-cron}")
+    public void rebuild() {
+        final LocalDateTime since = LocalDateTime.now()
+                .truncatedTo(ChronoUnit.HOURS)
+                .minusDays(Arrays.stream(LeaderboardWindow.values()).mapToInt(LeaderboardWindow::getDays).max().orElse(0));
+        final Map<LeaderboardType, Map<LeaderboardWindow, Leaderboard>> rebuilt = createLeaderboards();
+        synchronized (this.rebuildLock) {
+            this.pendingScores = new ArrayList<>();
+        }
+
+        try {
+            load(rebuilt.get(LeaderboardType.POINTS_RECEIVED),
+                    this.imageRepository.sumTotalPointsGroupByPublisher(),
+                    this.imageVoteRollupRepository.sumPointsSinceGroupByPublisherAndHour(since));
+            load(rebuilt.get(LeaderboardType.POINTS_SENT),
+                    this.voteRepository.sumPointsGroupByVoter(),
+                    this.voteRepository.sumPointsSinceGroupByVoterAndHour(since));
+            load(rebuilt.get(LeaderboardType.IMAGES_PUBLISHED),
+                    this.imageRepository.countApprovedGroupByPublisher(),
+                    this.imageRepository.countApprovedSinceGroupByPublisherAndHour(since));
+
+            synchronized (this.rebuildLock) {
+                add(rebuilt, this.pendingScores);
+                this.leaderboards = rebuilt;
+            }
+        } finally {
+            synchronized (this.rebuildLock) {
+                this.pendingScores = null;
+            }
+        }
+    }
+
+    private static void add(Map<LeaderboardType, Map<LeaderboardWindow, Leaderboard>> leaderboards,
+                            Collection<LeaderboardScore> scores) {
+        for (LeaderboardScore score : scores) {
+            leaderboards.get(score.getType()).values()
+                    .forEach(leaderboard -> leaderboard.add(score.getUsername(), score.getScore(), score.getScoredOn()));
+        }
+    }
+
+    private static void load(Map<LeaderboardWindow, Leaderboard> leaderboards,
+                             Collection<LeaderboardScoreView> allTimeScores,
+                             Collection<LeaderboardScoreView> bucketScores) {
+        final Leaderboard allTime = leaderboards.get(LeaderboardWindow.ALL_TIME);
+        final LocalDateTime now = LocalDateTime.now();
+        allTimeScores.forEach(score -> allTime.add(score.getUsername(), score.getScore(), now));
+
+        leaderboards.forEach((window, leaderboard) -> {
+            if (window.isRolling()) {
+                bucketScores.forEach(score -> leaderboard.add(score.getUsername(), score.getScore(), score.getBucket()));
+            }
+        });
+    }
+
+    private static Map<LeaderboardType, Map<LeaderboardWindow, Leaderboard>> createLeaderboards() {
+        final Map<LeaderboardType, Map<LeaderboardWindow, Leaderboard>> leaderboards = new EnumMap<>(LeaderboardType.class);
+        for (LeaderboardType type : LeaderboardType.values()) {
+            final Map<LeaderboardWindow, Leaderboard> windows = new EnumMap<>(LeaderboardWindow.class);
+            for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                windows.put(window, new Leaderboard(window.getDays()));
+            }
+            leaderboards.put(type, windows);
+        }
+        return leaderboards;
+    }
+}
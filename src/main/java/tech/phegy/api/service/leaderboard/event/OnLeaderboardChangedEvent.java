@@ -0,0 +1,41 @@
+package tech.phegy.api.service.leaderboard.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.service.leaderboard.LeaderboardScore;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Getter
+public class OnLeaderboardChangedEvent extends ApplicationEvent {
+    private final List<LeaderboardScore> scores;
+
+    public OnLeaderboardChangedEvent(Object source, List<LeaderboardScore> scores) {
+        super(source);
+        this.scores = scores;
+    }
+
+    /**
+     * Event for a vote, scoring the points sent by the voter and received by the publisher.
+     */
+    public static OnLeaderboardChangedEvent voteCast(Object source, String voterUsername, String publisherUsername,
+                                                     long points, LocalDateTime votedOn) {
+        return new OnLeaderboardChangedEvent(source, List.of(
+                new LeaderboardScore(LeaderboardType.POINTS_SENT, voterUsername, points, votedOn),
+                new LeaderboardScore(LeaderboardType.POINTS_RECEIVED, publisherUsername, points, votedOn)));
+    }
+
+    /**
+     * Event for approved images, scoring an image published by each of their publishers.
+     */
+    public static OnLeaderboardChangedEvent imagesApproved(Object source, Collection<String> publisherUsernames,
+                                                           LocalDateTime approvedOn) {
+        return new OnLeaderboardChangedEvent(source, publisherUsernames.stream()
+                .map(username -> new LeaderboardScore(LeaderboardType.IMAGES_PUBLISHED, username, 1L, approvedOn))
+                .collect(Collectors.toList()));
+    }
+}
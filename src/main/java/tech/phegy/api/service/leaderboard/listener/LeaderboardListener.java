@@ -0,0 +1,23 @@
+package tech.phegy.api.service.leaderboard.listener;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.phegy.api.service.leaderboard.LeaderboardService;
+import tech.phegy.api.service.leaderboard.event.OnLeaderboardChangedEvent;
+
+@Component
+public class LeaderboardListener {
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardListener(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Score after commit, so rolled back votes and approvals are never counted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaderboardChanged(OnLeaderboardChangedEvent onLeaderboardChangedEvent) {
+        this.leaderboardService.addAll(onLeaderboardChangedEvent.getScores());
+    }
+}
@@ -0,0 +1,20 @@
+package tech.phegy.api.service.moderation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Image moderation configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.moderation")
+public class ModerationProps {
+    /**
+     * Maximum count of images approved or rejected with a single request.
+     */
+    private int maxBatchSize;
+}
@@ -1,20 +1,35 @@
 package tech.phegy.api.service.points;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tech.phegy.api.exception.PhegyHttpException;
 import tech.phegy.api.model.points.PointsBag;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
+import tech.phegy.api.model.points.QueuedVote;
 import tech.phegy.api.repository.PointsBagRepository;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
 
 
 @Service
 public class PointsBagService {
     private final PointsBagRepository pointsBagRepository;
+    private final PointsLedgerEntryRepository pointsLedgerEntryRepository;
 
-    public PointsBagService(PointsBagRepository pointsBagRepository) {
+    public PointsBagService(PointsBagRepository pointsBagRepository,
+                            PointsLedgerEntryRepository pointsLedgerEntryRepository) {
         this.pointsBagRepository = pointsBagRepository;
+        this.pointsLedgerEntryRepository = pointsLedgerEntryRepository;
     }
 
     public PointsBag getPointsBag(String username) {
@@ -22,12 +37,99 @@ public class PointsBagService {
                 .orElseThrow(() -> new UsernameNotFoundException(username));
     }
 
+    /**
+     * Move points between two users with conditional updates in the database, so concurrent transfers
+     * can neither overwrite each other nor overdraw a bag.
+     * Both bags are always updated in the order of the user ids, so concurrent transfers between
+     * the same users lock the rows in the same order and can not deadlock.
+     *
+     * @param fromUserId sender id.
+     * @param toUserId   receiver id.
+     * @param points     points to transfer in tenths of a point.
+     * @param imageId    voted image id.
+     * @throws PhegyHttpException NOT_ENOUGH_POINTS_TO_VOTE if the sender has less points.
+     * @throws PhegyHttpException POINTS_BAG_NOT_FOUND if the receiver has no points bag.
+     */
     @Transactional
-    public void transferPoints(String fromUsername, String toUsername, Double points) {
-        PointsBag fromPointsBag = this.getPointsBag(fromUsername);
-        PointsBag toPointsBag = this.getPointsBag(toUsername);
-        fromPointsBag.removePoints(points);
-        toPointsBag.addPoints(points);
-        pointsBagRepository.saveAll(List.of(fromPointsBag, toPointsBag));
+    public void transferPoints(UUID fromUserId, UUID toUserId, long points, Long imageId) throws PhegyHttpException {
+        if (fromUserId.compareTo(toUserId) < 0) {
+            this.withdrawPoints(fromUserId, points, imageId);
+            this.depositPoints(toUserId, points, PointsLedgerEntryType.VOTE_RECEIVED, imageId);
+        } else {
+            this.depositPoints(toUserId, points, PointsLedgerEntryType.VOTE_RECEIVED, imageId);
+            this.withdrawPoints(fromUserId, points, imageId);
+        }
+    }
+
+    /**
+     * Move points of several votes of a voter to their publishers in a single transaction.
+     * The total is withdrawn from the voter at once and every publisher bag is updated once,
+     * all bags in the order of the user ids as with {@link #transferPoints(UUID, UUID, long, Long)}.
+     *
+     * @param voterId voter id.
+     * @param votes   votes of the voter.
+     * @throws PhegyHttpException NOT_ENOUGH_POINTS_TO_VOTE if the voter has less points than all votes together.
+     * @throws PhegyHttpException POINTS_BAG_NOT_FOUND if a publisher has no points bag.
+     */
+    @Transactional
+    public void settleVotes(UUID voterId, Collection<QueuedVote> votes) throws PhegyHttpException {
+        final long total = votes.stream().mapToLong(QueuedVote::getPoints).sum();
+        final Map<UUID, Long> deposits = new TreeMap<>();
+        votes.forEach(vote -> deposits.merge(vote.getPublisherId(), vote.getPoints(), Long::sum));
+
+        final Set<UUID> userIds = new TreeSet<>(deposits.keySet());
+        userIds.add(voterId);
+        for (UUID userId : userIds) {
+            if (userId.equals(voterId)) {
+                if (pointsBagRepository.withdrawPoints(voterId, total) == 0) {
+                    throw new PhegyHttpException("NOT_ENOUGH_POINTS_TO_VOTE", HttpStatus.BAD_REQUEST);
+                }
+            } else if (pointsBagRepository.depositPoints(userId, deposits.get(userId)) == 0) {
+                throw new PhegyHttpException("POINTS_BAG_NOT_FOUND", HttpStatus.NOT_FOUND);
+            }
+        }
+
+        votes.forEach(vote -> {
+            this.record(voterId, -vote.getPoints(), PointsLedgerEntryType.VOTE_SENT, vote.getImageId());
+            this.record(vote.getPublisherId(), vote.getPoints(), PointsLedgerEntryType.VOTE_RECEIVED, vote.getImageId());
+        });
+    }
+
+    /**
+     * Withdraw points of a vote from a user with a conditional update in the database.
+     *
+     * @param userId  user id.
+     * @param points  points to withdraw in tenths of a point.
+     * @param imageId voted image id.
+     * @throws PhegyHttpException NOT_ENOUGH_POINTS_TO_VOTE if the user has less points.
+     */
+    @Transactional
+    public void withdrawPoints(UUID userId, long points, Long imageId) throws PhegyHttpException {
+        if (pointsBagRepository.withdrawPoints(userId, points) == 0) {
+            // rolls back the deposit when it ran first
+            throw new PhegyHttpException("NOT_ENOUGH_POINTS_TO_VOTE", HttpStatus.BAD_REQUEST);
+        }
+        this.record(userId, -points, PointsLedgerEntryType.VOTE_SENT, imageId);
+    }
+
+    private void depositPoints(UUID userId, long points, PointsLedgerEntryType type, Long imageId) {
+        if (pointsBagRepository.depositPoints(userId, points) == 0) {
+            throw new PhegyHttpException("POINTS_BAG_NOT_FOUND", HttpStatus.NOT_FOUND);
+        }
+        this.record(userId, points, type, imageId);
+    }
+
+    /**
+     * Record a balance change after its bag is updated, so the entries of a user are created
+     * while the bag row is locked and are ordered as the changes.
+     */
+    private void record(UUID userId, long points, PointsLedgerEntryType type, Long imageId) {
+        pointsLedgerEntryRepository.save(PointsLedgerEntry.builder()
+                .userId(userId)
+                .points(points)
+                .type(type)
+                .imageId(imageId)
+                .createdOn(LocalDateTime.now())
+                .build());
     }
 }
@@ -0,0 +1,30 @@
+package tech.phegy.api.service.points;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Points ledger configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.points.ledger")
+public class PointsLedgerProps {
+    /**
+     * Milliseconds between two balance snapshots.
+     */
+    private long snapshotIntervalMs;
+
+    /**
+     * Count of points bags rebuilt in a single transaction.
+     */
+    private int rebuildChunkSize;
+
+    /**
+     * Count of chunks rebuilt in parallel.
+     */
+    private int rebuildPoolSize;
+}
@@ -0,0 +1,118 @@
+package tech.phegy.api.service.points;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.points.PointsBalanceSnapshot;
+import tech.phegy.api.repository.PointsBagRepository;
+import tech.phegy.api.repository.PointsBalanceSnapshotRepository;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service for reading balances from the points ledger.
+ * Points bags hold the current balances, the ledger holds every change of them,
+ * so balances at any time can be audited and the bags can be rebuilt from the ledger.
+ *
+ * @author Nikita
+ */
+@Service
+public class PointsLedgerService {
+    private final PointsBagRepository pointsBagRepository;
+    private final PointsLedgerEntryRepository pointsLedgerEntryRepository;
+    private final PointsBalanceSnapshotRepository pointsBalanceSnapshotRepository;
+    private final PointsLedgerProps pointsLedgerProps;
+    private final ExecutorService rebuildExecutor;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public PointsLedgerService(PointsBagRepository pointsBagRepository,
+                               PointsLedgerEntryRepository pointsLedgerEntryRepository,
+                               PointsBalanceSnapshotRepository pointsBalanceSnapshotRepository,
+                               PointsLedgerProps pointsLedgerProps) {
+        this.pointsBagRepository = pointsBagRepository;
+        this.pointsLedgerEntryRepository = pointsLedgerEntryRepository;
+        this.pointsBalanceSnapshotRepository = pointsBalanceSnapshotRepository;
+        this.pointsLedgerProps = pointsLedgerProps;
+        this.rebuildExecutor = Executors.newFixedThreadPool(
+                pointsLedgerProps.getRebuildPoolSize(),
+                new ThreadFactoryBuilder().setNameFormat("points-ledger-rebuild-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Get balance of a user at a specific time from the latest snapshot before it and the ledger entries after its last entry.
+     *
+     * @param username user username.
+     * @param at       time of the balance.
+     * @return balance in tenths of a point.
+     * @throws UsernameNotFoundException if the user has no points bag.
+     */
+    public long getBalanceAt(String username, LocalDateTime at) {
+        final UUID userId = this.pointsBagRepository.findByUserUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username))
+                .getUser()
+                .getId();
+
+        final Optional<PointsBalanceSnapshot> snapshot = this.pointsBalanceSnapshotRepository
+                .findFirstByUserIdAndTakenOnLessThanEqualOrderByTakenOnDesc(userId, at);
+        final long snapshotPoints = snapshot.map(PointsBalanceSnapshot::getPoints).orElse(0L);
+        final long snapshotLastEntryId = snapshot.map(PointsBalanceSnapshot::getLastEntryId).orElse(0L);
+        return snapshotPoints + this.pointsLedgerEntryRepository.sumPointsByUserIdAfterEntryCreatedUntil(userId, snapshotLastEntryId, at);
+    }
+
+    /**
+     * Snapshot the balances changed since the previous snapshot.
+     * Changes are tracked by the last included ledger entry of every user,
+     * so entries whose transactions commit late are included by the next snapshot instead of being skipped.
+     */
+    @Scheduled(fixedDelayString = "${application.points.ledger.snapshot-interval-ms}")
+    public void takeSnapshots() {
+        this.pointsBalanceSnapshotRepository.snapshotAllChanged(LocalDateTime.now());
+    }
+
+    /**
+     * Rebuild all points bags from the ledger, in parallel chunks with a transaction per chunk.
+     *
+     * @return count of points bags that differed from the ledger.
+     * @throws PhegyHttpException POINTS_LEDGER_REBUILD_FAILED if a chunk could not be rebuilt.
+     */
+    public long rebuildBalances() throws PhegyHttpException {
+        final List<Future<Integer>> chunks = new ArrayList<>();
+        for (List<Long> chunk : Lists.partition(this.pointsBagRepository.findAllIds(), this.pointsLedgerProps.getRebuildChunkSize())) {
+            chunks.add(this.rebuildExecutor.submit(() -> this.pointsBagRepository.rebuildPointsByIdIn(chunk)));
+        }
+
+        long corrected = 0;
+        try {
+            for (Future<Integer> chunk : chunks) {
+                corrected += chunk.get();
+            }
+        } catch (ExecutionException e) {
+            throw new PhegyHttpException("POINTS_LEDGER_REBUILD_FAILED", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PhegyHttpException("POINTS_LEDGER_REBUILD_FAILED", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return corrected;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.rebuildExecutor.shutdown();
+    }
+}
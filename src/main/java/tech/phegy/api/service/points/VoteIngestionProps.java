@@ -0,0 +1,46 @@
+package tech.phegy.api.service.points;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Write-behind vote ingestion configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.vote.ingestion")
+public class VoteIngestionProps {
+    /**
+     * Whether accepted votes are queued and saved in batches instead of in the request transaction.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum count of votes waiting to be saved, further votes are rejected.
+     */
+    private int queueCapacity;
+
+    /**
+     * Maximum count of votes saved in a single transaction.
+     */
+    private int batchSize;
+
+    /**
+     * Milliseconds the committer waits for more votes before saving a partial batch.
+     */
+    private long flushIntervalMs;
+
+    /**
+     * Count of attempts to save a whole batch, before its votes are saved one at a time
+     * and the votes that still fail are refunded to their voters.
+     */
+    private int maxCommitAttempts;
+
+    /**
+     * File journaling queued votes, so they are saved after a restart.
+     */
+    private String journalPath;
+}
@@ -0,0 +1,463 @@
+package tech.phegy.api.service.points;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
+import tech.phegy.api.model.points.QueuedVote;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
+import tech.phegy.api.repository.VoteBatchRepository;
+import tech.phegy.api.repository.VoteRepository;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+import tech.phegy.api.service.tally.event.OnImageTallyChangedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service for saving accepted votes in the background, when the write-behind ingestion is enabled.
+ * Request threads journal the vote before any transaction is open and then only withdraw the voter points,
+ * a single committer thread saves the queued votes in batches, one transaction per batch.
+ * A batch failing repeatedly is saved one vote at a time, a vote that still fails is refunded to its voter,
+ * or dead-lettered next to the journal when even that fails for good, so one bad vote never blocks the votes after it.
+ * Votes are journaled on the local disk, so only a single application instance may enable it.
+ *
+ * @author Nikita
+ */
+@Service
+public class VoteIngestionService {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+
+    private final VoteBatchRepository voteBatchRepository;
+    private final VoteRepository voteRepository;
+    private final PointsLedgerEntryRepository pointsLedgerEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteIngestionProps voteIngestionProps;
+    private final HotScoreProps hotScoreProps;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<QueuedVote> queue;
+    private final Semaphore queueSlots;
+    private final Set<String> pendingVotes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService committer;
+    private volatile boolean running = true;
+    private VoteJournal journal;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public VoteIngestionService(VoteBatchRepository voteBatchRepository,
+                                VoteRepository voteRepository,
+                                PointsLedgerEntryRepository pointsLedgerEntryRepository,
+                                PlatformTransactionManager transactionManager,
+                                VoteIngestionProps voteIngestionProps,
+                                HotScoreProps hotScoreProps,
+                                ApplicationEventPublisher eventPublisher) {
+        this.voteBatchRepository = voteBatchRepository;
+        this.voteRepository = voteRepository;
+        this.pointsLedgerEntryRepository = pointsLedgerEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.voteIngestionProps = voteIngestionProps;
+        this.hotScoreProps = hotScoreProps;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(voteIngestionProps.getQueueCapacity());
+        this.queueSlots = new Semaphore(voteIngestionProps.getQueueCapacity());
+        this.committer = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("vote-committer-%d").setDaemon(true).build());
+    }
+
+    public boolean isEnabled() {
+        return this.voteIngestionProps.isEnabled();
+    }
+
+    /**
+     * Save the votes journaled but not saved before the last stop and start the committer.
+     * Votes whose voter points were never withdrawn, because the request failed after journaling,
+     * or were refunded already, are discarded.
+     * The journal is replayed even when the ingestion was disabled meanwhile.
+     *
+     * @throws IOException when can not read the journal.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        final Path journalPath = Path.of(this.voteIngestionProps.getJournalPath());
+        if (!this.isEnabled() && !Files.exists(journalPath)) {
+            return;
+        }
+
+        this.journal = new VoteJournal(journalPath);
+        final List<QueuedVote> withdrawn = new ArrayList<>();
+        for (QueuedVote vote : this.journal.readUncommitted()) {
+            if (this.pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(
+                    vote.getVoterId(), vote.getImageId(), PointsLedgerEntryType.VOTE_SENT)
+                    && !this.pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(
+                    vote.getVoterId(), vote.getImageId(), PointsLedgerEntryType.REVERSAL)) {
+                withdrawn.add(vote);
+            } else {
+                this.journal.discard(vote.getSequence());
+            }
+        }
+        for (List<QueuedVote> batch : Lists.partition(withdrawn, this.voteIngestionProps.getBatchSize())) {
+            this.commit(batch);
+        }
+
+        if (this.isEnabled()) {
+            this.committer.execute(this::run);
+        }
+    }
+
+    /**
+     * Reserve a queue slot for a vote, before it is journaled.
+     *
+     * @param voterId voter id.
+     * @param imageId voted image id.
+     * @throws PhegyHttpException ALREADY_VOTED if a vote for the image is already queued.
+     * @throws PhegyHttpException VOTE_QUEUE_FULL if no more votes can be queued.
+     */
+    public void reserve(UUID voterId, Long imageId) throws PhegyHttpException {
+        if (!this.pendingVotes.add(pendingKey(voterId, imageId))) {
+            throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
+        }
+        if (!this.queueSlots.tryAcquire()) {
+            this.pendingVotes.remove(pendingKey(voterId, imageId));
+            throw new PhegyHttpException("VOTE_QUEUE_FULL", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Free a reserved queue slot and the pending vote.
+     *
+     * @param voterId voter id.
+     * @param imageId voted image id.
+     */
+    public void release(UUID voterId, Long imageId) {
+        this.pendingVotes.remove(pendingKey(voterId, imageId));
+        this.queueSlots.release();
+    }
+
+    /**
+     * Hold votes saved outside of the queue, so no vote of the voter for the same images is queued meanwhile.
+     * Unlike {@link #reserve(UUID, Long)} no queue slot is taken.
+     *
+     * @param voterId  voter id.
+     * @param imageIds voted image ids.
+     * @throws PhegyHttpException ALREADY_VOTED if a vote for any of the images is already queued.
+     */
+    public void hold(UUID voterId, Collection<Long> imageIds) throws PhegyHttpException {
+        final List<String> held = new ArrayList<>();
+        for (Long imageId : imageIds) {
+            final String key = pendingKey(voterId, imageId);
+            if (!this.pendingVotes.add(key)) {
+                held.forEach(this.pendingVotes::remove);
+                throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
+            }
+            held.add(key);
+        }
+    }
+
+    /**
+     * Release held votes once they are saved or rolled back.
+     *
+     * @param voterId  voter id.
+     * @param imageIds voted image ids.
+     */
+    public void releaseHold(UUID voterId, Collection<Long> imageIds) {
+        imageIds.forEach(imageId -> this.pendingVotes.remove(pendingKey(voterId, imageId)));
+    }
+
+    /**
+     * Journal a vote in its reserved slot, before the voter points are withdrawn.
+     * Waits for the journal to be forced to disk, together with the votes journaled meanwhile.
+     *
+     * @param voterId     voter id.
+     * @param publisherId image publisher id.
+     * @param imageId     voted image id.
+     * @param points      points in tenths of a point.
+     * @param submittedAt vote time.
+     * @return journaled vote.
+     * @throws PhegyHttpException VOTE_NOT_SAVED if the vote can not be journaled, its slot is freed then.
+     */
+    public QueuedVote journal(UUID voterId, UUID publisherId, Long imageId, long points, LocalDateTime submittedAt)
+            throws PhegyHttpException {
+        try {
+            return this.journal.append(voterId, publisherId, imageId, points, submittedAt);
+        } catch (IOException e) {
+            this.release(voterId, imageId);
+            throw new PhegyHttpException("VOTE_NOT_SAVED", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Queue a journaled vote whose voter points are withdrawn.
+     *
+     * @param vote journaled vote.
+     */
+    public void enqueue(QueuedVote vote) {
+        // the slot was reserved, so the queue always has room
+        this.queue.add(vote);
+    }
+
+    /**
+     * Drop a journaled vote whose voter points could not be withdrawn and free its slot.
+     *
+     * @param vote journaled vote.
+     */
+    public void discard(QueuedVote vote) {
+        this.journal.discard(vote.getSequence());
+        this.release(vote.getVoterId(), vote.getImageId());
+    }
+
+    /**
+     * Save a batch of votes in a single transaction.
+     * Deposits the points of saved votes to their publishers and returns the points of skipped votes to their voters.
+     * A vote is skipped by the {@code insert ignore} of {@link VoteBatchRepository#insertAll(List)} both when it is
+     * a duplicate and when it violates a foreign key, because its image was deleted meanwhile.
+     * A retried or replayed vote may be saved or returned already, it is skipped without returning its points again.
+     *
+     * @param batch votes in the order of the journal.
+     */
+    public void commit(List<QueuedVote> batch) {
+        final List<QueuedVote> committed = this.transactionTemplate.execute(status -> {
+            final int[] inserted = this.voteBatchRepository.insertAll(batch);
+            final List<QueuedVote> saved = new ArrayList<>();
+            final Map<UUID, Long> deposits = new HashMap<>();
+            final List<PointsLedgerEntry> ledgerEntries = new ArrayList<>();
+            final LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < batch.size(); i++) {
+                final QueuedVote vote = batch.get(i);
+                if (inserted[i] > 0) {
+                    saved.add(vote);
+                    deposits.merge(vote.getPublisherId(), vote.getPoints(), Long::sum);
+                    ledgerEntries.add(ledgerEntry(vote.getPublisherId(), vote, PointsLedgerEntryType.VOTE_RECEIVED, now));
+                } else if (!this.voteRepository.existsByVoterIdAndImageId(vote.getVoterId(), vote.getImageId())
+                        && !this.pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(
+                        vote.getVoterId(), vote.getImageId(), PointsLedgerEntryType.REVERSAL)) {
+                    // not a duplicate, so the image was deleted meanwhile
+                    deposits.merge(vote.getVoterId(), vote.getPoints(), Long::sum);
+                    ledgerEntries.add(ledgerEntry(vote.getVoterId(), vote, PointsLedgerEntryType.REVERSAL, now));
+                }
+            }
+
+            this.voteBatchRepository.depositAll(deposits);
+            this.voteBatchRepository.insertAllLedgerEntries(ledgerEntries);
+            this.voteBatchRepository.addAllToImages(saved, this.hotScoreProps.getHalfLifeSeconds());
+            this.voteBatchRepository.addAllToRollups(saved);
+            return saved;
+        });
+
+        try {
+            this.journal.commit(batch.stream().map(QueuedVote::getSequence).collect(Collectors.toList()));
+        } catch (IOException ignored) {
+            // replayed votes saved already are skipped
+        }
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.voteCast(this));
+        this.eventPublisher.publishEvent(new OnImageTallyChangedEvent(this,
+                committed.stream().map(QueuedVote::getImageId).collect(Collectors.toSet())));
+    }
+
+    /**
+     * Stop accepting votes and save the queued ones before the application stops.
+     * Votes not saved in time stay in the journal.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        this.running = false;
+        this.committer.shutdown();
+        this.committer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        if (this.journal != null) {
+            this.journal.close();
+        }
+    }
+
+    private void run() {
+        while (this.running || !this.queue.isEmpty()) {
+            final List<QueuedVote> batch;
+            try {
+                batch = this.nextBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            if (!this.save(batch)) {
+                // queued votes stay in the journal
+                return;
+            }
+        }
+    }
+
+    /**
+     * Save a batch, retrying it a bounded count of times before settling its votes one at a time.
+     * Votes that could neither be saved nor refunded, like when the database is unavailable, are retried.
+     *
+     * @return false if the committer was stopped before every vote was settled.
+     */
+    private boolean save(List<QueuedVote> batch) {
+        List<QueuedVote> unsettled = batch;
+        int attempts = 0;
+        while (true) {
+            if (this.tryCommit(unsettled)) {
+                unsettled.forEach(vote -> this.release(vote.getVoterId(), vote.getImageId()));
+                return true;
+            }
+            if (++attempts >= this.voteIngestionProps.getMaxCommitAttempts()) {
+                unsettled = this.settleEach(unsettled);
+                attempts = 0;
+                if (unsettled.isEmpty()) {
+                    return true;
+                }
+            }
+
+            if (!this.running) {
+                return false;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(this.voteIngestionProps.getFlushIntervalMs());
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Save votes one at a time and refund the votes that fail, like votes for an image or publisher deleted meanwhile.
+     *
+     * @return votes that could neither be saved nor refunded.
+     */
+    private List<QueuedVote> settleEach(List<QueuedVote> batch) {
+        final List<QueuedVote> unsettled = new ArrayList<>();
+        for (QueuedVote vote : batch) {
+            if (this.tryCommit(List.of(vote)) || this.tryRefund(vote)) {
+                this.release(vote.getVoterId(), vote.getImageId());
+            } else {
+                unsettled.add(vote);
+            }
+        }
+        return unsettled;
+    }
+
+    /**
+     * Return the points of a vote that can not be saved to its voter.
+     * When the voter was deleted meanwhile the vote is dead-lettered instead.
+     *
+     * @return true if the vote is refunded or dead-lettered.
+     */
+    private boolean tryRefund(QueuedVote vote) {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                this.voteBatchRepository.depositAll(Map.of(vote.getVoterId(), vote.getPoints()));
+                this.voteBatchRepository.insertAllLedgerEntries(List.of(
+                        ledgerEntry(vote.getVoterId(), vote, PointsLedgerEntryType.REVERSAL, LocalDateTime.now())));
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (!this.deadLetter(vote)) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+
+        try {
+            this.journal.commit(List.of(vote.getSequence()));
+        } catch (IOException ignored) {
+            // a replayed refunded vote is discarded
+        }
+        return true;
+    }
+
+    /**
+     * Append a vote that can neither be saved nor refunded to the dead letter file next to the journal.
+     */
+    private boolean deadLetter(QueuedVote vote) {
+        try {
+            Files.writeString(Path.of(this.voteIngestionProps.getJournalPath() + DEAD_LETTER_SUFFIX),
+                    VoteJournal.format(vote) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Wait for the first queued vote, then collect more votes until the batch is full or the flush interval passes.
+     */
+    private List<QueuedVote> nextBatch() throws InterruptedException {
+        final int batchSize = this.voteIngestionProps.getBatchSize();
+        final List<QueuedVote> batch = new ArrayList<>(batchSize);
+        final QueuedVote first = this.queue.poll(this.voteIngestionProps.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+
+        batch.add(first);
+        final long flushAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.voteIngestionProps.getFlushIntervalMs());
+        while (batch.size() < batchSize && this.running) {
+            this.queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = flushAt - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            final QueuedVote next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private boolean tryCommit(List<QueuedVote> batch) {
+        try {
+            this.commit(batch);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static PointsLedgerEntry ledgerEntry(UUID userId, QueuedVote vote, PointsLedgerEntryType type, LocalDateTime createdOn) {
+        return PointsLedgerEntry.builder()
+                .userId(userId)
+                .points(vote.getPoints())
+                .type(type)
+                .imageId(vote.getImageId())
+                .createdOn(createdOn)
+                .build();
+    }
+
+    private static String pendingKey(UUID voterId, Long imageId) {
+        return voterId + ":" + imageId;
+    }
+}
@@ -0,0 +1,220 @@
+package tech.phegy.api.service.points;
+
+import tech.phegy.api.model.points.QueuedVote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Append only file of votes accepted by the write-behind ingestion.
+ * Votes are journaled before the voter points are withdrawn, appenders arriving while the file is forced
+ * are forced together by the next of them, so a burst of votes costs a few disk syncs instead of one per vote.
+ * A checkpoint is appended once every vote up to its sequence is saved or discarded,
+ * so the votes pending when the application stops are replayed on the next start.
+ *
+ * @author Nikita
+ */
+public class VoteJournal implements Closeable {
+    private static final String VOTE = "V";
+    private static final String CHECKPOINT = "C";
+    private static final String SEPARATOR = ",";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Object forceLock = new Object();
+    private final NavigableSet<Long> pending = new TreeSet<>();
+    private long lastSequence;
+    private long checkpoint;
+    private long forcedSequence;
+
+    /**
+     * Open the journal file, it is created when missing.
+     *
+     * @param path journal file.
+     * @throws IOException when can not open the file.
+     */
+    public VoteJournal(Path path) throws IOException {
+        this.path = path;
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.terminateTornLine();
+    }
+
+    /**
+     * Read the votes appended after the last checkpoint.
+     * Must be called before the first append, so new votes continue the sequence of the file.
+     * A line torn by a crash while appending is skipped, its vote was never queued.
+     *
+     * @return votes not saved yet, in the order of their sequence.
+     * @throws IOException when can not read the file.
+     */
+    public synchronized List<QueuedVote> readUncommitted() throws IOException {
+        final List<QueuedVote> votes = new ArrayList<>();
+        long checkpoint = 0;
+        for (String line : Files.readAllLines(this.path, StandardCharsets.UTF_8)) {
+            final String[] parts = line.split(SEPARATOR);
+            try {
+                if (VOTE.equals(parts[0]) && parts.length == 7) {
+                    final QueuedVote vote = new QueuedVote(
+                            Long.parseLong(parts[1]),
+                            UUID.fromString(parts[2]),
+                            UUID.fromString(parts[3]),
+                            Long.parseLong(parts[4]),
+                            Long.parseLong(parts[5]),
+                            LocalDateTime.parse(parts[6]));
+                    votes.add(vote);
+                    this.lastSequence = Math.max(this.lastSequence, vote.getSequence());
+                } else if (CHECKPOINT.equals(parts[0]) && parts.length == 2) {
+                    checkpoint = Math.max(checkpoint, Long.parseLong(parts[1]));
+                }
+            } catch (RuntimeException ignored) {
+                // torn line
+            }
+        }
+
+        final long committed = checkpoint;
+        votes.removeIf(vote -> vote.getSequence() <= committed);
+        this.checkpoint = committed;
+        votes.forEach(vote -> this.pending.add(vote.getSequence()));
+        return votes;
+    }
+
+    /**
+     * Append a vote and wait until it is forced to disk.
+     * The vote stays pending until it is committed or discarded.
+     *
+     * @return appended vote with its sequence.
+     * @throws IOException when can not write the file, the vote is not pending then.
+     */
+    public QueuedVote append(UUID voterId, UUID publisherId, Long imageId, long points, LocalDateTime submittedAt)
+            throws IOException {
+        final QueuedVote vote;
+        synchronized (this) {
+            vote = new QueuedVote(this.lastSequence + 1, voterId, publisherId, imageId, points, submittedAt);
+            this.write(format(vote));
+            this.lastSequence = vote.getSequence();
+            this.pending.add(vote.getSequence());
+        }
+
+        try {
+            this.force(vote.getSequence());
+        } catch (IOException e) {
+            this.discard(vote.getSequence());
+            throw e;
+        }
+        return vote;
+    }
+
+    /**
+     * Mark votes as saved.
+     * A checkpoint is appended up to the first vote still pending, or the file is truncated when no vote is pending,
+     * so it does not grow while the application runs.
+     * Checkpoints are not forced, votes replayed after a lost checkpoint are skipped as saved already.
+     *
+     * @param sequences sequences of the saved votes.
+     * @throws IOException when can not write the file.
+     */
+    public synchronized void commit(Collection<Long> sequences) throws IOException {
+        this.pending.removeAll(sequences);
+        if (this.pending.isEmpty()) {
+            this.channel.truncate(0);
+            this.checkpoint = this.lastSequence;
+            return;
+        }
+
+        final long covered = this.pending.first() - 1;
+        if (covered > this.checkpoint) {
+            this.write(CHECKPOINT + SEPARATOR + covered);
+            this.checkpoint = covered;
+        }
+    }
+
+    /**
+     * Stop waiting for a vote whose points were not withdrawn, it is covered by the next checkpoint.
+     * The vote stays in the file until then, a replayed vote without a withdrawal is skipped.
+     *
+     * @param sequence sequence of the discarded vote.
+     */
+    public synchronized void discard(long sequence) {
+        this.pending.remove(sequence);
+    }
+
+    /**
+     * Format a vote as a journal line, without the line separator.
+     *
+     * @param vote vote.
+     * @return journal line.
+     */
+    static String format(QueuedVote vote) {
+        return String.join(SEPARATOR,
+                VOTE,
+                String.valueOf(vote.getSequence()),
+                vote.getVoterId().toString(),
+                vote.getPublisherId().toString(),
+                vote.getImageId().toString(),
+                String.valueOf(vote.getPoints()),
+                vote.getSubmittedAt().toString());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * End a line torn by a crash, so it is not merged with the next appended vote.
+     */
+    private void terminateTornLine() throws IOException {
+        final long size = this.channel.size();
+        if (size == 0) {
+            return;
+        }
+        final ByteBuffer lastByte = ByteBuffer.allocate(1);
+        this.channel.read(lastByte, size - 1);
+        if (lastByte.get(0) != '\n') {
+            this.write("");
+            this.channel.force(false);
+        }
+    }
+
+    /**
+     * Force the file up to a vote, unless an appender forced it meanwhile.
+     * Votes appended while the file is forced are forced together by the first of them.
+     */
+    private void force(long sequence) throws IOException {
+        synchronized (this.forceLock) {
+            if (this.forcedSequence >= sequence) {
+                return;
+            }
+            final long written;
+            synchronized (this) {
+                written = this.lastSequence;
+            }
+            this.channel.force(false);
+            this.forcedSequence = written;
+        }
+    }
+
+    private void write(String line) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+    }
+}
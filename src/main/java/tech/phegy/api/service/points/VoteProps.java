@@ -11,12 +11,27 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties("application.vote")
 public class VoteProps {
     /**
-     * Maximum vote points
+     * Maximum vote points in tenths of a point
      */
-    private Double maxPoints;
+    private long maxPoints;
 
     /**
-     * Minimum vote points
+     * Minimum vote points in tenths of a point
      */
-    private Double minPoints;
+    private long minPoints;
+
+    /**
+     * Days of hourly vote rollups to keep, must cover the longest top voted window
+     */
+    private Integer rollupRetentionDays;
+
+    /**
+     * Cron expression for purging expired vote rollups
+     */
+    private String rollupPurgeCron;
+
+    /**
+     * Maximum count of votes sent in a single batch
+     */
+    private int maxBatchSize;
 }
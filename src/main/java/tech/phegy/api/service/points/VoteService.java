@@ -1,19 +1,40 @@
 package tech.phegy.api.service.points;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.phegy.api.dto.poins.request.VoteDto;
 import tech.phegy.api.exception.PhegyHttpException;
 import tech.phegy.api.model.Image;
-import tech.phegy.api.model.points.PointsBag;
+import tech.phegy.api.model.points.QueuedVote;
+import tech.phegy.api.repository.VoteBatchRepository;
 import tech.phegy.api.repository.VoteRepository;
 import tech.phegy.api.model.points.Vote;
 import tech.phegy.api.model.user.PhegyUser;
 import tech.phegy.api.service.ImageService;
 import tech.phegy.api.service.PhegyUserService;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.service.leaderboard.LeaderboardScore;
+import tech.phegy.api.service.leaderboard.event.OnLeaderboardChangedEvent;
+import tech.phegy.api.service.points.event.OnVotesSettledEvent;
+import tech.phegy.api.service.tally.event.OnImageTallyChangedEvent;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing votes
@@ -23,36 +44,116 @@ import java.util.Objects;
 @Service
 public class VoteService {
     private final VoteRepository voteRepository;
+    private final VoteBatchRepository voteBatchRepository;
     private final PointsBagService pointsBagService;
     private final PhegyUserService userService;
     private final ImageService imageService;
+    private final VoteIngestionService voteIngestionService;
+    private final TransactionTemplate transactionTemplate;
     private final VoteProps voteProps;
+    private final HotScoreProps hotScoreProps;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructs new instance with needed dependencies.
      */
     public VoteService(VoteRepository voteRepository,
+                       VoteBatchRepository voteBatchRepository,
                        PointsBagService pointsBagService,
                        PhegyUserService userService,
                        ImageService imageService,
-                       VoteProps voteProps) {
+                       VoteIngestionService voteIngestionService,
+                       PlatformTransactionManager transactionManager,
+                       VoteProps voteProps,
+                       HotScoreProps hotScoreProps,
+                       ApplicationEventPublisher eventPublisher) {
         this.voteRepository = voteRepository;
+        this.voteBatchRepository = voteBatchRepository;
         this.pointsBagService = pointsBagService;
         this.userService = userService;
         this.imageService = imageService;
+        this.voteIngestionService = voteIngestionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.voteProps = voteProps;
+        this.hotScoreProps = hotScoreProps;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional
-    public void vote(Long imageId, Double points, String voterUsername) {
+    /**
+     * Vote for an image with points of the voter.
+     * With the write-behind ingestion enabled, the vote is journaled before any transaction is open,
+     * only the voter points are withdrawn in a transaction and the vote is saved in the background.
+     *
+     * @param imageId       voted image id.
+     * @param points        points in tenths of a point.
+     * @param voterUsername voter username.
+     */
+    public void vote(Long imageId, long points, String voterUsername) {
+        if (!this.voteIngestionService.isEnabled()) {
+            this.transactionTemplate.executeWithoutResult(status -> this.saveVote(imageId, points, voterUsername));
+            return;
+        }
+
         final PhegyUser voter = this.userService.getConfirmedUser(voterUsername);
         final Image receiverImage = this.imageService.getImage(imageId, voterUsername);
-        final PointsBag pointsBag = this.pointsBagService.getPointsBag(voterUsername);
+        this.checkVote(voter, receiverImage, points);
 
-        if (pointsBag.getPoints() < points) {
-            throw new PhegyHttpException("NOT_ENOUGH_POINTS_TO_VOTE", HttpStatus.BAD_REQUEST);
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        this.voteIngestionService.reserve(voter.getId(), receiverImage.getId());
+        // a journal failure frees the slot, nothing is withdrawn yet
+        final QueuedVote vote = this.voteIngestionService.journal(
+                voter.getId(),
+                receiverImage.getPublisher().getId(),
+                receiverImage.getId(),
+                points,
+                submittedAt);
+        try {
+            this.pointsBagService.withdrawPoints(voter.getId(), points, receiverImage.getId());
+        } catch (RuntimeException e) {
+            this.voteIngestionService.discard(vote);
+            throw e;
         }
-        if (voter.getVotes().stream().anyMatch(x -> x.getImage().equals(receiverImage))) {
+        this.voteIngestionService.enqueue(vote);
+
+        // counted when accepted, the queued vote is not published again
+        this.eventPublisher.publishEvent(OnLeaderboardChangedEvent.voteCast(this,
+                voterUsername, receiverImage.getPublisher().getUsername(), points, submittedAt));
+    }
+
+    private void saveVote(Long imageId, long points, String voterUsername) {
+        final PhegyUser voter = this.userService.getConfirmedUser(voterUsername);
+        final Image receiverImage = this.imageService.getImage(imageId, voterUsername);
+        this.checkVote(voter, receiverImage, points);
+
+        // the balance is checked by the transfer itself
+        this.pointsBagService.transferPoints(
+                voter.getId(),
+                receiverImage.getPublisher().getId(),
+                points,
+                receiverImage.getId());
+
+        final Vote vote = Vote.builder()
+                .voter(voter)
+                .image(receiverImage)
+                .points(points)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        try {
+            this.voteRepository.save(vote);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent vote for the same image won the unique constraint
+            throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
+        }
+        this.imageService.addVote(receiverImage.getId(), vote.getPoints(), vote.getSubmittedAt());
+
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.voteCast(this));
+        this.eventPublisher.publishEvent(new OnImageTallyChangedEvent(this, List.of(receiverImage.getId())));
+        this.eventPublisher.publishEvent(OnLeaderboardChangedEvent.voteCast(this,
+                voterUsername, receiverImage.getPublisher().getUsername(), points, vote.getSubmittedAt()));
+    }
+
+    private void checkVote(PhegyUser voter, Image receiverImage, long points) {
+        if (this.voteRepository.existsByVoterIdAndImageId(voter.getId(), receiverImage.getId())) {
             throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
         }
         if (points < this.voteProps.getMinPoints()) {
@@ -61,42 +162,107 @@ public class VoteService {
         if (points > this.voteProps.getMaxPoints()) {
             throw new PhegyHttpException("VOTE_POINTS_TOO_HIGH", HttpStatus.BAD_REQUEST);
         }
-        if (voterUsername.equals(receiverImage.getPublisher().getUsername())) {
+        if (voter.getUsername().equals(receiverImage.getPublisher().getUsername())) {
             throw new PhegyHttpException("CAN_NOT_VOTE_FOR_OWNING_IMAGES", HttpStatus.BAD_REQUEST);
         }
+    }
 
-        this.voteRepository.save(Vote.builder()
-                .voter(voter)
-                .image(receiverImage)
-                .points(points)
-                .submittedAt(LocalDateTime.now())
-                .build());
+    /**
+     * Vote for several images at once, all votes are saved or none.
+     * The voter and the images are loaded once, the points are settled with a single update per bag
+     * and the votes are inserted in a single JDBC batch.
+     *
+     * @param votes         votes for distinct images.
+     * @param voterUsername voter username.
+     * @throws PhegyHttpException with the same codes as {@link #vote(Long, long, String)} when any vote is invalid,
+     *                            VOTES_EMPTY, VOTES_TOO_MANY or VOTE_IMAGES_DUPLICATED when the batch is invalid.
+     */
+    @Transactional
+    public void voteAll(Collection<VoteDto> votes, String voterUsername) throws PhegyHttpException {
+        if (votes == null || votes.isEmpty()) {
+            throw new PhegyHttpException("VOTES_EMPTY", HttpStatus.BAD_REQUEST);
+        }
+        if (votes.size() > this.voteProps.getMaxBatchSize()) {
+            throw new PhegyHttpException("VOTES_TOO_MANY", HttpStatus.BAD_REQUEST);
+        }
+        final Set<Long> imageIds = votes.stream().map(VoteDto::getImageId).collect(Collectors.toSet());
+        if (imageIds.size() != votes.size()) {
+            throw new PhegyHttpException("VOTE_IMAGES_DUPLICATED", HttpStatus.BAD_REQUEST);
+        }
+        for (VoteDto vote : votes) {
+            if (vote.getPoints() < this.voteProps.getMinPoints()) {
+                throw new PhegyHttpException("VOTE_POINTS_TOO_LOW", HttpStatus.BAD_REQUEST);
+            }
+            if (vote.getPoints() > this.voteProps.getMaxPoints()) {
+                throw new PhegyHttpException("VOTE_POINTS_TOO_HIGH", HttpStatus.BAD_REQUEST);
+            }
+        }
 
-        this.pointsBagService.transferPoints(
-                voterUsername,
-                receiverImage.getPublisher().getUsername(),
-                points);
+        final PhegyUser voter = this.userService.getConfirmedUser(voterUsername);
+        final Map<Long, Image> images = this.imageService.getImages(imageIds, voterUsername).stream()
+                .collect(Collectors.toMap(Image::getId, Function.identity()));
+        if (images.values().stream().anyMatch(image -> voter.equals(image.getPublisher()))) {
+            throw new PhegyHttpException("CAN_NOT_VOTE_FOR_OWNING_IMAGES", HttpStatus.BAD_REQUEST);
+        }
+        if (!this.voteRepository.findAllVotedByVoterIdAndImageIdIn(voter.getId(), imageIds).isEmpty()) {
+            throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
+        }
+        if (this.voteIngestionService.isEnabled()) {
+            this.voteIngestionService.hold(voter.getId(), imageIds);
+            // released again when the transaction completes
+            this.eventPublisher.publishEvent(new OnVotesSettledEvent(this, voter.getId(), imageIds));
+        }
+
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final List<QueuedVote> batch = votes.stream()
+                .map(vote -> new QueuedVote(0L,
+                        voter.getId(),
+                        images.get(vote.getImageId()).getPublisher().getId(),
+                        vote.getImageId(),
+                        vote.getPoints(),
+                        submittedAt))
+                .collect(Collectors.toList());
+
+        // the balance is checked against the total of all votes
+        this.pointsBagService.settleVotes(voter.getId(), batch);
+
+        if (Arrays.stream(this.voteBatchRepository.insertAll(batch)).anyMatch(inserted -> inserted == 0)) {
+            // a concurrent vote for one of the images won the unique constraint
+            throw new PhegyHttpException("ALREADY_VOTED", HttpStatus.BAD_REQUEST);
+        }
+        this.voteBatchRepository.addAllToImages(batch, this.hotScoreProps.getHalfLifeSeconds());
+        this.voteBatchRepository.addAllToRollups(batch);
+
+        final List<LeaderboardScore> scores = new ArrayList<>();
+        for (QueuedVote vote : batch) {
+            scores.add(new LeaderboardScore(LeaderboardType.POINTS_SENT, voterUsername, vote.getPoints(), submittedAt));
+            scores.add(new LeaderboardScore(LeaderboardType.POINTS_RECEIVED,
+                    images.get(vote.getImageId()).getPublisher().getUsername(), vote.getPoints(), submittedAt));
+        }
+        this.eventPublisher.publishEvent(OnImageFeedChangedEvent.voteCast(this));
+        this.eventPublisher.publishEvent(new OnImageTallyChangedEvent(this, imageIds));
+        this.eventPublisher.publishEvent(new OnLeaderboardChangedEvent(this, scores));
     }
 
     /**
      * Get votes received by a specific user.
      *
      * @param username receiver.
-     * @return points received.
+     * @return points received in tenths of a point.
      */
-    public Double getPointsReceivedBy(String username) {
-        final Double votesReceived = voteRepository.getVotePointsReceivedBy(username);
-        return Objects.requireNonNullElse(votesReceived, 0d);
+    public long getPointsReceivedBy(String username) {
+        final Long votesReceived = voteRepository.getVotePointsReceivedBy(username);
+        return Objects.requireNonNullElse(votesReceived, 0L);
     }
 
     /**
      * Get votes sent by a specific user.
      *
      * @param username sender.
-     * @return points sent.
+     * @return points sent in tenths of a point.
      */
-    public Double getPointsSentBy(String username) {
-        final Double votesSent = voteRepository.getVotePointsSentBy(username);
-        return Objects.requireNonNullElse(votesSent, 0d);
+    public long getPointsSentBy(String username) {
+        final Long votesSent = voteRepository.getVotePointsSentBy(username);
+        return Objects.requireNonNullElse(votesSent, 0L);
     }
 }
@@ -0,0 +1,19 @@
+package tech.phegy.api.service.points.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Getter
+public class OnVotesSettledEvent extends ApplicationEvent {
+    private final UUID voterId;
+    private final Collection<Long> imageIds;
+
+    public OnVotesSettledEvent(Object source, UUID voterId, Collection<Long> imageIds) {
+        super(source);
+        this.voterId = voterId;
+        this.imageIds = imageIds;
+    }
+}
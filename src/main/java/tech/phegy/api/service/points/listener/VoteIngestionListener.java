@@ -0,0 +1,24 @@
+package tech.phegy.api.service.points.listener;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.phegy.api.service.points.VoteIngestionService;
+import tech.phegy.api.service.points.event.OnVotesSettledEvent;
+
+@Component
+public class VoteIngestionListener {
+    private final VoteIngestionService voteIngestionService;
+
+    public VoteIngestionListener(VoteIngestionService voteIngestionService) {
+        this.voteIngestionService = voteIngestionService;
+    }
+
+    /**
+     * Votes of a batch are saved or rolled back, votes for the same images may be queued again.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onVotesSettled(OnVotesSettledEvent onVotesSettledEvent) {
+        this.voteIngestionService.releaseHold(onVotesSettledEvent.getVoterId(), onVotesSettledEvent.getImageIds());
+    }
+}
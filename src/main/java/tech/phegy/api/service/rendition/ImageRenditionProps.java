@@ -0,0 +1,42 @@
+package tech.phegy.api.service.rendition;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Image rendition configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.rendition")
+public class ImageRenditionProps {
+    /**
+     * Lengths of the longer side in pixels, sizes not smaller than the original image are skipped.
+     */
+    private List<Integer> sizes;
+
+    /**
+     * ImageIO formats written for every size, e.g. jpg and png. Only png renditions keep transparency.
+     */
+    private List<String> formats;
+
+    /**
+     * JPEG compression quality between 0 and 1.
+     */
+    private float jpegQuality;
+
+    /**
+     * Count of worker threads generating renditions.
+     */
+    private int poolSize;
+
+    /**
+     * Maximum count of images waiting for a free worker, further images get no renditions.
+     */
+    private int queueCapacity;
+}
@@ -0,0 +1,254 @@
+package tech.phegy.api.service.rendition;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.springframework.stereotype.Service;
+import tech.phegy.api.model.ImageRendition;
+import tech.phegy.api.repository.ImageBlobRepository;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.service.ingestion.event.OnImageIngestedEvent;
+import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.service.storage.StorageDeletionService;
+import tech.phegy.api.service.storage.StoragePath;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service for generating downscaled renditions of uploaded images in the background,
+ * so image listings do not have to load the original image for every card.
+ *
+ * @author Nikita
+ */
+@Service
+public class ImageRenditionService {
+    private final ImageRepository imageRepository;
+    private final ImageBlobRepository imageBlobRepository;
+    private final CloudStorageService cloudStorageService;
+    private final StorageDeletionService storageDeletionService;
+    private final ImageRenditionProps imageRenditionProps;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageRenditionService(ImageRepository imageRepository,
+                                 ImageBlobRepository imageBlobRepository,
+                                 CloudStorageService cloudStorageService,
+                                 StorageDeletionService storageDeletionService,
+                                 ImageRenditionProps imageRenditionProps) {
+        this.imageRepository = imageRepository;
+        this.imageBlobRepository = imageBlobRepository;
+        this.cloudStorageService = cloudStorageService;
+        this.storageDeletionService = storageDeletionService;
+        this.imageRenditionProps = imageRenditionProps;
+        this.executor = new ThreadPoolExecutor(
+                imageRenditionProps.getPoolSize(),
+                imageRenditionProps.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageRenditionProps.getQueueCapacity()),
+                new ThreadFactoryBuilder().setNameFormat("image-rendition-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue rendition generation of an ingested image.
+     * When the queue is full the image keeps only its original file.
+     *
+     * @param ingested ingested image, its spooled file is removed when done.
+     */
+    public void submit(OnImageIngestedEvent ingested) {
+        try {
+            this.executor.execute(() -> this.render(ingested));
+        } catch (RejectedExecutionException e) {
+            this.discard(ingested);
+        }
+    }
+
+    /**
+     * Generate configured renditions of an ingested image, upload them and store them on every image with the same content.
+     * On failure or when every such image was deleted meanwhile, the uploaded renditions are queued for removal.
+     *
+     * @param ingested ingested image, its spooled file is removed when done.
+     */
+    public void render(OnImageIngestedEvent ingested) {
+        final List<ImageRendition> renditions = new ArrayList<>();
+        try {
+            final BufferedImage original = this.read(ingested.getFile());
+            if (original == null) {
+                // no ImageIO reader for this format or no rendition smaller than the image
+                return;
+            }
+
+            final int longerSide = Math.max(original.getWidth(), original.getHeight());
+            for (Integer size : this.imageRenditionProps.getSizes()) {
+                if (size >= longerSide) {
+                    continue;
+                }
+
+                for (String format : this.imageRenditionProps.getFormats()) {
+                    final ImageRendition rendition = new ImageRendition(size, format);
+                    final byte[] renditionBytes = this.encode(resize(original, size, isOpaque(format)), format);
+                    this.cloudStorageService.upload(renditionBytes, rendition.getKey(ingested.getImageKey()), StoragePath.IMAGE);
+                    renditions.add(rendition);
+                }
+            }
+        } catch (Exception e) {
+            this.removeAll(renditions, ingested.getImageKey());
+            return;
+        } finally {
+            this.discard(ingested);
+        }
+
+        if (renditions.isEmpty()) {
+            return;
+        }
+        // renditions are shared by every image with the same content
+        final String joinedRenditions = ImageRendition.joinAll(renditions);
+        if (this.imageBlobRepository.updateRenditions(ingested.getImageKey(), joinedRenditions) == 0) {
+            this.removeAll(renditions, ingested.getImageKey());
+            return;
+        }
+        this.imageRepository.updateRenditionsByImageKey(ingested.getImageKey(), joinedRenditions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private void discard(OnImageIngestedEvent ingested) {
+        try {
+            Files.deleteIfExists(ingested.getFile());
+        } catch (IOException ignored) {
+            // temporary files are cleaned up by the operating system as well
+        }
+    }
+
+    private void removeAll(Collection<ImageRendition> renditions, String imageKey) {
+        if (renditions.isEmpty()) {
+            return;
+        }
+        this.storageDeletionService.enqueueAll(renditions.stream()
+                .map(rendition -> rendition.getKey(imageKey))
+                .collect(Collectors.toList()), StoragePath.IMAGE);
+    }
+
+    /**
+     * Decode image subsampled to at least twice its largest smaller rendition size, instead of its full raster.
+     * The last halving step of {@link #resize(BufferedImage, int, boolean)} still averages the skipped pixels.
+     *
+     * @return decoded image or null if there is no reader for its format or no rendition smaller than it.
+     */
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream imageStream = ImageIO.createImageInputStream(file.toFile())) {
+            final Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageStream, true, true);
+                final int longerSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                final int largestSize = this.imageRenditionProps.getSizes().stream()
+                        .filter(size -> size < longerSide)
+                        .max(Integer::compare)
+                        .orElse(0);
+                if (largestSize == 0) {
+                    return null;
+                }
+
+                final int subsampling = Math.max(1, longerSide / (2 * largestSize));
+                final ImageReadParam readParam = reader.getDefaultReadParam();
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, readParam);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] encode(BufferedImage image, String format) throws IOException {
+        final Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+
+        final ImageWriter writer = writers.next();
+        final ByteArrayOutputStream renditionBytes = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(renditionBytes)) {
+            writer.setOutput(imageOutputStream);
+            final ImageWriteParam writeParam = writer.getDefaultWriteParam();
+            if (isOpaque(format) && writeParam.canWriteCompressed()) {
+                writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                writeParam.setCompressionQuality(this.imageRenditionProps.getJpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+        return renditionBytes.toByteArray();
+    }
+
+    /**
+     * Downscale image so its longer side equals the size.
+     * The image is halved step by step, a single bilinear step to a much smaller size skips most of the pixels.
+     */
+    private static BufferedImage resize(BufferedImage image, int size, boolean opaque) {
+        final double scale = (double) size / Math.max(image.getWidth(), image.getHeight());
+        final int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        final int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        final int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage resized = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+
+            final BufferedImage step = new BufferedImage(width, height, type);
+            final Graphics2D graphics = step.createGraphics();
+            if (opaque) {
+                // formats without alpha show transparent pixels as black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(resized, 0, 0, width, height, null);
+            graphics.dispose();
+            resized = step;
+        } while (width != targetWidth || height != targetHeight);
+
+        return resized;
+    }
+
+    private static boolean isOpaque(String format) {
+        return !"png".equalsIgnoreCase(format);
+    }
+}
@@ -0,0 +1,20 @@
+package tech.phegy.api.service.rendition.listener;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import tech.phegy.api.service.ingestion.event.OnImageIngestedEvent;
+import tech.phegy.api.service.rendition.ImageRenditionService;
+
+@Component
+public class ImageRenditionListener implements ApplicationListener<OnImageIngestedEvent> {
+    private final ImageRenditionService imageRenditionService;
+
+    public ImageRenditionListener(ImageRenditionService imageRenditionService) {
+        this.imageRenditionService = imageRenditionService;
+    }
+
+    @Override
+    public void onApplicationEvent(OnImageIngestedEvent onImageIngestedEvent) {
+        this.imageRenditionService.submit(onImageIngestedEvent);
+    }
+}
@@ -4,10 +4,20 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import tech.phegy.api.exception.PhegyHttpException;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 /**
  * Service for storing images on the clould CDN.
  *
@@ -15,6 +25,11 @@ import tech.phegy.api.exception.PhegyHttpException;
  */
 @Service
 public class CloudStorageService {
+    /**
+     * Maximum count of files removed with a single request.
+     */
+    public static final int MAX_REMOVE_BATCH_SIZE = 1000;
+
     private final S3Client s3Client;
     private final AwsStorageProps awsConfig;
 
@@ -46,6 +61,43 @@ public class CloudStorageService {
         }
     }
 
+    /**
+     * Stream file to the clould CDN without buffering it in memory.
+     *
+     * @param fileStream    file content, not closed by this method.
+     * @param contentLength exact count of bytes in the stream.
+     * @param fileKey       file name.
+     * @param path          path to file on the CDN.
+     * @throws PhegyHttpException when can not upload file.
+     */
+    public void upload(InputStream fileStream, long contentLength, String fileKey, StoragePath path) throws PhegyHttpException {
+        this.upload(fileStream, contentLength, fileKey, null, path);
+    }
+
+    /**
+     * Stream file with a known media type to the clould CDN without buffering it in memory.
+     *
+     * @param fileStream    file content, not closed by this method.
+     * @param contentLength exact count of bytes in the stream.
+     * @param fileKey       file name.
+     * @param contentType   media type served with the file, or null to leave it unset.
+     * @param path          path to file on the CDN.
+     * @throws PhegyHttpException when can not upload file.
+     */
+    public void upload(InputStream fileStream, long contentLength, String fileKey, String contentType, StoragePath path) throws PhegyHttpException {
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(awsConfig.getBucketName())
+                .key(path.toString().toLowerCase() + "/" + fileKey)
+                .contentLength(contentLength)
+                .contentType(contentType)
+                .build();
+        try {
+            s3Client.putObject(putRequest, RequestBody.fromInputStream(fileStream, contentLength));
+        } catch (Exception e) {
+            throw new PhegyHttpException("CAN_NOT_UPLOAD_FILE", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Remove file from the clould CDN.
      *
@@ -64,4 +116,32 @@ public class CloudStorageService {
             throw new PhegyHttpException("CAN_NOT_REMOVE_FILE", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Remove files from the clould CDN with a single request.
+     * Removing a file that does not exist succeeds.
+     *
+     * @param fileKeys file names, at most {@value MAX_REMOVE_BATCH_SIZE}.
+     * @param path     path to files on the CDN.
+     * @return file names that could not be removed.
+     * @throws PhegyHttpException when can not remove files.
+     */
+    public Set<String> removeAll(Collection<String> fileKeys, StoragePath path) throws PhegyHttpException {
+        final String prefix = path.toString().toLowerCase() + "/";
+        final List<ObjectIdentifier> objects = fileKeys.stream()
+                .map(fileKey -> ObjectIdentifier.builder().key(prefix + fileKey).build())
+                .collect(Collectors.toList());
+        DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
+                .bucket(awsConfig.getBucketName())
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+        try {
+            DeleteObjectsResponse deleteResponse = s3Client.deleteObjects(deleteRequest);
+            return deleteResponse.errors().stream()
+                    .map(error -> error.key().substring(prefix.length()))
+                    .collect(Collectors.toSet());
+        } catch (Exception e) {
+            throw new PhegyHttpException("CAN_NOT_REMOVE_FILE", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
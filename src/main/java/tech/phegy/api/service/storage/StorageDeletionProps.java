@@ -0,0 +1,25 @@
+package tech.phegy.api.service.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Deferred cloud storage deletion configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.storage.deletion")
+public class StorageDeletionProps {
+    /**
+     * Maximum count of files removed with a single request, at most 1000.
+     */
+    private int batchSize;
+
+    /**
+     * Milliseconds between two batches of removals.
+     */
+    private long drainIntervalMs;
+}
@@ -0,0 +1,166 @@
+package tech.phegy.api.service.storage;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.phegy.api.model.ImageRendition;
+import tech.phegy.api.model.PendingStorageDeletion;
+import tech.phegy.api.repository.PendingStorageDeletionRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Service for removing files from the cloud storage after the owning rows are deleted.
+ * Files are queued in the database within the deleting transaction, so a delete never waits for
+ * or is rolled back by the cloud storage, and are removed in batches in the background.
+ * A batch is claimed from the queue in a short transaction and removed from the cloud storage outside of it,
+ * files that could not be removed are queued again.
+ *
+ * @author Nikita
+ */
+@Service
+public class StorageDeletionService {
+    private final PendingStorageDeletionRepository pendingStorageDeletionRepository;
+    private final CloudStorageService cloudStorageService;
+    private final StorageDeletionProps storageDeletionProps;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> inFlightImageKeys = new HashSet<>();
+    private final Set<String> cancelledImageKeys = new HashSet<>();
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public StorageDeletionService(PendingStorageDeletionRepository pendingStorageDeletionRepository,
+                                  CloudStorageService cloudStorageService,
+                                  PlatformTransactionManager transactionManager,
+                                  StorageDeletionProps storageDeletionProps) {
+        this.pendingStorageDeletionRepository = pendingStorageDeletionRepository;
+        this.cloudStorageService = cloudStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageDeletionProps = storageDeletionProps;
+    }
+
+    /**
+     * Queue files to be removed from the cloud storage once the current transaction commits.
+     *
+     * @param fileKeys file names.
+     * @param path     path to files on the CDN.
+     */
+    public void enqueueAll(Collection<String> fileKeys, StoragePath path) {
+        final LocalDateTime now = LocalDateTime.now();
+        this.pendingStorageDeletionRepository.saveAll(fileKeys.stream()
+                .map(fileKey -> PendingStorageDeletion.builder()
+                        .fileKey(fileKey)
+                        .path(path)
+                        .requestedOn(now)
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Cancel queued removal of an image file and its renditions, because the same content is uploaded again.
+     * Waits for a batch of this application instance that is removing these files already,
+     * so the uploaded file is never removed by it.
+     *
+     * @param imageKey image key.
+     */
+    public void cancelImageFiles(String imageKey) {
+        final String renditionKeyPrefix = ImageRendition.getKeyPrefix(imageKey);
+        this.pendingStorageDeletionRepository.deleteAllByFileKeyOrPrefix(StoragePath.IMAGE, imageKey, renditionKeyPrefix);
+
+        final Predicate<String> isImageFile = fileKey -> fileKey.equals(imageKey) || fileKey.startsWith(renditionKeyPrefix);
+        synchronized (this.inFlightImageKeys) {
+            this.inFlightImageKeys.stream().filter(isImageFile).forEach(this.cancelledImageKeys::add);
+            while (this.inFlightImageKeys.stream().anyMatch(isImageFile)) {
+                try {
+                    this.inFlightImageKeys.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest queued files from the cloud storage.
+     * No row stays locked while the cloud storage is called, so uploads never wait for the network round trip.
+     */
+    @Scheduled(fixedDelayString = "${application.storage.deletion.drain-interval-ms}")
+    public void drain() {
+        final int batchSize = Math.min(this.storageDeletionProps.getBatchSize(), CloudStorageService.MAX_REMOVE_BATCH_SIZE);
+        try {
+            final List<PendingStorageDeletion> deletions = this.transactionTemplate.execute(status -> this.claim(batchSize));
+            if (deletions == null || deletions.isEmpty()) {
+                return;
+            }
+
+            deletions.stream()
+                    .collect(Collectors.groupingBy(PendingStorageDeletion::getPath))
+                    .forEach((path, pathDeletions) -> {
+                        final Set<String> fileKeys = pathDeletions.stream()
+                                .map(PendingStorageDeletion::getFileKey)
+                                .collect(Collectors.toSet());
+                        Set<String> failedKeys;
+                        try {
+                            failedKeys = this.cloudStorageService.removeAll(fileKeys, path);
+                        } catch (RuntimeException e) {
+                            failedKeys = fileKeys;
+                        }
+                        this.retryAll(failedKeys, path);
+                    });
+        } finally {
+            synchronized (this.inFlightImageKeys) {
+                this.inFlightImageKeys.clear();
+                this.cancelledImageKeys.clear();
+                this.inFlightImageKeys.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Take the oldest queued files off the queue, the rows are locked only until the claiming transaction commits.
+     */
+    private List<PendingStorageDeletion> claim(int batchSize) {
+        final List<PendingStorageDeletion> deletions =
+                this.pendingStorageDeletionRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+        if (deletions.isEmpty()) {
+            return deletions;
+        }
+
+        this.pendingStorageDeletionRepository.deleteAllByIdIn(deletions.stream()
+                .map(PendingStorageDeletion::getId)
+                .collect(Collectors.toList()));
+        synchronized (this.inFlightImageKeys) {
+            deletions.stream()
+                    .filter(deletion -> deletion.getPath() == StoragePath.IMAGE)
+                    .forEach(deletion -> this.inFlightImageKeys.add(deletion.getFileKey()));
+        }
+        return deletions;
+    }
+
+    /**
+     * Queue files that could not be removed again at the end of the queue, unless their removal was cancelled meanwhile.
+     */
+    private void retryAll(Set<String> failedKeys, StoragePath path) {
+        if (failedKeys.isEmpty()) {
+            return;
+        }
+
+        final List<String> retriedKeys;
+        synchronized (this.inFlightImageKeys) {
+            retriedKeys = failedKeys.stream()
+                    .filter(fileKey -> path != StoragePath.IMAGE || !this.cancelledImageKeys.contains(fileKey))
+                    .collect(Collectors.toList());
+        }
+        this.enqueueAll(retriedKeys, path);
+    }
+}
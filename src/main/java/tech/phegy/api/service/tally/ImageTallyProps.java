@@ -0,0 +1,20 @@
+package tech.phegy.api.service.tally;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Live image tally configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.tally")
+public class ImageTallyProps {
+    /**
+     * Delay between two pushes of the tallies, votes for an image within it are pushed in a single message.
+     */
+    private long flushIntervalMs;
+}
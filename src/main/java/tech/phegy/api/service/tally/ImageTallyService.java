@@ -0,0 +1,77 @@
+package tech.phegy.api.service.tally;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tech.phegy.api.dto.image.response.ImageTallyResponseDto;
+import tech.phegy.api.model.ImageTallyView;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.websocket.WebSocketService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for pushing live vote totals of images to their websocket topics.
+ * Voted images are only marked as changed, the totals of all marked images are read with a single query
+ * and pushed once per flush interval, so a burst of votes for an image results in a few messages.
+ *
+ * @author Nikita
+ */
+@Service
+public class ImageTallyService {
+    private final ImageRepository imageRepository;
+    private final WebSocketService webSocketService;
+    private final Set<Long> changedImageIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageTallyService(ImageRepository imageRepository, WebSocketService webSocketService) {
+        this.imageRepository = imageRepository;
+        this.webSocketService = webSocketService;
+    }
+
+    /**
+     * Get websocket topic of the tally of an image.
+     *
+     * @param imageId image id.
+     * @return topic destination.
+     */
+    public static String getTopic(Long imageId) {
+        return "/topic/image/" + imageId + "/tally";
+    }
+
+    /**
+     * Mark images whose totals changed, to be pushed with the next flush.
+     *
+     * @param imageIds voted image ids.
+     */
+    public void markChanged(Collection<Long> imageIds) {
+        this.changedImageIds.addAll(imageIds);
+    }
+
+    /**
+     * Push the current totals of the images changed since the previous flush.
+     * Images marked while flushing are pushed with the next flush.
+     */
+    @Scheduled(fixedDelayString = "${application.image.tally.flush-interval-ms}")
+    public void flush() {
+        final List<Long> imageIds = new ArrayList<>();
+        for (Long imageId : this.changedImageIds) {
+            if (this.changedImageIds.remove(imageId)) {
+                imageIds.add(imageId);
+            }
+        }
+        if (imageIds.isEmpty()) {
+            return;
+        }
+
+        for (ImageTallyView tally : this.imageRepository.findAllTalliesByIdIn(imageIds)) {
+            this.webSocketService.send(getTopic(tally.getId()),
+                    new ImageTallyResponseDto(tally.getId(), tally.getTotalPoints(), tally.getVoteCount()));
+        }
+    }
+}
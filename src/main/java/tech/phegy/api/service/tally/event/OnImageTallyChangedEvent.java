@@ -0,0 +1,16 @@
+package tech.phegy.api.service.tally.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+
+@Getter
+public class OnImageTallyChangedEvent extends ApplicationEvent {
+    private final Collection<Long> imageIds;
+
+    public OnImageTallyChangedEvent(Object source, Collection<Long> imageIds) {
+        super(source);
+        this.imageIds = imageIds;
+    }
+}
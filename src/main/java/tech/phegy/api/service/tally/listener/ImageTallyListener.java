@@ -0,0 +1,23 @@
+package tech.phegy.api.service.tally.listener;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tech.phegy.api.service.tally.ImageTallyService;
+import tech.phegy.api.service.tally.event.OnImageTallyChangedEvent;
+
+@Component
+public class ImageTallyListener {
+    private final ImageTallyService imageTallyService;
+
+    public ImageTallyListener(ImageTallyService imageTallyService) {
+        this.imageTallyService = imageTallyService;
+    }
+
+    /**
+     * Mark after commit, so the pushed totals are read after the votes are visible.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageTallyChanged(OnImageTallyChangedEvent onImageTallyChangedEvent) {
+        this.imageTallyService.markChanged(onImageTallyChangedEvent.getImageIds());
+    }
+}
@@ -0,0 +1,37 @@
+package tech.phegy.api.service.validator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Uploaded image file configuration properties.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@ConfigurationProperties("application.image.file")
+public class ImageFileProps {
+    /**
+     * Accepted image formats, any of png, jpeg and gif.
+     */
+    private List<String> formats;
+
+    /**
+     * Maximum image width in pixels.
+     */
+    private int maxWidth;
+
+    /**
+     * Maximum image height in pixels.
+     */
+    private int maxHeight;
+
+    /**
+     * Maximum image width times height, limits the decoded raster of images within both maximum dimensions.
+     */
+    private long maxPixels;
+}
@@ -0,0 +1,112 @@
+package tech.phegy.api.service.validator;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import tech.phegy.api.exception.PhegyHttpException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Service for validating uploaded image files.
+ * Only the file header is read, pixels are never decoded.
+ *
+ * @author Nikita
+ */
+@Service
+public class ImageFileVerifier {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] GIF87_SIGNATURE = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89_SIGNATURE = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final int SIGNATURE_LENGTH = 8;
+
+    private final ImageFileProps imageFileProps;
+
+    /**
+     * Constructs new instance with needed dependencies.
+     */
+    public ImageFileVerifier(ImageFileProps imageFileProps) {
+        this.imageFileProps = imageFileProps;
+    }
+
+    /**
+     * Verify that an image file has an accepted format and dimensions.
+     * The format is detected from the magic bytes, the declared file name and content type are ignored.
+     *
+     * @param imageFile image file.
+     * @throws PhegyHttpException IMAGE_FORMAT_NOT_SUPPORTED if the format is unknown or not accepted.
+     * @throws PhegyHttpException IMAGE_FILE_INVALID if the image header can not be read.
+     * @throws PhegyHttpException IMAGE_DIMENSIONS_TOO_LARGE if the image is wider, higher or has more pixels than allowed.
+     */
+    public void verifyImageFile(Path imageFile) throws PhegyHttpException {
+        final String format = this.detectFormat(imageFile);
+        if (format == null || !this.imageFileProps.getFormats().contains(format)) {
+            throw new PhegyHttpException("IMAGE_FORMAT_NOT_SUPPORTED", HttpStatus.BAD_REQUEST);
+        }
+
+        final Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName(format);
+        if (!readers.hasNext()) {
+            throw new PhegyHttpException("IMAGE_FORMAT_NOT_SUPPORTED", HttpStatus.BAD_REQUEST);
+        }
+
+        final ImageReader reader = readers.next();
+        final int width;
+        final int height;
+        try (ImageInputStream imageStream = ImageIO.createImageInputStream(imageFile.toFile())) {
+            // seek forward only and skip metadata, the reader stops after the header
+            reader.setInput(imageStream, true, true);
+            width = reader.getWidth(0);
+            height = reader.getHeight(0);
+        } catch (IOException | RuntimeException e) {
+            throw new PhegyHttpException("IMAGE_FILE_INVALID", HttpStatus.BAD_REQUEST);
+        } finally {
+            reader.dispose();
+        }
+
+        if (width > this.imageFileProps.getMaxWidth()
+                || height > this.imageFileProps.getMaxHeight()
+                || (long) width * height > this.imageFileProps.getMaxPixels()) {
+            throw new PhegyHttpException("IMAGE_DIMENSIONS_TOO_LARGE", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Detect image format from the magic bytes of the file.
+     *
+     * @param imageFile image file.
+     * @return "png", "jpeg", "gif" or null if the format is unknown.
+     * @throws PhegyHttpException IMAGE_FILE_INVALID if the file can not be read.
+     */
+    public String detectFormat(Path imageFile) throws PhegyHttpException {
+        final byte[] signature = new byte[SIGNATURE_LENGTH];
+        final int length;
+        try (InputStream imageStream = Files.newInputStream(imageFile)) {
+            length = imageStream.readNBytes(signature, 0, SIGNATURE_LENGTH);
+        } catch (IOException e) {
+            throw new PhegyHttpException("IMAGE_FILE_INVALID", HttpStatus.BAD_REQUEST);
+        }
+
+        if (startsWith(signature, length, PNG_SIGNATURE)) {
+            return "png";
+        }
+        if (startsWith(signature, length, JPEG_SIGNATURE)) {
+            return "jpeg";
+        }
+        if (startsWith(signature, length, GIF87_SIGNATURE) || startsWith(signature, length, GIF89_SIGNATURE)) {
+            return "gif";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+        return length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,33 @@
+package tech.phegy.api.websocket;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.security.access.AccessDeniedException;
+
+/**
+ * Rejects client messages sent to any destination other than the application ones,
+ * so clients can not publish to broker topics and queues read by other clients.
+ */
+public class SendDestinationInterceptor implements ChannelInterceptor {
+    private final String applicationDestinationPrefix;
+
+    public SendDestinationInterceptor(String applicationDestinationPrefix) {
+        this.applicationDestinationPrefix = applicationDestinationPrefix;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        final String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(this.applicationDestinationPrefix)) {
+            throw new AccessDeniedException("WEBSOCKET_SEND_FORBIDDEN");
+        }
+        return message;
+    }
+}
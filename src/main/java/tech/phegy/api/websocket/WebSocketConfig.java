@@ -16,6 +16,8 @@ import tech.phegy.api.service.jwt.JwtProps;
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private static final String APPLICATION_DESTINATION_PREFIX = "/ws/";
+
     private final JwtService jwtService;
     private final JwtProps jwtConfig;
 
@@ -29,8 +31,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/queue");
-        registry.setApplicationDestinationPrefixes("/ws");
+        registry.enableSimpleBroker("/queue", "/topic");
+        registry.setApplicationDestinationPrefixes(APPLICATION_DESTINATION_PREFIX);
     }
 
     @Override
@@ -45,6 +47,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new AuthChannelInterceptor(jwtService, jwtConfig));
+        registration.interceptors(
+                new AuthChannelInterceptor(jwtService, jwtConfig),
+                new SendDestinationInterceptor(APPLICATION_DESTINATION_PREFIX));
     }
 }
@@ -41,4 +41,21 @@ public class WebSocketService {
 
         messagingTemplate.convertAndSendToUser(username ,destination, serializedPayload);
     }
+
+    /**
+     * Broadcast message to every subscriber of a topic via websockets.
+     *
+     * @param destination websocket topic path.
+     * @param payload message payload.
+     */
+    public void send(String destination, Object payload) {
+        String serializedPayload;
+        try {
+            serializedPayload = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return;
+        }
+
+        messagingTemplate.convertAndSend(destination, serializedPayload);
+    }
 }
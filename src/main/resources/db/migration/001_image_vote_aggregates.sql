@@ -0,0 +1,19 @@
+-- Denormalized vote aggregates on image, maintained by VoteService.
+alter table image
+    add column total_points double precision not null default 0,
+    add column vote_count bigint not null default 0,
+    add column last_voted_on datetime(6);
+
+update image i
+    join (select image_id,
+                 sum(points)       as total_points,
+                 count(*)          as vote_count,
+                 max(submitted_at) as last_voted_on
+          from vote
+          group by image_id) v on v.image_id = i.id
+set i.total_points  = v.total_points,
+    i.vote_count    = v.vote_count,
+    i.last_voted_on = v.last_voted_on;
+
+create index idx_image_total_points on image (total_points);
+create index idx_image_last_voted_on on image (last_voted_on);
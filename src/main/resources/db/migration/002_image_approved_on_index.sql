@@ -0,0 +1,2 @@
+-- Keyset pagination over (approved_on, id) for NEWEST / OLDEST image listings.
+create index idx_image_approved_on on image (approved_on);
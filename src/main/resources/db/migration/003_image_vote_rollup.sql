@@ -0,0 +1,24 @@
+-- Hourly vote rollup serving the top voted windows, maintained by ImageService.addVote.
+create table image_vote_rollup
+(
+    id         bigint           not null auto_increment,
+    image_id   bigint           not null,
+    bucket     datetime(6)      not null,
+    points_sum double precision not null,
+    vote_count bigint           not null,
+    primary key (id),
+    constraint uk_image_vote_rollup_image_bucket unique (image_id, bucket),
+    constraint fk_image_vote_rollup_image foreign key (image_id) references image (id) on delete cascade
+) engine = InnoDB;
+
+create index idx_image_vote_rollup_bucket on image_vote_rollup (bucket, image_id, points_sum);
+
+-- Backfill the retained window (application.vote.rollup-retention-days) from the raw votes.
+insert into image_vote_rollup (image_id, bucket, points_sum, vote_count)
+select image_id,
+       str_to_date(date_format(submitted_at, '%Y-%m-%d %H:00:00'), '%Y-%m-%d %H:%i:%s') as bucket,
+       sum(points),
+       count(*)
+from vote
+where submitted_at >= now() - interval 31 day
+group by image_id, bucket;
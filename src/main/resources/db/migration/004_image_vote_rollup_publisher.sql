@@ -0,0 +1,13 @@
+-- Denormalized publisher on the vote rollup, serving the publisher scoped top voted windows.
+alter table image_vote_rollup
+    add column publisher_id varchar(255);
+
+update image_vote_rollup r
+    join image i on i.id = r.image_id
+set r.publisher_id = i.publisher_id;
+
+alter table image_vote_rollup
+    modify publisher_id varchar(255) not null,
+    add constraint fk_image_vote_rollup_publisher foreign key (publisher_id) references user (id);
+
+create index idx_image_vote_rollup_publisher_bucket on image_vote_rollup (publisher_id, bucket, image_id, points_sum);
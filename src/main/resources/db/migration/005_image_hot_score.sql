@@ -0,0 +1,15 @@
+-- HOT ranking score on image, maintained by ImageService.addVote and ImageService.decayHotScores.
+alter table image
+    add column hot_score double precision not null default 0,
+    add column hot_score_decayed_on datetime(6);
+
+-- Backfill from the retained vote rollup, decayed with the default half life of 12 hours.
+update image i
+    join (select image_id,
+                 sum(points_sum * pow(0.5, timestampdiff(second, bucket, now()) / 43200)) as hot_score
+          from image_vote_rollup
+          group by image_id) r on r.image_id = i.id
+set i.hot_score            = r.hot_score,
+    i.hot_score_decayed_on = now();
+
+create index idx_image_hot_score on image (hot_score);
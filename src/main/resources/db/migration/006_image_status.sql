@@ -0,0 +1,4 @@
+-- Ingestion state of image files, maintained by ImageService.createImage and ImageIngestionService.
+-- Every existing image was uploaded synchronously, so it is already READY.
+alter table image
+    add column status varchar(16) not null default 'READY';
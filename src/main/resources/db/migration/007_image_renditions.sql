@@ -0,0 +1,4 @@
+-- Generated renditions of an image, e.g. '256.jpg,256.png', maintained by ImageRenditionService.
+-- Existing images have no renditions, clients fall back to the original image.
+alter table image
+    add column renditions varchar(255);
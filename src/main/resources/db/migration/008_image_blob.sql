@@ -0,0 +1,21 @@
+-- Content addressed image files shared by images with the same content, maintained by ImageService.
+-- Image keys become short enough to be indexed, so renditions can be updated by key.
+alter table image
+    modify image_key varchar(80) not null;
+
+create index idx_image_image_key on image (image_key);
+
+create table image_blob
+(
+    image_key       varchar(80) not null,
+    reference_count bigint      not null,
+    uploaded        bit         not null,
+    renditions      varchar(255),
+    primary key (image_key)
+) engine = InnoDB;
+
+-- Existing images were uploaded under random keys, so every key is referenced once, failed uploads are not uploaded.
+insert into image_blob (image_key, reference_count, uploaded, renditions)
+select image_key, count(*), max(status = 'READY'), max(renditions)
+from image
+group by image_key;
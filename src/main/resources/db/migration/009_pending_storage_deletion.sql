@@ -0,0 +1,14 @@
+-- Files waiting to be removed from the cloud storage, queued by ImageService and drained by StorageDeletionService.
+create table pending_storage_deletion
+(
+    id           bigint       not null auto_increment,
+    file_key     varchar(255) not null,
+    path         varchar(16)  not null,
+    requested_on datetime(6)  not null,
+    primary key (id)
+) engine = InnoDB;
+
+create index idx_pending_storage_deletion_requested_on on pending_storage_deletion (requested_on);
+
+-- cancelling the removal of uploaded content again seeks on the file key instead of scanning the queue
+create index idx_pending_storage_deletion_path_file_key on pending_storage_deletion (path, file_key);
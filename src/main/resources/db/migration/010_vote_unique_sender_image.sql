@@ -0,0 +1,21 @@
+-- One vote per user and image, enforced by the database instead of scanning the votes of the voter.
+-- Duplicate votes cast by concurrent requests are merged into the oldest one, keeping the transferred points.
+update vote v
+    join (select min(id) as id, sum(points) as points
+          from vote
+          group by sender_id, image_id
+          having count(*) > 1) d on d.id = v.id
+set v.points = d.points;
+
+delete v
+from vote v
+         join vote k on k.sender_id = v.sender_id and k.image_id = v.image_id and k.id < v.id;
+
+update image i
+    join (select image_id, count(*) as vote_count
+          from vote
+          group by image_id) v on v.image_id = i.id
+set i.vote_count = v.vote_count;
+
+alter table vote
+    add constraint uk_vote_sender_image unique (sender_id, image_id);
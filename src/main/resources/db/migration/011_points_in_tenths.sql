@@ -0,0 +1,26 @@
+-- Points are stored as whole tenths of a point instead of floating point numbers, e.g. 2.5 points become 25.
+-- Votes were rounded to tenths by the API, so the conversion is exact for them.
+update vote
+set points = round(points * 10);
+
+alter table vote
+    modify points bigint not null;
+
+update points_bag
+set points = round(points * 10);
+
+alter table points_bag
+    modify points bigint not null;
+
+update image_vote_rollup
+set points_sum = round(points_sum * 10);
+
+alter table image_vote_rollup
+    modify points_sum bigint not null;
+
+alter table image
+    modify total_points bigint not null default 0;
+
+-- Recount image totals from the votes, dropping drift accumulated by floating point additions.
+update image i
+set i.total_points = (select coalesce(sum(v.points), 0) from vote v where v.image_id = i.id);
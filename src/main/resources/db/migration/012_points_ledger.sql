@@ -0,0 +1,35 @@
+-- Append only points ledger, written by PointsBagService and VoteIngestionService with every points bag change.
+create table points_ledger_entry
+(
+    id         bigint       not null auto_increment,
+    user_id    varchar(255) not null,
+    points     bigint       not null,
+    type       varchar(16)  not null,
+    image_id   bigint,
+    created_on datetime(6)  not null,
+    primary key (id),
+    constraint fk_points_ledger_entry_user foreign key (user_id) references user (id)
+) engine = InnoDB;
+
+create index idx_points_ledger_entry_user_created_on on points_ledger_entry (user_id, created_on);
+create index idx_points_ledger_entry_user_id on points_ledger_entry (user_id, id);
+
+-- Balances materialized from the ledger by PointsLedgerService.takeSnapshots.
+create table points_balance_snapshot
+(
+    id            bigint       not null auto_increment,
+    user_id       varchar(255) not null,
+    points        bigint       not null,
+    last_entry_id bigint       not null,
+    taken_on      datetime(6)  not null,
+    primary key (id),
+    constraint fk_points_balance_snapshot_user foreign key (user_id) references user (id)
+) engine = InnoDB;
+
+create index idx_points_balance_snapshot_user_taken_on on points_balance_snapshot (user_id, taken_on);
+
+-- Open the ledger with the current balances, earlier changes were not recorded.
+insert into points_ledger_entry (user_id, points, type, image_id, created_on)
+select b.user_id, b.points, 'OPENING', null, now(6)
+from points_bag b
+where b.user_id is not null;
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.Map;
 
 public class TestUtils {
     public static <T> String json(T obj) throws JsonProcessingException {
@@ -12,4 +15,8 @@ public class TestUtils {
         ObjectWriter writer = mapper.writer().withDefaultPrettyPrinter();
         return writer.writeValueAsString(obj);
     }
+
+    public static <T> T projection(Class<T> projectionType, Map<String, Object> values) {
+        return new SpelAwareProxyProjectionFactory().createProjection(projectionType, values);
+    }
 }
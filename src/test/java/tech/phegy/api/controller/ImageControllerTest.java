@@ -1,5 +1,6 @@
 package tech.phegy.api.controller;
 
+import com.google.common.collect.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,25 +9,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import tech.phegy.api.dto.image.request.ImageDataDto;
+import tech.phegy.api.dto.image.request.ImageIdListDto;
 import tech.phegy.api.dto.image.filter.ImageOrderFilter;
 import tech.phegy.api.dto.image.filter.ImagePublishFilter;
 import tech.phegy.api.mapper.image.ImageMapper;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageStatus;
 import tech.phegy.api.model.user.PhegyRoleLevel;
 import tech.phegy.api.service.ImageService;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static tech.phegy.api.TestUtils.json;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -68,12 +74,48 @@ class ImageControllerTest {
                 .andExpect(status().isOk());
 
         ArgumentCaptor<PageRequest> pageArgumentCaptor = ArgumentCaptor.forClass(PageRequest.class);
-        verify(imageService).getImages(pageArgumentCaptor.capture(), eq(publishFilter), eq(orderFilter), eq(publisher), eq(principal));
+        verify(imageService).getImages(pageArgumentCaptor.capture(), eq(true), eq(publishFilter), eq(orderFilter), eq(publisher), eq(principal));
         assertThat(pageArgumentCaptor.getValue())
                 .matches(x -> x.getPageNumber() == page, "is correct page")
                 .matches(x -> x.getPageSize() == size, "is correct size");
     }
 
+    @Test
+    @DisplayName("Should get images after cursor")
+    void shouldGetImagesAfterCursor() throws Exception {
+        int size = 12;
+        String cursor = "cursor";
+
+        mvc.perform(get("/api/v1/image")
+                        .param("size", String.valueOf(size))
+                        .param("cursor", cursor))
+                .andExpect(status().isOk());
+
+        verify(imageService).getImagesAfter(cursor, size, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+        verify(imageService, never()).getImages(any(), anyBoolean(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should get images without total")
+    void shouldGetImagesWithoutTotal() throws Exception {
+        mvc.perform(get("/api/v1/image")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk());
+
+        verify(imageService).getImages(any(), eq(false), eq(ImagePublishFilter.APPROVED), eq(ImageOrderFilter.NEWEST), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("Should get images by ids")
+    void shouldGetImagesByIds() throws Exception {
+        mvc.perform(get("/api/v1/image")
+                        .param("ids", "3,1,2"))
+                .andExpect(status().isOk());
+
+        verify(imageService).getImagesByIds(Lists.newArrayList(3L, 1L, 2L), null);
+        verify(imageService, never()).getImages(any(), anyBoolean(), any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("Should post image")
     void shouldPostImage() throws Exception {
@@ -84,13 +126,17 @@ class ImageControllerTest {
         Image image = Image.builder().title(title).description(description).build();
 
         when(imageMapper.imageDataDtoToImage(any())).thenReturn(image);
+        when(imageService.createImage(any(), eq(image), eq(username)))
+                .thenReturn(Image.builder().id(1L).status(ImageStatus.UPLOADING).build());
 
         mvc.perform(multipart("/api/v1/image")
                         .file(imageFile)
                         .param("title", title)
                         .param("description", description)
                         .with(user(username)))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.status").value("UPLOADING"));
 
         ArgumentCaptor<ImageDataDto> dtoArgumentCaptor = ArgumentCaptor.forClass(ImageDataDto.class);
         verify(imageMapper).imageDataDtoToImage(dtoArgumentCaptor.capture());
@@ -101,6 +147,21 @@ class ImageControllerTest {
         verify(imageService).createImage(imageFile, image, username);
     }
 
+    @Test
+    @DisplayName("Should get image status")
+    void shouldGetImageStatus() throws Exception {
+        String username = "ivan";
+        Long imageId = 1L;
+
+        when(imageService.getImageStatus(imageId, username)).thenReturn(ImageStatus.READY);
+
+        mvc.perform(get("/api/v1/image/" + imageId + "/status")
+                        .with(user(username)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.status").value("READY"));
+    }
+
     @Test
     @DisplayName("Should approve image admin")
     void shouldApproveImageAdmin() throws Exception {
@@ -127,6 +188,39 @@ class ImageControllerTest {
         verify(imageService, never()).approveImage(anyLong(), anyString());
     }
 
+    @Test
+    @DisplayName("Should approve images admin")
+    void shouldApproveImagesAdmin() throws Exception {
+        String username = "ivan";
+        ImageIdListDto idList = new ImageIdListDto(Lists.newArrayList(1L, 2L, 3L));
+
+        when(imageService.approveImages(idList.getImageIds(), username)).thenReturn(Lists.newArrayList(1L, 3L));
+
+        mvc.perform(post("/api/v1/image/approve")
+                        .with(user(username)
+                                .roles(PhegyRoleLevel.ADMIN.toString()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(idList)))
+                .andExpect(status().isOk());
+
+        verify(imageService).approveImages(idList.getImageIds(), username);
+    }
+
+    @Test
+    @DisplayName("Should not allow reject images user")
+    void shouldNotAllowRejectImagesUser() throws Exception {
+        ImageIdListDto idList = new ImageIdListDto(Lists.newArrayList(1L, 2L, 3L));
+
+        mvc.perform(delete("/api/v1/image/reject")
+                        .with(user("ivan")
+                                .roles(PhegyRoleLevel.USER.toString()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(idList)))
+                .andExpect(status().isForbidden());
+
+        verify(imageService, never()).rejectImages(any(), anyString());
+    }
+
     @Test
     @DisplayName("Should reject image admin")
     void shouldRejectImageAdmin() throws Exception {
@@ -0,0 +1,59 @@
+package tech.phegy.api.dto.image.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.ImageView;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static tech.phegy.api.TestUtils.projection;
+
+class ImageCursorTest {
+
+    @Test
+    @DisplayName("Should encode and decode newest cursor")
+    void shouldEncodeAndDecodeNewestCursor() {
+        LocalDateTime approvedOn = LocalDateTime.now();
+        ImageView image = projection(ImageView.class, Map.of("id", 5L, "approvedOn", approvedOn));
+
+        String encoded = ImageCursor.after(ImageOrderFilter.NEWEST, image).encode();
+        ImageCursor actual = ImageCursor.decode(encoded);
+
+        assertThat(actual)
+                .matches(x -> x.getOrderFilter() == ImageOrderFilter.NEWEST, "order filter is set")
+                .matches(x -> x.getSortKeyAsDate().equals(approvedOn), "sort key is approved on")
+                .matches(x -> x.getId().equals(5L), "id is set");
+    }
+
+    @Test
+    @DisplayName("Should encode and decode most voted cursor")
+    void shouldEncodeAndDecodeMostVotedCursor() {
+        ImageView image = projection(ImageView.class, Map.of("id", 5L, "totalPoints", 125L));
+
+        String encoded = ImageCursor.after(ImageOrderFilter.MOST_VOTED, image).encode();
+        ImageCursor actual = ImageCursor.decode(encoded);
+
+        assertThat(actual)
+                .matches(x -> x.getOrderFilter() == ImageOrderFilter.MOST_VOTED, "order filter is set")
+                .matches(x -> x.getSortKeyAsNumber().equals(125L), "sort key is total points")
+                .matches(x -> x.getId().equals(5L), "id is set");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when cursor is invalid")
+    void shouldThrowExceptionWhenCursorIsInvalid() {
+        assertThatThrownBy(() -> ImageCursor.decode("not a cursor"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_CURSOR_INVALID");
+    }
+
+    @Test
+    @DisplayName("Should not support cursor for windowed orderings")
+    void shouldNotSupportCursorForWindowedOrderings() {
+        assertThat(ImageCursor.isSupported(ImageOrderFilter.TOP_VOTED_LAST_WEEK)).isFalse();
+    }
+}
@@ -6,18 +6,23 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import tech.phegy.api.dto.image.request.ImageDataDto;
 import tech.phegy.api.dto.image.response.ApprovalImageResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageRenditionResponseDto;
 import tech.phegy.api.dto.image.response.ImageResponseDto;
-import tech.phegy.api.model.points.Vote;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageView;
 import tech.phegy.api.model.user.PhegyUser;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static tech.phegy.api.TestUtils.projection;
 
 class ImageMapperImplTest {
     ImageMapperImpl imageMappr;
@@ -62,11 +67,7 @@ class ImageMapperImplTest {
         String publisherUsername = "username";
         PhegyUser publisher = PhegyUser.builder().username(publisherUsername).build();
         LocalDateTime publishedOn = LocalDateTime.now().minusHours(10);
-        Collection<Vote> votes = Lists.newArrayList(
-                Vote.builder().points(10d).build(),
-                Vote.builder().points(10d).build()
-        );
-        Double expectedPoints = 20d;
+        Long expectedPoints = 200L;
 
         Image image = Image.builder()
                 .id(id)
@@ -75,7 +76,7 @@ class ImageMapperImplTest {
                 .imageKey(imageKey)
                 .publisher(publisher)
                 .publishedOn(publishedOn)
-                .votes(votes)
+                .totalPoints(expectedPoints)
                 .build();
 
         ImageResponseDto actual = imageMappr.imageToImageResponseDto(image);
@@ -101,11 +102,7 @@ class ImageMapperImplTest {
         PhegyUser publisher = PhegyUser.builder().username(publisherUsername).build();
         LocalDateTime publishedOn = LocalDateTime.now().minusHours(10);
         LocalDateTime approvedOn = LocalDateTime.now().minusHours(1);
-        Collection<Vote> votes = Lists.newArrayList(
-                Vote.builder().points(10d).build(),
-                Vote.builder().points(10d).build()
-        );
-        Double expectedPoints = 20d;
+        Long expectedPoints = 200L;
 
         Image image = Image.builder()
                 .id(id)
@@ -115,7 +112,7 @@ class ImageMapperImplTest {
                 .publisher(publisher)
                 .publishedOn(publishedOn)
                 .approvedOn(approvedOn)
-                .votes(votes)
+                .totalPoints(expectedPoints)
                 .build();
 
         ImageResponseDto actual = imageMappr.imageToImageResponseDto(image);
@@ -130,6 +127,24 @@ class ImageMapperImplTest {
                 .matches(x -> x.getPoints().equals(expectedPoints), "points is set");
     }
 
+    @Test
+    @DisplayName("Should map image renditions to rendition keys")
+    void shouldMapImageRenditionsToRenditionKeys() {
+        Image image = Image.builder()
+                .id(1L)
+                .imageKey("uuid.png")
+                .renditions("256.jpg,256.png")
+                .build();
+
+        ImageResponseDto actual = imageMappr.imageToImageResponseDto(image);
+
+        assertThat(actual.getRenditions())
+                .extracting(ImageRenditionResponseDto::getImageKey)
+                .containsExactly("uuid-256.jpg", "uuid-256.png");
+        assertThat(actual.getRenditions())
+                .allMatch(x -> x.getSize() == 256, "size is set");
+    }
+
     @Test
     @DisplayName("Should map image to image response dto when null")
     void shouldMapImageToImageResponseDtoWhenNull() {
@@ -147,11 +162,7 @@ class ImageMapperImplTest {
         String publisherUsername = "username";
         PhegyUser publisher = PhegyUser.builder().username(publisherUsername).build();
         LocalDateTime publishedOn = LocalDateTime.now().minusHours(10);
-        Collection<Vote> votes = Lists.newArrayList(
-                Vote.builder().points(10d).build(),
-                Vote.builder().points(10d).build()
-        );
-        Double expectedPoints = 20d;
+        Long expectedPoints = 200L;
 
         Image image = Image.builder()
                 .id(id)
@@ -160,7 +171,7 @@ class ImageMapperImplTest {
                 .imageKey(imageKey)
                 .publisher(publisher)
                 .publishedOn(publishedOn)
-                .votes(votes)
+                .totalPoints(expectedPoints)
                 .build();
 
         ApprovalImageResponseDto actual = imageMappr.imageToApprovalImageResponseDto(image);
@@ -187,11 +198,7 @@ class ImageMapperImplTest {
         PhegyUser publisher = PhegyUser.builder().username(publisherUsername).build();
         LocalDateTime publishedOn = LocalDateTime.now().minusHours(10);
         LocalDateTime approvedOn = LocalDateTime.now().minusHours(1);
-        Collection<Vote> votes = Lists.newArrayList(
-                Vote.builder().points(10d).build(),
-                Vote.builder().points(10d).build()
-        );
-        Double expectedPoints = 20d;
+        Long expectedPoints = 200L;
 
         Image image = Image.builder()
                 .id(id)
@@ -201,7 +208,7 @@ class ImageMapperImplTest {
                 .publisher(publisher)
                 .publishedOn(publishedOn)
                 .approvedOn(approvedOn)
-                .votes(votes)
+                .totalPoints(expectedPoints)
                 .build();
 
         ApprovalImageResponseDto actual = imageMappr.imageToApprovalImageResponseDto(image);
@@ -224,14 +231,37 @@ class ImageMapperImplTest {
         assertThat(actual).isNull();
     }
 
+    @Test
+    @DisplayName("Should map image view to image response dto")
+    void shouldMapImageViewToImageResponseDto() {
+        LocalDateTime approvedOn = LocalDateTime.now().minusDays(1);
+        ImageView imageView = projection(ImageView.class, Map.of(
+                "id", 1L,
+                "title", "title",
+                "imageKey", "key.png",
+                "publisherUsername", "ivan",
+                "publishedOn", approvedOn.minusDays(1),
+                "approvedOn", approvedOn,
+                "totalPoints", 75L));
+
+        ApprovalImageResponseDto actual = imageMappr.imageViewToApprovalImageResponseDto(imageView);
+
+        assertThat(actual)
+                .matches(x -> x.getId().equals(1L), "id is set")
+                .matches(x -> x.getPublisherUsername().equals("ivan"), "publisher username is set")
+                .matches(x -> x.getPublishedOn().equals(approvedOn), "published on is approved on")
+                .matches(ApprovalImageResponseDto::isApproved, "is approved")
+                .matches(x -> x.getPoints().equals(75L), "points are set");
+    }
+
     @Test
     @DisplayName("Should create image page response dto when is publisher or admin")
     void shouldCreateImagePageResponseDtoWhenIsPublisherOrAdmin() {
         boolean isAdminOrModerator = true;
-        Page<Image> imagePage = new PageImpl<>(Lists.newArrayList(
-                Image.builder().build(),
-                Image.builder().build(),
-                Image.builder().build()
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList(
+                projection(ImageView.class, Map.of()),
+                projection(ImageView.class, Map.of()),
+                projection(ImageView.class, Map.of())
         ));
 
         ImagePageResponseDto imagePageResponseDto = imageMappr.createImagePageResponseDto(imagePage, isAdminOrModerator);
@@ -244,10 +274,10 @@ class ImageMapperImplTest {
     @DisplayName("Should create image page response dto when is not publisher or admin")
     void shouldCreateImagePageResponseDtoWhenIsNotPublisherOrAdmin() {
         boolean isAdminOrModerator = false;
-        Page<Image> imagePage = new PageImpl<>(Lists.newArrayList(
-                Image.builder().build(),
-                Image.builder().build(),
-                Image.builder().build()
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList(
+                projection(ImageView.class, Map.of()),
+                projection(ImageView.class, Map.of()),
+                projection(ImageView.class, Map.of())
         ));
 
         ImagePageResponseDto imagePageResponseDto = imageMappr.createImagePageResponseDto(imagePage, isAdminOrModerator);
@@ -256,6 +286,21 @@ class ImageMapperImplTest {
                 .matches(x -> x.getTotalCount() == 3, "is correct image count");
     }
 
+    @Test
+    @DisplayName("Should create image page response dto from slice")
+    void shouldCreateImagePageResponseDtoFromSlice() {
+        Slice<ImageView> imageSlice = new SliceImpl<>(
+                Lists.newArrayList(projection(ImageView.class, Map.of()), projection(ImageView.class, Map.of())),
+                PageRequest.of(0, 2),
+                true);
+
+        ImagePageResponseDto imagePageResponseDto = imageMappr.createImagePageResponseDto(imageSlice, false);
+
+        assertThat(imagePageResponseDto.getTotalCount()).isNull();
+        assertThat(imagePageResponseDto.isHasNext()).isTrue();
+        assertThat(imagePageResponseDto.getImages()).hasSize(2);
+    }
+
     @Test
     @DisplayName("Should create image page response dto when null")
     void shouldCreateImagePageResponseDtoWhenNull() {
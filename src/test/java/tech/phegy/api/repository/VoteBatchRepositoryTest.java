@@ -0,0 +1,94 @@
+package tech.phegy.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tech.phegy.api.model.points.QueuedVote;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VoteBatchRepositoryTest {
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    VoteBatchRepository voteBatchRepository;
+
+    final UUID voterId = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    final UUID publisherId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    final LocalDateTime submittedAt = LocalDateTime.of(2021, 5, 1, 12, 30);
+
+    @BeforeEach
+    void setUp() {
+        voteBatchRepository = new VoteBatchRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should insert votes ignoring skipped rows and return the update count of every vote")
+    void shouldInsertVotesIgnoringSkippedRows() {
+        // insert ignore skips duplicate votes and votes violating the image foreign key alike
+        when(jdbcTemplate.batchUpdate(startsWith("insert ignore into vote"), anyList())).thenReturn(new int[]{1, 0});
+
+        final int[] inserted = voteBatchRepository.insertAll(List.of(
+                new QueuedVote(1, voterId, publisherId, 1L, 50L, submittedAt),
+                new QueuedVote(2, voterId, publisherId, 2L, 30L, submittedAt)));
+
+        assertThat(inserted).containsExactly(1, 0);
+        assertThat(batchArgs())
+                .containsExactly(
+                        new Object[]{Timestamp.valueOf(submittedAt), 50L, voterId.toString(), 1L},
+                        new Object[]{Timestamp.valueOf(submittedAt), 30L, voterId.toString(), 2L});
+    }
+
+    @Test
+    @DisplayName("Should deposit points in the order of the user ids")
+    void shouldDepositPointsInTheOrderOfTheUserIds() {
+        voteBatchRepository.depositAll(Map.of(voterId, 20L, publisherId, 50L));
+
+        assertThat(batchArgs())
+                .containsExactly(
+                        new Object[]{50L, publisherId.toString()},
+                        new Object[]{20L, voterId.toString()});
+    }
+
+    @Test
+    @DisplayName("Should update every image once with the sum of its votes")
+    void shouldUpdateEveryImageOnceWithTheSumOfItsVotes() {
+        final LocalDateTime laterSubmittedAt = submittedAt.plusMinutes(5);
+        final Timestamp votedOn = Timestamp.valueOf(laterSubmittedAt);
+        final Timestamp otherVotedOn = Timestamp.valueOf(submittedAt);
+
+        voteBatchRepository.addAllToImages(List.of(
+                new QueuedVote(1, voterId, publisherId, 2L, 50L, submittedAt),
+                new QueuedVote(2, voterId, publisherId, 1L, 30L, submittedAt),
+                new QueuedVote(3, publisherId, voterId, 2L, 20L, laterSubmittedAt)), 3600L);
+
+        assertThat(batchArgs())
+                .containsExactly(
+                        new Object[]{30L, 1, otherVotedOn, otherVotedOn, otherVotedOn, 3600L, 3.0, otherVotedOn, 1L},
+                        new Object[]{70L, 2, votedOn, votedOn, votedOn, 3600L, 7.0, votedOn, 2L});
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> batchArgs() {
+        final ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        return args.getValue();
+    }
+}
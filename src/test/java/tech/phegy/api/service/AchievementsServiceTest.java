@@ -33,8 +33,8 @@ class AchievementsServiceTest {
     void shouldGetAllAchievementsCorrectly() {
         String username = "ivan";
         Long imagesCount = 3L;
-        Double pointsReceived = 23d;
-        Double pointsSent = 11d;
+        long pointsReceived = 235L;
+        long pointsSent = 110L;
 
         when(imageService.getImagesCount(username)).thenReturn(imagesCount);
         when(voteService.getPointsReceivedBy(username)).thenReturn(pointsReceived);
@@ -46,8 +46,8 @@ class AchievementsServiceTest {
         assertThat(achievementList.getUsername()).isEqualTo(username);
         assertThat(achievementList.getAchievements())
                 .anyMatch(x -> x.getName().equals("Качени снимки") && x.getValue().equals(imagesCount.toString()))
-                .anyMatch(x -> x.getName().equals("Получени точки") && x.getValue().equals(pointsReceived.toString()))
-                .anyMatch(x -> x.getName().equals("Изпратени точки") && x.getValue().equals(pointsSent.toString()));
+                .anyMatch(x -> x.getName().equals("Получени точки") && x.getValue().equals("23.5"))
+                .anyMatch(x -> x.getName().equals("Изпратени точки") && x.getValue().equals("11.0"));
     }
 
     @Test
@@ -1,9 +1,15 @@
 package tech.phegy.api.service;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class HashingServiceTest {
@@ -30,4 +36,16 @@ class HashingServiceTest {
 
         assertThat(hashed1).isNotEqualTo(hashed2);
     }
+
+    @Test
+    @DisplayName("Should hash copied content like the same string")
+    void shouldHashCopiedContentLikeTheSameString() throws IOException {
+        String content = "image content";
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        String hashed = hashingService.hashCopy(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), target);
+
+        assertThat(hashed).isEqualTo(hashingService.hashString(content));
+        assertThat(target.toString(StandardCharsets.UTF_8)).isEqualTo(content);
+    }
 }
@@ -9,62 +9,133 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.multipart.MultipartFile;
+import tech.phegy.api.dto.image.filter.ImageCursor;
+import tech.phegy.api.dto.image.response.ApprovalImageResponseDto;
+import tech.phegy.api.dto.image.response.ImageListResponseDto;
 import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageResponseDto;
 import tech.phegy.api.dto.image.filter.ImageOrderFilter;
 import tech.phegy.api.dto.image.filter.ImagePublishFilter;
 import tech.phegy.api.exception.PhegyHttpException;
 import tech.phegy.api.mapper.image.ImageMapper;
 import tech.phegy.api.model.Image;
+import tech.phegy.api.model.ImageBlob;
+import tech.phegy.api.model.ImageStatus;
+import tech.phegy.api.model.ImageView;
+import tech.phegy.api.model.notification.Notification;
+import tech.phegy.api.model.points.VotedImageView;
 import tech.phegy.api.model.user.PhegyRole;
 import tech.phegy.api.model.user.PhegyRoleLevel;
 import tech.phegy.api.model.user.PhegyUser;
+import tech.phegy.api.repository.ImageBlobRepository;
 import tech.phegy.api.repository.ImageRepository;
-import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.repository.ImageVoteRollupRepository;
+import tech.phegy.api.repository.VoteRepository;
+import tech.phegy.api.service.moderation.ModerationProps;
+import tech.phegy.api.service.feed.ImageCountCache;
+import tech.phegy.api.service.feed.ImageFeedCache;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.ImageFeedCacheProps;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+import tech.phegy.api.service.leaderboard.LeaderboardScore;
+import tech.phegy.api.service.leaderboard.event.OnLeaderboardChangedEvent;
+import tech.phegy.api.service.ingestion.ImageIngestionService;
+import tech.phegy.api.service.ingestion.SpooledImage;
+import tech.phegy.api.service.ingestion.event.OnImageUploadRequestedEvent;
+import tech.phegy.api.service.points.VoteProps;
+import tech.phegy.api.service.storage.StorageDeletionService;
 import tech.phegy.api.service.storage.StoragePath;
+import tech.phegy.api.service.validator.ImageFileVerifier;
 import tech.phegy.api.service.validator.ModelValidatorService;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static tech.phegy.api.TestUtils.projection;
 
 @ExtendWith(MockitoExtension.class)
 class ImageServiceTest {
     @Mock
     ImageRepository imageRepository;
     @Mock
+    ImageVoteRollupRepository imageVoteRollupRepository;
+    @Mock
+    ImageBlobRepository imageBlobRepository;
+    @Mock
+    VoteRepository voteRepository;
+    @Mock
     PhegyUserService userService;
     @Mock
-    CloudStorageService cloudStorageService;
+    StorageDeletionService storageDeletionService;
+    @Mock
+    ImageIngestionService imageIngestionService;
     @Mock
     NotificationService notificationService;
     @Mock
     ModelValidatorService modelValidatorService;
     @Mock
+    ImageFileVerifier imageFileVerifier;
+    @Mock
     ImageMapper imageMapper;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    VoteProps voteProps = new VoteProps(100L, 10L, 31, "0 0 4 * * *", 20);
+    HotScoreProps hotScoreProps = new HotScoreProps(12d, 1d, 0.01, 600000L);
+    ImageFeedCache imageFeedCache;
+    ImageCountCache imageCountCache;
 
     ImageService imageService;
 
     @BeforeEach
     void setUp() {
+        ImageFeedCacheProps imageFeedCacheProps = new ImageFeedCacheProps(100L, 60L, 5, 300L);
+        imageFeedCache = new ImageFeedCache(imageFeedCacheProps);
+        imageCountCache = new ImageCountCache(imageFeedCacheProps);
         imageService = new ImageService(
                 imageRepository,
+                imageVoteRollupRepository,
+                imageBlobRepository,
+                voteRepository,
                 userService,
-                cloudStorageService,
+                storageDeletionService,
+                imageIngestionService,
                 notificationService,
                 modelValidatorService,
-                imageMapper
+                imageFileVerifier,
+                imageMapper,
+                voteProps,
+                imageFeedCache,
+                imageCountCache,
+                new ModerationProps(2),
+                hotScoreProps,
+                eventPublisher
         );
     }
 
@@ -89,7 +160,7 @@ class ImageServiceTest {
         String publisherUsername = null;
         String principalUsername = null;
 
-        Page<Image> imagePage = new PageImpl<>(Lists.newArrayList());
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
         ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder().build();
 
         when(userService.getUserByUsername(principalUsername)).thenThrow(UsernameNotFoundException.class);
@@ -101,6 +172,217 @@ class ImageServiceTest {
         assertThat(actual).isEqualTo(imagePageResponseDto);
     }
 
+    @Test
+    @DisplayName("Should serve anonymous approved images from feed cache")
+    void shouldServeAnonymousApprovedImagesFromFeedCache() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder().build();
+
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(imagePageResponseDto);
+
+        ImagePageResponseDto first = imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+        ImagePageResponseDto second = imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+
+        assertThat(first).isEqualTo(imagePageResponseDto);
+        assertThat(second).isEqualTo(imagePageResponseDto);
+        verify(imageRepository, times(1)).findAllByApprovedOnNotNull(any());
+    }
+
+    @Test
+    @DisplayName("Should not cache approved images for authenticated user")
+    void shouldNotCacheApprovedImagesForAuthenticatedUser() {
+        String principalUsername = "username";
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder().build();
+
+        when(userService.getUserByUsername(principalUsername)).thenThrow(UsernameNotFoundException.class);
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(imagePageResponseDto);
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, principalUsername);
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, principalUsername);
+
+        verify(imageRepository, times(2)).findAllByApprovedOnNotNull(any());
+    }
+
+    @Test
+    @DisplayName("Should get approved images without total using approximate count")
+    void shouldGetApprovedImagesWithoutTotalUsingApproximateCount() {
+        String principalUsername = "username";
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<ImageView> imageSlice = new SliceImpl<>(Lists.newArrayList());
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder().build();
+
+        when(imageRepository.findSliceByApprovedOnNotNull(any())).thenReturn(imageSlice);
+        when(imageRepository.countByApprovedOnNotNull()).thenReturn(42L);
+        when(imageMapper.createImagePageResponseDto(imageSlice, false)).thenReturn(imagePageResponseDto);
+
+        imageService.getImages(pageRequest, false, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, principalUsername);
+        ImagePageResponseDto actual = imageService.getImages(pageRequest, false, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, principalUsername);
+
+        assertThat(actual.getTotalCount()).isEqualTo(42L);
+        verify(imageRepository, times(1)).countByApprovedOnNotNull();
+        verify(imageRepository, never()).findAllByApprovedOnNotNull(any());
+    }
+
+    @Test
+    @DisplayName("Should mark images voted by principal with a single query")
+    void shouldMarkImagesVotedByPrincipalWithASingleQuery() {
+        String principalUsername = "username";
+        PhegyUser principal = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(principalUsername)
+                .roles(Lists.newArrayList())
+                .build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+        ImageResponseDto voted = ImageResponseDto.builder().id(1L).build();
+        ImageResponseDto notVoted = ImageResponseDto.builder().id(2L).build();
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder()
+                .images(Lists.newArrayList(voted, notVoted))
+                .build();
+
+        when(userService.getUserByUsername(principalUsername)).thenReturn(principal);
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(imagePageResponseDto);
+        when(voteRepository.findAllVotedByVoterIdAndImageIdIn(principal.getId(), List.of(1L, 2L)))
+                .thenReturn(List.of(projection(VotedImageView.class, Map.of("imageId", 1L, "points", 50L))));
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, principalUsername);
+
+        assertThat(voted)
+                .matches(x -> x.getVotedByMe(), "is voted by principal")
+                .matches(x -> x.getMyPoints().equals(50L), "has principal points");
+        assertThat(notVoted)
+                .matches(x -> !x.getVotedByMe(), "is not voted by principal")
+                .matches(x -> x.getMyPoints() == null, "has no principal points");
+        verify(voteRepository, times(1)).findAllVotedByVoterIdAndImageIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not mark images voted for anonymous user")
+    void shouldNotMarkImagesVotedForAnonymousUser() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+        ImageResponseDto image = ImageResponseDto.builder().id(1L).build();
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder()
+                .images(Lists.newArrayList(image))
+                .build();
+
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(imagePageResponseDto);
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+
+        assertThat(image.getVotedByMe()).isNull();
+        verify(voteRepository, never()).findAllVotedByVoterIdAndImageIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should get images by ids in requested order")
+    void shouldGetImagesByIdsInRequestedOrder() {
+        List<Long> imageIds = Lists.newArrayList(3L, 1L);
+        ImageView first = projection(ImageView.class, Map.of("id", 1L, "publisherUsername", "ivan"));
+        ImageView third = projection(ImageView.class, Map.of("id", 3L, "publisherUsername", "ivan"));
+        ImageResponseDto firstDto = ImageResponseDto.builder().id(1L).build();
+        ImageResponseDto thirdDto = ImageResponseDto.builder().id(3L).build();
+
+        when(imageRepository.findAllVisibleByIdIn(imageIds, null, false)).thenReturn(Lists.newArrayList(first, third));
+        when(imageMapper.imageViewToImageResponseDto(first)).thenReturn(firstDto);
+        when(imageMapper.imageViewToImageResponseDto(third)).thenReturn(thirdDto);
+
+        ImageListResponseDto actual = imageService.getImagesByIds(imageIds, null);
+
+        assertThat(actual.getImages()).containsExactly(thirdDto, firstDto);
+        verify(userService, never()).getUserByUsername(any());
+    }
+
+    @Test
+    @DisplayName("Should get pending images by ids for admin")
+    void shouldGetPendingImagesByIdsForAdmin() {
+        String username = "admin";
+        PhegyUser admin = PhegyUser.builder()
+                .username(username)
+                .roles(Lists.newArrayList(PhegyRole.builder().level(PhegyRoleLevel.ADMIN).build()))
+                .build();
+        List<Long> imageIds = Lists.newArrayList(1L);
+        ImageView image = projection(ImageView.class, Map.of("id", 1L, "publisherUsername", "ivan"));
+        ApprovalImageResponseDto imageDto = ApprovalImageResponseDto.builder().id(1L).build();
+
+        when(userService.getUserByUsername(username)).thenReturn(admin);
+        when(imageRepository.findAllVisibleByIdIn(imageIds, username, true)).thenReturn(Lists.newArrayList(image));
+        when(imageMapper.imageViewToApprovalImageResponseDto(image)).thenReturn(imageDto);
+
+        ImageListResponseDto actual = imageService.getImagesByIds(imageIds, username);
+
+        assertThat(actual.getImages()).containsExactly(imageDto);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when too many image ids requested")
+    void shouldThrowExceptionWhenTooManyImageIdsRequested() {
+        List<Long> imageIds = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+        assertThatThrownBy(() -> imageService.getImagesByIds(imageIds, null))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_IDS_TOO_MANY");
+        verifyNoInteractions(imageRepository);
+    }
+
+    @Test
+    @DisplayName("Should get approved images after cursor correctly")
+    void shouldGetApprovedImagesAfterCursorCorrectly() {
+        LocalDateTime approvedOn = LocalDateTime.now();
+        String cursor = new ImageCursor(ImageOrderFilter.NEWEST, approvedOn.toString(), 10L).encode();
+        List<ImageView> images = Lists.newArrayList(
+                projection(ImageView.class, Map.of("id", 9L, "approvedOn", approvedOn.minusHours(1))),
+                projection(ImageView.class, Map.of("id", 8L, "approvedOn", approvedOn.minusHours(2))),
+                projection(ImageView.class, Map.of("id", 7L, "approvedOn", approvedOn.minusHours(3)))
+        );
+        ImagePageResponseDto imagePageResponseDto = ImagePageResponseDto.builder().build();
+
+        when(userService.getUserByUsername(null)).thenThrow(UsernameNotFoundException.class);
+        when(imageRepository.findAllApprovedNewestAfter(null, approvedOn, 10L, PageRequest.of(0, 3))).thenReturn(images);
+        when(imageMapper.createImagePageResponseDto(any(), eq(false))).thenReturn(imagePageResponseDto);
+
+        ImagePageResponseDto actual = imageService.getImagesAfter(
+                cursor, 2, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+
+        assertThat(actual).isEqualTo(imagePageResponseDto);
+        assertThat(ImageCursor.decode(actual.getNextCursor()))
+                .matches(x -> x.getId().equals(8L), "next cursor points after the last returned image");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when cursor order filter does not match")
+    void shouldThrowExceptionWhenCursorOrderFilterDoesNotMatch() {
+        String cursor = new ImageCursor(ImageOrderFilter.NEWEST, LocalDateTime.now().toString(), 10L).encode();
+
+        assertThatThrownBy(() -> imageService.getImagesAfter(
+                cursor, 2, ImagePublishFilter.APPROVED, ImageOrderFilter.OLDEST, null, null))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_CURSOR_INVALID");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when cursor page size is invalid")
+    void shouldThrowExceptionWhenCursorPageSizeIsInvalid() {
+        String cursor = new ImageCursor(ImageOrderFilter.NEWEST, LocalDateTime.now().toString(), 10L).encode();
+
+        assertThatThrownBy(() -> imageService.getImagesAfter(
+                cursor, Integer.MAX_VALUE, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_PAGE_SIZE_INVALID");
+        assertThatThrownBy(() -> imageService.getImagesAfter(
+                cursor, 0, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_PAGE_SIZE_INVALID");
+        verifyNoInteractions(imageRepository);
+    }
+
     @Test
     @DisplayName("Should get approved image without principal correctly")
     void shouldGetApprovedImageWithoutPrincipalCorrectly() {
@@ -231,7 +513,7 @@ class ImageServiceTest {
     @DisplayName("Should create image successfully")
     void shouldCreateImageSuccessfully() throws IOException {
         MultipartFile imageFile = Mockito.mock(MultipartFile.class);
-        byte[] imageBytes = new byte[10];
+        SpooledImage spooledImage = new SpooledImage(Paths.get("phegy-image.upload"), 10L, "hash", "png");
         Image image = Image.builder().build();
         String username = "username";
         PhegyUser user = PhegyUser.builder()
@@ -240,25 +522,73 @@ class ImageServiceTest {
                 .build();
 
         when(userService.getConfirmedUser(username)).thenReturn(user);
-        when(imageFile.getBytes()).thenReturn(imageBytes);
+        when(imageIngestionService.spool(imageFile)).thenReturn(spooledImage);
+        when(imageBlobRepository.findById("hash.png"))
+                .thenReturn(Optional.of(ImageBlob.builder().imageKey("hash.png").referenceCount(1L).build()));
 
-        imageService.createImage(imageFile, image, username);
+        Image actual = imageService.createImage(imageFile, image, username);
 
+        verify(imageBlobRepository).acquire("hash.png");
         ArgumentCaptor<Image> imageArgumentCaptor = ArgumentCaptor.forClass(Image.class);
         verify(imageRepository).save(imageArgumentCaptor.capture());
         Image caputredImage = imageArgumentCaptor.getValue();
 
         assertThat(caputredImage)
+                .isSameAs(actual)
                 .matches(x -> x.getId() == null, "id is null")
+                .matches(x -> x.getImageKey().equals("hash.png"), "image key is content addressed")
+                .matches(x -> x.getStatus() == ImageStatus.UPLOADING, "is uploading")
                 .matches(x -> x.getApprovedBy() == null, "approved by is null")
                 .matches(x -> x.getApprovedOn() == null, "approved on is null")
                 .matches(x -> x.getPublisher().equals(user), "is correct publisher")
                 .matches(x -> x.getPublishedOn().isBefore(LocalDateTime.now()), "is published before now");
 
-        verify(cloudStorageService).upload(imageBytes, caputredImage.getImageKey(), StoragePath.IMAGE);
+        ArgumentCaptor<OnImageUploadRequestedEvent> eventArgumentCaptor = ArgumentCaptor.forClass(OnImageUploadRequestedEvent.class);
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        assertThat(eventArgumentCaptor.getValue())
+                .matches(x -> x.getImageKey().equals("hash.png"), "is correct image key")
+                .matches(x -> x.getPublisherUsername().equals(username), "is correct publisher")
+                .matches(x -> x.getFile().equals(spooledImage.getFile()), "is spooled file")
+                .matches(x -> x.getSize() == 10L, "is correct size");
+
+        verify(storageDeletionService).cancelImageFiles("hash.png");
+        verify(imageIngestionService, never()).discard(any());
         verify(modelValidatorService).validate(caputredImage);
     }
 
+    @Test
+    @DisplayName("Should share already uploaded image file")
+    void shouldShareAlreadyUploadedImageFile() throws IOException {
+        MultipartFile imageFile = Mockito.mock(MultipartFile.class);
+        SpooledImage spooledImage = new SpooledImage(Paths.get("phegy-image.upload"), 10L, "hash", "png");
+        Image image = Image.builder().build();
+        String username = "username";
+        PhegyUser user = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .build();
+        ImageBlob imageBlob = ImageBlob.builder()
+                .imageKey("hash.png")
+                .referenceCount(2L)
+                .uploaded(true)
+                .renditions("256.jpg")
+                .build();
+
+        when(userService.getConfirmedUser(username)).thenReturn(user);
+        when(imageIngestionService.spool(imageFile)).thenReturn(spooledImage);
+        when(imageBlobRepository.findById("hash.png")).thenReturn(Optional.of(imageBlob));
+
+        Image actual = imageService.createImage(imageFile, image, username);
+
+        assertThat(actual)
+                .matches(x -> x.getImageKey().equals("hash.png"), "image key is content addressed")
+                .matches(x -> x.getStatus() == ImageStatus.READY, "is ready")
+                .matches(x -> x.getRenditions().equals("256.jpg"), "renditions are shared");
+        verify(imageRepository).save(actual);
+        verify(imageIngestionService).discard(spooledImage.getFile());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     @DisplayName("Should throw exception when can not read image bytes")
     void shouldThrowExceptionWhenCanNotReadImageBytes() throws IOException {
@@ -271,21 +601,23 @@ class ImageServiceTest {
                 .build();
 
         when(userService.getConfirmedUser(username)).thenReturn(user);
-        when(imageFile.getBytes()).thenThrow(IOException.class);
+        when(imageIngestionService.spool(imageFile)).thenThrow(IOException.class);
 
         assertThatThrownBy(() -> imageService.createImage(imageFile, image, username))
                 .isInstanceOf(PhegyHttpException.class)
                 .hasMessage("CAN_NOT_READ_IMAGE_BYTES");
 
-        verify(cloudStorageService, never()).upload(any(), any(), any());
         verify(modelValidatorService, never()).validate(any(Image.class));
+        verify(imageBlobRepository, never()).acquire(any());
         verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
     
     @Test
-    @DisplayName("Should throw exception when can not save image")
-    void shouldThrowExceptionWhenCanNotSaveImage() throws IOException {
+    @DisplayName("Should discard spooled image file when image is invalid")
+    void shouldDiscardSpooledImageFileWhenImageIsInvalid() throws IOException {
         MultipartFile imageFile = Mockito.mock(MultipartFile.class);
+        SpooledImage spooledImage = new SpooledImage(Paths.get("phegy-image.upload"), 10L, "hash", "png");
         Image image = Image.builder().build();
         String username = "username";
         PhegyUser user = PhegyUser.builder()
@@ -294,14 +626,64 @@ class ImageServiceTest {
                 .build();
 
         when(userService.getConfirmedUser(username)).thenReturn(user);
-        when(imageFile.getBytes()).thenReturn(new byte[10]);
-        doThrow(PhegyHttpException.class).when(cloudStorageService).upload(any(), anyString(), any());
+        when(imageIngestionService.spool(imageFile)).thenReturn(spooledImage);
+        doThrow(PhegyHttpException.class).when(modelValidatorService).validate(any(Image.class));
 
         assertThatThrownBy(() -> imageService.createImage(imageFile, image, username))
                 .isInstanceOf(PhegyHttpException.class);
 
-        verify(modelValidatorService, never()).validate(any(Image.class));
+        verify(imageIngestionService).discard(spooledImage.getFile());
+        verify(imageBlobRepository, never()).acquire(any());
         verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should not store image file with unsupported format")
+    void shouldNotStoreImageFileWithUnsupportedFormat() throws IOException {
+        MultipartFile imageFile = Mockito.mock(MultipartFile.class);
+        SpooledImage spooledImage = new SpooledImage(Paths.get("phegy-image.upload"), 10L, "hash", "png");
+        Image image = Image.builder().title("title").build();
+        String username = "username";
+        PhegyUser user = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .build();
+
+        when(userService.getConfirmedUser(username)).thenReturn(user);
+        when(imageIngestionService.spool(imageFile)).thenReturn(spooledImage);
+        doThrow(new PhegyHttpException("IMAGE_FORMAT_NOT_SUPPORTED", HttpStatus.BAD_REQUEST))
+                .when(imageFileVerifier).verifyImageFile(spooledImage.getFile());
+
+        assertThatThrownBy(() -> imageService.createImage(imageFile, image, username))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_FORMAT_NOT_SUPPORTED");
+
+        verify(imageIngestionService).discard(spooledImage.getFile());
+        verify(imageBlobRepository, never()).acquire(any());
+        verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should get image status")
+    void shouldGetImageStatus() {
+        Long imageId = 1L;
+        String username = "username";
+        PhegyUser user = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .build();
+        Image image = Image.builder()
+                .id(imageId)
+                .publisher(user)
+                .status(ImageStatus.UPLOADING)
+                .build();
+
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+        when(userService.getUserByUsername(username)).thenReturn(user);
+
+        assertThat(imageService.getImageStatus(imageId, username)).isEqualTo(ImageStatus.UPLOADING);
     }
 
     @Test
@@ -330,9 +712,11 @@ class ImageServiceTest {
 
         ArgumentCaptor<Image> imageArgumentCaptor = ArgumentCaptor.forClass(Image.class);
         verify(imageRepository).save(imageArgumentCaptor.capture());
+        verify(eventPublisher).publishEvent(any(OnImageFeedChangedEvent.class));
         assertThat(imageArgumentCaptor.getValue())
                 .matches(x -> x.getApprovedBy().equals(admin), "approved by is set")
-                .matches(x -> x.getApprovedOn().isBefore(LocalDateTime.now()), "approved on date is set");
+                .matches(x -> x.getApprovedOn().isBefore(LocalDateTime.now()), "approved on date is set")
+                .matches(x -> x.getHotScore() == 1d, "hot score is seeded");
 
         ArgumentCaptor<PhegyUser> publisherArgumetCapture = ArgumentCaptor.forClass(PhegyUser.class);
         verify(notificationService).pushNotificationTo(any(), publisherArgumetCapture.capture());
@@ -362,6 +746,31 @@ class ImageServiceTest {
                 .hasMessage("IMAGE_ALREADY_APPROVED");
     }
 
+    @Test
+    @DisplayName("Should throw exception when approve image not uploaded yet")
+    void shouldThrowExceptionWhenApproveImageNotUploadedYet() {
+        String username = "username";
+        PhegyRole role = PhegyRole.builder().level(PhegyRoleLevel.ADMIN).build();
+        PhegyUser admin = PhegyUser.builder()
+                .username(username)
+                .roles(Lists.newArrayList(role))
+                .build();
+        Long imageId = 1L;
+        Image image = Image.builder()
+                .id(imageId)
+                .status(ImageStatus.UPLOADING)
+                .build();
+
+        when(userService.getConfirmedUser(username)).thenReturn(admin);
+        when(userService.getUserByUsername(username)).thenReturn(admin);
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+
+        assertThatThrownBy(() -> imageService.approveImage(imageId, username))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_NOT_READY");
+        verify(imageRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should reject image successfully")
     void shouldRejectImageSuccessfully() {
@@ -379,6 +788,7 @@ class ImageServiceTest {
                 .id(imageId)
                 .publisher(publisher)
                 .imageKey(imageKey)
+                .renditions("256.jpg,256.png")
                 .build();
 
         when(userService.getConfirmedUser(username)).thenReturn(admin);
@@ -387,8 +797,10 @@ class ImageServiceTest {
 
         imageService.rejectImage(imageId, username);
 
-        verify(cloudStorageService).remove(imageKey, StoragePath.IMAGE);
+        verify(storageDeletionService).enqueueAll(
+                List.of(imageKey, "imagekey-256.jpg", "imagekey-256.png"), StoragePath.IMAGE);
         verify(imageRepository).delete(image);
+        verify(eventPublisher).publishEvent(any(OnImageFeedChangedEvent.class));
 
         ArgumentCaptor<PhegyUser> publisherArgumetCapture = ArgumentCaptor.forClass(PhegyUser.class);
         verify(notificationService).pushNotificationTo(any(), publisherArgumetCapture.capture());
@@ -443,14 +855,73 @@ class ImageServiceTest {
 
         imageService.deleteImage(imageId, username);
 
-        verify(cloudStorageService).remove(imageKey, StoragePath.IMAGE);
+        verify(storageDeletionService).enqueueAll(List.of(imageKey), StoragePath.IMAGE);
         verify(imageRepository).delete(image);
+        verify(eventPublisher).publishEvent(any(OnImageFeedChangedEvent.class));
 
         ArgumentCaptor<PhegyUser> publisherArgumetCapture = ArgumentCaptor.forClass(PhegyUser.class);
         verify(notificationService).pushNotificationTo(any(), publisherArgumetCapture.capture());
         assertThat(publisherArgumetCapture.getValue()).isEqualTo(publisher);
     }
 
+    @Test
+    @DisplayName("Should keep image file shared with other images when deleting image")
+    void shouldKeepImageFileSharedWithOtherImagesWhenDeletingImage() {
+        String username = "username";
+        PhegyUser publisher = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .roles(Lists.newArrayList(PhegyRole.builder().level(PhegyRoleLevel.USER).build()))
+                .build();
+        Long imageId = 1L;
+        String imageKey = "hash.png";
+        Image image = Image.builder()
+                .id(imageId)
+                .publisher(publisher)
+                .imageKey(imageKey)
+                .build();
+
+        when(userService.getConfirmedUser(username)).thenReturn(publisher);
+        when(userService.getUserByUsername(username)).thenReturn(publisher);
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+        when(imageBlobRepository.release(imageKey)).thenReturn(1);
+        when(imageBlobRepository.deleteUnreferenced(imageKey)).thenReturn(0);
+
+        imageService.deleteImage(imageId, username);
+
+        verify(storageDeletionService, never()).enqueueAll(any(), any());
+        verify(imageRepository).delete(image);
+    }
+
+    @Test
+    @DisplayName("Should remove image file when deleting its last image")
+    void shouldRemoveImageFileWhenDeletingItsLastImage() {
+        String username = "username";
+        PhegyUser publisher = PhegyUser.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .roles(Lists.newArrayList(PhegyRole.builder().level(PhegyRoleLevel.USER).build()))
+                .build();
+        Long imageId = 1L;
+        String imageKey = "hash.png";
+        Image image = Image.builder()
+                .id(imageId)
+                .publisher(publisher)
+                .imageKey(imageKey)
+                .build();
+
+        when(userService.getConfirmedUser(username)).thenReturn(publisher);
+        when(userService.getUserByUsername(username)).thenReturn(publisher);
+        when(imageRepository.findById(imageId)).thenReturn(Optional.of(image));
+        when(imageBlobRepository.release(imageKey)).thenReturn(1);
+        when(imageBlobRepository.deleteUnreferenced(imageKey)).thenReturn(1);
+
+        imageService.deleteImage(imageId, username);
+
+        verify(storageDeletionService).enqueueAll(List.of(imageKey), StoragePath.IMAGE);
+        verify(imageRepository).delete(image);
+    }
+
     @Test
     @DisplayName("Should delete image by publisher successfully")
     void shouldDeleteImageByPublisherSuccessfully() {
@@ -475,12 +946,253 @@ class ImageServiceTest {
 
         imageService.deleteImage(imageId, username);
 
-        verify(cloudStorageService).remove(imageKey, StoragePath.IMAGE);
+        verify(storageDeletionService).enqueueAll(List.of(imageKey), StoragePath.IMAGE);
         verify(imageRepository).delete(image);
+        verify(eventPublisher).publishEvent(any(OnImageFeedChangedEvent.class));
 
         verify(notificationService, never()).pushNotificationTo(any(), any());
     }
 
+    @Test
+    @DisplayName("Should approve images with one notification per publisher")
+    void shouldApproveImagesWithOneNotificationPerPublisher() {
+        String username = "admin";
+        PhegyUser admin = PhegyUser.builder().id(UUID.randomUUID()).username(username).build();
+        PhegyUser ivan = PhegyUser.builder().id(UUID.randomUUID()).username("ivan").build();
+        PhegyUser maria = PhegyUser.builder().id(UUID.randomUUID()).username("maria").build();
+        List<Long> imageIds = Lists.newArrayList(1L, 2L);
+        List<Image> images = Lists.newArrayList(
+                Image.builder().id(1L).title("first").publisher(ivan).build(),
+                Image.builder().id(2L).title("second").publisher(maria).build());
+
+        when(userService.getConfirmedUser(username)).thenReturn(admin);
+        when(imageRepository.findAllPendingByIdIn(imageIds)).thenReturn(images);
+
+        Collection<Long> actual = imageService.approveImages(imageIds, username);
+
+        assertThat(actual).containsExactly(1L, 2L);
+        verify(imageRepository).approveAllByIdIn(eq(actual), eq(admin), any(LocalDateTime.class), eq(1d));
+        verify(imageRepository, never()).save(any());
+        ArgumentCaptor<ApplicationEvent> eventsCaptor = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventsCaptor.capture());
+        assertThat(eventsCaptor.getAllValues()).hasAtLeastOneElementOfType(OnImageFeedChangedEvent.class);
+        assertThat(eventsCaptor.getAllValues().stream()
+                .filter(OnLeaderboardChangedEvent.class::isInstance)
+                .flatMap(event -> ((OnLeaderboardChangedEvent) event).getScores().stream())
+                .map(LeaderboardScore::getUsername))
+                .containsExactly("ivan", "maria");
+
+        ArgumentCaptor<Collection<Notification>> notificationsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationService).pushNotifications(notificationsCaptor.capture());
+        assertThat(notificationsCaptor.getValue())
+                .extracting(Notification::getUser)
+                .containsExactly(ivan, maria);
+    }
+
+    @Test
+    @DisplayName("Should skip images not uploaded yet when approving images")
+    void shouldSkipImagesNotUploadedYetWhenApprovingImages() {
+        String username = "admin";
+        PhegyUser admin = PhegyUser.builder().id(UUID.randomUUID()).username(username).build();
+        PhegyUser ivan = PhegyUser.builder().id(UUID.randomUUID()).username("ivan").build();
+        List<Long> imageIds = Lists.newArrayList(1L, 2L);
+        List<Image> images = Lists.newArrayList(
+                Image.builder().id(1L).title("first").publisher(ivan).build(),
+                Image.builder().id(2L).title("second").publisher(ivan).status(ImageStatus.UPLOADING).build());
+
+        when(userService.getConfirmedUser(username)).thenReturn(admin);
+        when(imageRepository.findAllPendingByIdIn(imageIds)).thenReturn(images);
+
+        Collection<Long> actual = imageService.approveImages(imageIds, username);
+
+        assertThat(actual).containsExactly(1L);
+        verify(imageRepository).approveAllByIdIn(eq(actual), eq(admin), any(LocalDateTime.class), eq(1d));
+    }
+
+    @Test
+    @DisplayName("Should reject images with batched deletes")
+    void shouldRejectImagesWithBatchedDeletes() {
+        String username = "admin";
+        PhegyUser admin = PhegyUser.builder().id(UUID.randomUUID()).username(username).build();
+        PhegyUser ivan = PhegyUser.builder().id(UUID.randomUUID()).username("ivan").build();
+        List<Long> imageIds = Lists.newArrayList(1L, 2L);
+        List<Image> images = Lists.newArrayList(
+                Image.builder().id(1L).imageKey("first.png").title("first").publisher(ivan).build(),
+                Image.builder().id(2L).imageKey("second.png").title("second").publisher(ivan).build());
+
+        when(userService.getConfirmedUser(username)).thenReturn(admin);
+        when(imageRepository.findAllPendingByIdIn(imageIds)).thenReturn(images);
+
+        Collection<Long> actual = imageService.rejectImages(imageIds, username);
+
+        assertThat(actual).containsExactly(1L, 2L);
+        verify(storageDeletionService).enqueueAll(List.of("first.png"), StoragePath.IMAGE);
+        verify(storageDeletionService).enqueueAll(List.of("second.png"), StoragePath.IMAGE);
+        verify(voteRepository).deleteAllByImageIdIn(actual);
+        verify(imageRepository).deleteAllByIdIn(actual);
+        verify(imageRepository, never()).delete(any());
+
+        ArgumentCaptor<Collection<Notification>> notificationsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationService).pushNotifications(notificationsCaptor.capture());
+        assertThat(notificationsCaptor.getValue())
+                .singleElement()
+                .matches(x -> x.getUser().equals(ivan), "is sent to the publisher")
+                .matches(x -> x.getMessage().startsWith("2 "), "groups both images");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when moderation batch is too large")
+    void shouldThrowExceptionWhenModerationBatchIsTooLarge() {
+        String username = "admin";
+
+        when(userService.getConfirmedUser(username)).thenReturn(PhegyUser.builder().username(username).build());
+
+        assertThatThrownBy(() -> imageService.approveImages(Lists.newArrayList(1L, 2L, 3L), username))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_BATCH_TOO_LARGE");
+        verify(imageRepository, never()).approveAllByIdIn(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should add vote to image aggregates")
+    void shouldAddVoteToImageAggregates() {
+        Long imageId = 1L;
+        long points = 55L;
+        LocalDateTime votedOn = LocalDateTime.now();
+
+        imageService.addVote(imageId, points, votedOn);
+
+        verify(imageRepository).addVote(imageId, points, votedOn);
+        verify(imageRepository).addHotScore(imageId, 5.5, votedOn, 43200L);
+        verify(imageVoteRollupRepository).addVote(imageId, votedOn.truncatedTo(ChronoUnit.HOURS), points);
+    }
+
+    @Test
+    @DisplayName("Should get top voted images from vote rollup")
+    void shouldGetTopVotedImagesFromVoteRollup() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> page = new PageImpl<>(Lists.newArrayList(projection(ImageView.class, Map.of("id", 1L))));
+        ImagePageResponseDto expected = ImagePageResponseDto.builder().build();
+
+        when(imageRepository.findAllByApprovedOnNotNullOrderByTopVotedSince(any(LocalDateTime.class), eq(pageRequest)))
+                .thenReturn(page);
+        when(imageMapper.createImagePageResponseDto(page, false)).thenReturn(expected);
+
+        ImagePageResponseDto actual = imageService.getImages(
+                pageRequest,
+                ImagePublishFilter.APPROVED,
+                ImageOrderFilter.TOP_VOTED_LAST_WEEK,
+                null,
+                null);
+
+        ArgumentCaptor<LocalDateTime> sinceCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(imageRepository).findAllByApprovedOnNotNullOrderByTopVotedSince(sinceCaptor.capture(), eq(pageRequest));
+        assertThat(sinceCaptor.getValue())
+                .isEqualTo(sinceCaptor.getValue().truncatedTo(ChronoUnit.HOURS))
+                .isBefore(LocalDateTime.now().minusDays(6));
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("Should get top voted images of publisher from vote rollup")
+    void shouldGetTopVotedImagesOfPublisherFromVoteRollup() {
+        String publisherUsername = "publisher";
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<ImageView> slice = new SliceImpl<>(Lists.newArrayList(projection(ImageView.class, Map.of("id", 1L))));
+        ImagePageResponseDto expected = ImagePageResponseDto.builder().build();
+
+        when(imageRepository.findSliceByPublisherUsernameAndApprovedOnNotNullOrderByTopVotedSince(
+                eq(publisherUsername), any(LocalDateTime.class), eq(pageRequest)))
+                .thenReturn(slice);
+        when(imageRepository.countByPublisherUsernameAndApprovedOnNotNullAndVotedSince(
+                eq(publisherUsername), any(LocalDateTime.class)))
+                .thenReturn(1L);
+        when(imageMapper.createImagePageResponseDto(slice, false)).thenReturn(expected);
+
+        ImagePageResponseDto actual = imageService.getImages(
+                pageRequest,
+                false,
+                ImagePublishFilter.APPROVED,
+                ImageOrderFilter.TOP_VOTED_LAST_3_DAYS,
+                publisherUsername,
+                null);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getTotalCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should decay hot scores")
+    void shouldDecayHotScores() {
+        imageService.decayHotScores();
+
+        verify(imageRepository).decayHotScores(any(LocalDateTime.class), eq(43200L), eq(0.01));
+    }
+
+    @Test
+    @DisplayName("Should sort hot images by hot score")
+    void shouldSortHotImagesByHotScore() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(ImagePageResponseDto.builder().build());
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.HOT, null, null);
+
+        ArgumentCaptor<PageRequest> pageRequestCaptor = ArgumentCaptor.forClass(PageRequest.class);
+        verify(imageRepository).findAllByApprovedOnNotNull(pageRequestCaptor.capture());
+        assertThat(pageRequestCaptor.getValue().getSort().getOrderFor("hotScore"))
+                .isNotNull()
+                .matches(Sort.Order::isDescending, "is descending");
+    }
+
+    @Test
+    @DisplayName("Should sort newest images by the keyset cursor columns")
+    void shouldSortNewestImagesByTheKeysetCursorColumns() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(ImagePageResponseDto.builder().build());
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, null);
+
+        ArgumentCaptor<PageRequest> pageRequestCaptor = ArgumentCaptor.forClass(PageRequest.class);
+        verify(imageRepository).findAllByApprovedOnNotNull(pageRequestCaptor.capture());
+        assertThat(pageRequestCaptor.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "approvedOn", "id"));
+    }
+
+    @Test
+    @DisplayName("Should break latest voted ties by id")
+    void shouldBreakLatestVotedTiesById() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<ImageView> imagePage = new PageImpl<>(Lists.newArrayList());
+
+        when(imageRepository.findAllByApprovedOnNotNull(any())).thenReturn(imagePage);
+        when(imageMapper.createImagePageResponseDto(imagePage, false)).thenReturn(ImagePageResponseDto.builder().build());
+
+        imageService.getImages(pageRequest, ImagePublishFilter.APPROVED, ImageOrderFilter.LATEST_VOTED, null, null);
+
+        ArgumentCaptor<PageRequest> pageRequestCaptor = ArgumentCaptor.forClass(PageRequest.class);
+        verify(imageRepository).findAllByApprovedOnNotNull(pageRequestCaptor.capture());
+        assertThat(pageRequestCaptor.getValue().getSort())
+                .isEqualTo(Sort.by(Sort.Direction.DESC, "lastVotedOn", "approvedOn", "id"));
+    }
+
+    @Test
+    @DisplayName("Should purge vote rollups older than retention")
+    void shouldPurgeVoteRollupsOlderThanRetention() {
+        imageService.purgeVoteRollups();
+
+        ArgumentCaptor<LocalDateTime> beforeCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(imageVoteRollupRepository).deleteAllByBucketBefore(beforeCaptor.capture());
+        assertThat(beforeCaptor.getValue())
+                .isBefore(LocalDateTime.now().minusDays(30))
+                .isAfter(LocalDateTime.now().minusDays(32));
+    }
+
     @Test
     @DisplayName("Should throw exception when delete image not admin or publisher")
     void shouldThrowExceptionWhenDeleteImageNotAdminOrPublisher() {
@@ -89,6 +89,26 @@ class NotificationServiceTest {
         assertThat(dtoArgumentCaptor.getValue()).isNotNull();
     }
 
+    @Test
+    @DisplayName("Should push notifications in one batch correctly")
+    void shouldPushNotificationsInOneBatchCorrectly() {
+        PhegyUser ivan = PhegyUser.builder().id(UUID.randomUUID()).username("ivan").build();
+        PhegyUser maria = PhegyUser.builder().id(UUID.randomUUID()).username("maria").build();
+        List<Notification> notifications = List.of(
+                Notification.builder().id(1L).title("title").message("message").category(NotificationCategory.SUCCESS).user(ivan).build(),
+                Notification.builder().id(2L).title("title").message("message").category(NotificationCategory.SUCCESS).user(maria).build());
+
+        when(notificationRepository.saveAll(notifications)).thenReturn(notifications);
+
+        notificationService.pushNotifications(notifications);
+
+        verify(modelValidatorService, times(2)).validate(any(Notification.class));
+        verify(notificationRepository).saveAll(notifications);
+        verify(notificationRepository, never()).save(any());
+        verify(webSocketService).sendTo(eq("ivan"), eq("/queue/notification"), any(NotificationResponseDto.class));
+        verify(webSocketService).sendTo(eq("maria"), eq("/queue/notification"), any(NotificationResponseDto.class));
+    }
+
     @Test
     @DisplayName("Should get all notifications related to user correctly")
     void shouldGetAllNotificationsRelatedToUserCorrectly() {
@@ -33,6 +33,7 @@ import tech.phegy.api.service.validator.UserVerifier;
 import tech.phegy.api.service.validator.ModelValidatorService;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -410,7 +411,8 @@ class PhegyUserServiceTest {
 
         userService.setProfileImage(multipartFile, username);
 
-        verify(cloudStorageService).upload(multipartFile.getBytes(), username + ".png", StoragePath.USER);
+        verify(cloudStorageService).upload(any(InputStream.class), eq(100L), eq(username + ".png"), eq(StoragePath.USER));
+        verify(cloudStorageService, never()).upload(any(byte[].class), any(), any());
     }
 
     @Test
@@ -419,7 +421,7 @@ class PhegyUserServiceTest {
         MultipartFile multipartFile = new MockMultipartFile("image", new byte[100]) {
             @NotNull
             @Override
-            public byte[] getBytes() throws IOException {
+            public InputStream getInputStream() throws IOException {
                 throw new IOException();
             }
         };
@@ -433,7 +435,7 @@ class PhegyUserServiceTest {
                 .isInstanceOf(PhegyHttpException.class)
                 .hasMessage("CAN_NOT_READ_IMAGE_BYTES");
 
-        verify(cloudStorageService, never()).upload(any(), any(), any());
+        verify(cloudStorageService, never()).upload(any(InputStream.class), anyLong(), any(), any());
     }
 
     @Test
@@ -448,13 +450,13 @@ class PhegyUserServiceTest {
 
         doThrow(new RuntimeException())
                 .when(cloudStorageService)
-                .upload(multipartFile.getBytes(), username + ".png", StoragePath.USER);
+                .upload(any(InputStream.class), eq(100L), eq(username + ".png"), eq(StoragePath.USER));
 
         assertThatThrownBy(() -> userService.setProfileImage(multipartFile, username))
                 .isInstanceOf(PhegyHttpException.class)
                 .hasMessage("CAN_NOT_SAVE_IMAGE");
 
-        verify(cloudStorageService).upload(multipartFile.getBytes(), username + ".png", StoragePath.USER);
+        verify(cloudStorageService).upload(any(InputStream.class), eq(100L), eq(username + ".png"), eq(StoragePath.USER));
     }
 
     private PhegyRole getRole(PhegyRoleLevel roleLevel) {
@@ -0,0 +1,124 @@
+package tech.phegy.api.service.feed;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import tech.phegy.api.dto.image.filter.ImageOrderFilter;
+import tech.phegy.api.dto.image.filter.ImagePublishFilter;
+import tech.phegy.api.dto.image.response.ImagePageResponseDto;
+import tech.phegy.api.dto.image.response.ImageResponseDto;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ImageFeedCacheTest {
+    ImageFeedCache imageFeedCache;
+
+    @BeforeEach
+    void setUp() {
+        imageFeedCache = new ImageFeedCache(new ImageFeedCacheProps(100L, 60L, 2, 300L));
+    }
+
+    @Test
+    @DisplayName("Should cache only first approved pages")
+    void shouldCacheOnlyFirstApprovedPages() {
+        assertThat(imageFeedCache.isCacheable(ImagePublishFilter.APPROVED, PageRequest.of(1, 4))).isTrue();
+        assertThat(imageFeedCache.isCacheable(ImagePublishFilter.APPROVED, PageRequest.of(2, 4))).isFalse();
+        assertThat(imageFeedCache.isCacheable(ImagePublishFilter.PENDING, PageRequest.of(0, 4))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should load page once until invalidated")
+    void shouldLoadPageOnceUntilInvalidated() {
+        ImageFeedKey key = new ImageFeedKey(ImagePublishFilter.APPROVED, ImageOrderFilter.MOST_VOTED, null, 0, 4, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        imageFeedCache.get(key, () -> load(loads));
+        imageFeedCache.get(key, () -> load(loads));
+        assertThat(loads.get()).isEqualTo(1);
+
+        imageFeedCache.invalidate(OnImageFeedChangedEvent.voteCast(this).getOrderFilters());
+        imageFeedCache.get(key, () -> load(loads));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep pages of orders not affected by votes")
+    void shouldKeepPagesOfOrdersNotAffectedByVotes() {
+        ImageFeedKey key = new ImageFeedKey(ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, 0, 4, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        imageFeedCache.get(key, () -> load(loads));
+        imageFeedCache.invalidate(OnImageFeedChangedEvent.voteCast(this).getOrderFilters());
+        imageFeedCache.get(key, () -> load(loads));
+        assertThat(loads.get()).isEqualTo(1);
+
+        imageFeedCache.invalidate(OnImageFeedChangedEvent.imagesChanged(this).getOrderFilters());
+        imageFeedCache.get(key, () -> load(loads));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache page loaded during invalidation")
+    void shouldNotCachePageLoadedDuringInvalidation() {
+        ImageFeedKey key = new ImageFeedKey(ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, 0, 4, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        imageFeedCache.get(key, () -> {
+            imageFeedCache.invalidate(OnImageFeedChangedEvent.imagesChanged(this).getOrderFilters());
+            return load(loads);
+        });
+        imageFeedCache.get(key, () -> load(loads));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should cache page loaded during invalidation of other order filters")
+    void shouldCachePageLoadedDuringInvalidationOfOtherOrderFilters() {
+        ImageFeedKey key = new ImageFeedKey(ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, 0, 4, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        imageFeedCache.get(key, () -> {
+            imageFeedCache.invalidate(OnImageFeedChangedEvent.voteCast(this).getOrderFilters());
+            return load(loads);
+        });
+        imageFeedCache.get(key, () -> load(loads));
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not share cached page between callers")
+    void shouldNotShareCachedPageBetweenCallers() {
+        ImageFeedKey key = new ImageFeedKey(ImagePublishFilter.APPROVED, ImageOrderFilter.NEWEST, null, 0, 4, true);
+        AtomicInteger loads = new AtomicInteger();
+
+        ImagePageResponseDto loaded = imageFeedCache.get(key, () -> ImagePageResponseDto.builder()
+                .images(new ArrayList<>(List.of(ImageResponseDto.builder().id(1L).votedByMe(false).build())))
+                .build());
+        loaded.getImages().iterator().next().setVotedByMe(true);
+        loaded.getImages().clear();
+
+        ImagePageResponseDto first = imageFeedCache.get(key, () -> load(loads));
+        first.getImages().iterator().next().setVotedByMe(true);
+        ImagePageResponseDto second = imageFeedCache.get(key, () -> load(loads));
+
+        assertThat(loads.get()).isZero();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getImages())
+                .extracting(ImageResponseDto::getId, ImageResponseDto::getVotedByMe)
+                .containsExactly(tuple(1L, false));
+    }
+
+    private ImagePageResponseDto load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return ImagePageResponseDto.builder().build();
+    }
+}
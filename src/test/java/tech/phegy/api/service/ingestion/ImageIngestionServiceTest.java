@@ -0,0 +1,228 @@
+package tech.phegy.api.service.ingestion;
+
+import com.google.common.hash.Hashing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import tech.phegy.api.dto.image.response.ImageStatusResponseDto;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.ImageBlob;
+import tech.phegy.api.model.ImageStatus;
+import tech.phegy.api.repository.ImageBlobRepository;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.service.HashingService;
+import tech.phegy.api.service.ingestion.event.OnImageIngestedEvent;
+import tech.phegy.api.service.ingestion.event.OnImageUploadRequestedEvent;
+import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.service.storage.StorageDeletionService;
+import tech.phegy.api.service.storage.StoragePath;
+import tech.phegy.api.service.validator.ImageFileProps;
+import tech.phegy.api.service.validator.ImageFileVerifier;
+import tech.phegy.api.websocket.WebSocketService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageIngestionServiceTest {
+    @Mock
+    ImageRepository imageRepository;
+    @Mock
+    ImageBlobRepository imageBlobRepository;
+    @Mock
+    CloudStorageService cloudStorageService;
+    @Mock
+    StorageDeletionService storageDeletionService;
+    @Mock
+    WebSocketService webSocketService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    ImageIngestionService imageIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        imageIngestionService = new ImageIngestionService(
+                imageRepository,
+                imageBlobRepository,
+                cloudStorageService,
+                storageDeletionService,
+                webSocketService,
+                new HashingService(),
+                new ImageFileVerifier(new ImageFileProps(List.of("png", "jpeg", "gif"), 8000, 8000, 40000000L)),
+                new ImageIngestionProps(1, 1, 30L, 300000L),
+                eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageIngestionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should spool image file with its content hash")
+    void shouldSpoolImageFileWithItsContentHash() throws IOException {
+        byte[] imageBytes = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+        SpooledImage actual = imageIngestionService.spool(new MockMultipartFile("image", imageBytes));
+
+        assertThat(Files.readAllBytes(actual.getFile())).isEqualTo(imageBytes);
+        assertThat(actual.getSize()).isEqualTo(8L);
+        assertThat(actual.getImageKey()).isEqualTo(Hashing.sha256().hashBytes(imageBytes) + ".png");
+        assertThat(actual.getContentType()).isEqualTo("image/png");
+        Files.delete(actual.getFile());
+    }
+
+    @Test
+    @DisplayName("Should derive image key extension from detected format")
+    void shouldDeriveImageKeyExtensionFromDetectedFormat() throws IOException {
+        byte[] imageBytes = new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+        SpooledImage actual = imageIngestionService.spool(new MockMultipartFile("image", "image.png", "image/png", imageBytes));
+
+        assertThat(actual.getImageKey()).isEqualTo(Hashing.sha256().hashBytes(imageBytes) + ".jpg");
+        assertThat(actual.getContentType()).isEqualTo("image/jpeg");
+        Files.delete(actual.getFile());
+    }
+
+    @Test
+    @DisplayName("Should upload spooled file and mark image as ready")
+    void shouldUploadSpooledFileAndMarkImageAsReady() throws IOException {
+        OnImageUploadRequestedEvent upload = createUpload();
+
+        when(imageBlobRepository.findById("key.png")).thenReturn(Optional.of(createImageBlob(false, null)));
+        when(imageBlobRepository.markUploaded("key.png")).thenReturn(1);
+        when(imageRepository.updateStatus(1L, ImageStatus.UPLOADING, ImageStatus.READY)).thenReturn(1);
+
+        imageIngestionService.ingest(upload);
+
+        verify(cloudStorageService).upload(any(InputStream.class), eq(3L), eq("key.png"), eq("image/png"), eq(StoragePath.IMAGE));
+        verify(cloudStorageService, never()).remove(any(), any());
+
+        ArgumentCaptor<OnImageIngestedEvent> eventArgumentCaptor = ArgumentCaptor.forClass(OnImageIngestedEvent.class);
+        verify(eventPublisher).publishEvent(eventArgumentCaptor.capture());
+        assertThat(eventArgumentCaptor.getValue())
+                .matches(x -> x.getImageId().equals(1L), "is correct image")
+                .matches(x -> x.getImageKey().equals("key.png"), "is correct image key")
+                .matches(x -> x.getFile().equals(upload.getFile()), "hands over spooled file");
+        assertThat(Files.exists(upload.getFile())).isTrue();
+        Files.delete(upload.getFile());
+
+        ArgumentCaptor<ImageStatusResponseDto> statusArgumentCaptor = ArgumentCaptor.forClass(ImageStatusResponseDto.class);
+        verify(webSocketService).sendTo(eq("ivan"), eq(ImageIngestionService.IMAGE_STATUS_DESTINATION), statusArgumentCaptor.capture());
+        assertThat(statusArgumentCaptor.getValue())
+                .matches(x -> x.getId().equals(1L), "is correct image")
+                .matches(x -> x.getStatus() == ImageStatus.READY, "is ready");
+    }
+
+    @Test
+    @DisplayName("Should mark image as failed when can not upload file")
+    void shouldMarkImageAsFailedWhenCanNotUploadFile() throws IOException {
+        OnImageUploadRequestedEvent upload = createUpload();
+
+        when(imageBlobRepository.findById("key.png")).thenReturn(Optional.of(createImageBlob(false, null)));
+        doThrow(PhegyHttpException.class).when(cloudStorageService).upload(any(InputStream.class), anyLong(), any(), any(), any());
+        when(imageRepository.updateStatus(1L, ImageStatus.UPLOADING, ImageStatus.FAILED)).thenReturn(1);
+
+        imageIngestionService.ingest(upload);
+
+        verify(imageRepository, never()).updateStatus(1L, ImageStatus.UPLOADING, ImageStatus.READY);
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(Files.exists(upload.getFile())).isFalse();
+        verify(webSocketService).sendTo(eq("ivan"), eq(ImageIngestionService.IMAGE_STATUS_DESTINATION), any());
+    }
+
+    @Test
+    @DisplayName("Should queue uploaded file for removal when every image was deleted while uploading")
+    void shouldQueueUploadedFileForRemovalWhenEveryImageWasDeletedWhileUploading() throws IOException {
+        OnImageUploadRequestedEvent upload = createUpload();
+
+        when(imageBlobRepository.findById("key.png")).thenReturn(Optional.of(createImageBlob(false, null)));
+        when(imageBlobRepository.markUploaded("key.png")).thenReturn(0);
+
+        imageIngestionService.ingest(upload);
+
+        verify(storageDeletionService).enqueueAll(List.of("key.png"), StoragePath.IMAGE);
+        verify(cloudStorageService, never()).remove(any(), any());
+        verify(imageRepository, never()).updateStatus(any(), any(), any());
+        verify(webSocketService, never()).sendTo(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(Files.exists(upload.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep uploaded file when image was deleted but the file is shared")
+    void shouldKeepUploadedFileWhenImageWasDeletedButTheFileIsShared() throws IOException {
+        OnImageUploadRequestedEvent upload = createUpload();
+
+        when(imageBlobRepository.findById("key.png")).thenReturn(Optional.of(createImageBlob(false, null)));
+        when(imageBlobRepository.markUploaded("key.png")).thenReturn(1);
+        when(imageRepository.updateStatus(1L, ImageStatus.UPLOADING, ImageStatus.READY)).thenReturn(0);
+
+        imageIngestionService.ingest(upload);
+
+        verify(cloudStorageService, never()).remove(any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(Files.exists(upload.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not upload file already uploaded for another image")
+    void shouldNotUploadFileAlreadyUploadedForAnotherImage() throws IOException {
+        OnImageUploadRequestedEvent upload = createUpload();
+
+        when(imageBlobRepository.findById("key.png")).thenReturn(Optional.of(createImageBlob(true, "256.jpg")));
+        when(imageRepository.updateStatus(1L, ImageStatus.UPLOADING, ImageStatus.READY)).thenReturn(1);
+
+        imageIngestionService.ingest(upload);
+
+        verify(cloudStorageService, never()).upload(any(InputStream.class), anyLong(), any(), any(), any());
+        verify(imageRepository).updateRenditions(1L, "256.jpg");
+        verify(eventPublisher, never()).publishEvent(any());
+        assertThat(Files.exists(upload.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should mark stale uploads as failed")
+    void shouldMarkStaleUploadsAsFailed() {
+        imageIngestionService.failStaleUploads();
+
+        ArgumentCaptor<LocalDateTime> dateArgumentCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(imageRepository).updateStatusByPublishedOnBefore(
+                eq(ImageStatus.UPLOADING), eq(ImageStatus.FAILED), dateArgumentCaptor.capture());
+        assertThat(dateArgumentCaptor.getValue()).isBefore(LocalDateTime.now().minusMinutes(29));
+    }
+
+    private ImageBlob createImageBlob(boolean uploaded, String renditions) {
+        return ImageBlob.builder()
+                .imageKey("key.png")
+                .referenceCount(1L)
+                .uploaded(uploaded)
+                .renditions(renditions)
+                .build();
+    }
+
+    private OnImageUploadRequestedEvent createUpload() throws IOException {
+        Path file = Files.createTempFile("phegy-image-", ".upload");
+        Files.write(file, new byte[]{1, 2, 3});
+        return new OnImageUploadRequestedEvent(this, 1L, "key.png", "image/png", "ivan", file, 3L);
+    }
+}
@@ -0,0 +1,124 @@
+package tech.phegy.api.service.leaderboard;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardType;
+import tech.phegy.api.dto.leaderboard.filter.LeaderboardWindow;
+import tech.phegy.api.dto.leaderboard.response.LeaderboardEntryResponseDto;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.LeaderboardScoreView;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.repository.ImageVoteRollupRepository;
+import tech.phegy.api.repository.VoteRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static tech.phegy.api.TestUtils.projection;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+    @Mock
+    ImageRepository imageRepository;
+    @Mock
+    ImageVoteRollupRepository imageVoteRollupRepository;
+    @Mock
+    VoteRepository voteRepository;
+
+    LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardService(
+                imageRepository,
+                imageVoteRollupRepository,
+                voteRepository,
+                new LeaderboardProps(100, "0 30 4 * * *"));
+    }
+
+    @Test
+    @DisplayName("Should rank scores added after votes")
+    void shouldRankScoresAddedAfterVotes() {
+        LocalDateTime now = LocalDateTime.now();
+        leaderboardService.addAll(List.of(
+                new LeaderboardScore(LeaderboardType.POINTS_RECEIVED, "ivan", 30L, now),
+                new LeaderboardScore(LeaderboardType.POINTS_RECEIVED, "maria", 50L, now),
+                new LeaderboardScore(LeaderboardType.POINTS_SENT, "georgi", 80L, now)));
+
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.LAST_WEEK, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getRank, LeaderboardEntryResponseDto::getUsername, LeaderboardEntryResponseDto::getScore)
+                .containsExactly(tuple(1, "maria", 50L), tuple(2, "ivan", 30L));
+    }
+
+    @Test
+    @DisplayName("Should rebuild all time and rolling leaderboards from the database")
+    void shouldRebuildAllTimeAndRollingLeaderboardsFromTheDatabase() {
+        LocalDateTime twoDaysAgo = LocalDateTime.now().minusDays(2);
+        LocalDateTime twentyDaysAgo = LocalDateTime.now().minusDays(20);
+        when(imageRepository.sumTotalPointsGroupByPublisher()).thenReturn(List.of(
+                projection(LeaderboardScoreView.class, Map.of("username", "ivan", "score", 500L)),
+                projection(LeaderboardScoreView.class, Map.of("username", "maria", "score", 300L))));
+        when(imageVoteRollupRepository.sumPointsSinceGroupByPublisherAndHour(any(LocalDateTime.class))).thenReturn(List.of(
+                bucketScore("ivan", 100L, twentyDaysAgo),
+                bucketScore("maria", 200L, twoDaysAgo)));
+
+        leaderboardService.rebuild();
+
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.ALL_TIME, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getUsername)
+                .containsExactly("ivan", "maria");
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.LAST_MONTH, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getUsername)
+                .containsExactly("maria", "ivan");
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.LAST_WEEK, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getUsername)
+                .containsExactly("maria");
+    }
+
+    @Test
+    @DisplayName("Should keep scores added while rebuilding")
+    void shouldKeepScoresAddedWhileRebuilding() {
+        LocalDateTime now = LocalDateTime.now();
+        when(imageRepository.sumTotalPointsGroupByPublisher()).thenAnswer(invocation -> {
+            leaderboardService.addAll(List.of(new LeaderboardScore(LeaderboardType.POINTS_RECEIVED, "maria", 50L, now)));
+            return List.of(projection(LeaderboardScoreView.class, Map.of("username", "ivan", "score", 30L)));
+        });
+
+        leaderboardService.rebuild();
+
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.ALL_TIME, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getUsername, LeaderboardEntryResponseDto::getScore)
+                .containsExactly(tuple("maria", 50L), tuple("ivan", 30L));
+        assertThat(leaderboardService.getLeaderboard(LeaderboardType.POINTS_RECEIVED, LeaderboardWindow.LAST_WEEK, 10).getEntries())
+                .extracting(LeaderboardEntryResponseDto::getUsername)
+                .containsExactly("maria");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when leaderboard size is too large")
+    void shouldThrowExceptionWhenLeaderboardSizeIsTooLarge() {
+        assertThatThrownBy(() -> leaderboardService.getLeaderboard(LeaderboardType.POINTS_SENT, LeaderboardWindow.ALL_TIME, 101))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("LEADERBOARD_SIZE_INVALID");
+    }
+
+    private LeaderboardScoreView bucketScore(String username, long score, LocalDateTime bucket) {
+        return projection(LeaderboardScoreView.class, Map.of(
+                "username", username,
+                "score", score,
+                "bucketYear", bucket.getYear(),
+                "bucketMonth", bucket.getMonthValue(),
+                "bucketDay", bucket.getDayOfMonth(),
+                "bucketHour", bucket.getHour()));
+    }
+}
@@ -0,0 +1,74 @@
+package tech.phegy.api.service.leaderboard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LeaderboardTest {
+
+    @Test
+    @DisplayName("Should rank users by descending score and then by username")
+    void shouldRankUsersByDescendingScoreAndThenByUsername() {
+        Leaderboard leaderboard = new Leaderboard(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        leaderboard.add("ivan", 50L, now);
+        leaderboard.add("maria", 30L, now);
+        leaderboard.add("georgi", 30L, now);
+        leaderboard.add("maria", 40L, now);
+
+        assertThat(leaderboard.top(3))
+                .extracting(Leaderboard.Entry::getUsername, Leaderboard.Entry::getScore)
+                .containsExactly(
+                        tuple("maria", 70L),
+                        tuple("ivan", 50L),
+                        tuple("georgi", 30L));
+        assertThat(leaderboard.top(1)).extracting(Leaderboard.Entry::getUsername).containsExactly("maria");
+    }
+
+    @Test
+    @DisplayName("Should remove users whose score drops to zero")
+    void shouldRemoveUsersWhoseScoreDropsToZero() {
+        Leaderboard leaderboard = new Leaderboard(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        leaderboard.add("ivan", 50L, now);
+        leaderboard.add("ivan", -50L, now);
+
+        assertThat(leaderboard.top(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ignore scores outside of a rolling window")
+    void shouldIgnoreScoresOutsideOfARollingWindow() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        LocalDateTime now = LocalDateTime.now();
+
+        leaderboard.add("ivan", 50L, now.minusDays(4));
+        leaderboard.add("maria", 30L, now.minusDays(2));
+
+        assertThat(leaderboard.top(10)).extracting(Leaderboard.Entry::getUsername).containsExactly("maria");
+    }
+
+    @Test
+    @DisplayName("Should drop buckets leaving a rolling window")
+    void shouldDropBucketsLeavingARollingWindow() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        LocalDateTime now = LocalDateTime.now();
+
+        leaderboard.add("ivan", 50L, now.minusDays(2));
+        leaderboard.add("ivan", 20L, now);
+        leaderboard.add("maria", 30L, now);
+        leaderboard.expire(now.plusDays(2));
+
+        assertThat(leaderboard.top(10))
+                .extracting(Leaderboard.Entry::getUsername, Leaderboard.Entry::getScore)
+                .containsExactly(
+                        tuple("maria", 30L),
+                        tuple("ivan", 20L));
+    }
+}
@@ -0,0 +1,108 @@
+package tech.phegy.api.service.points;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
+import tech.phegy.api.repository.PointsBagRepository;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PointsBagServiceTest {
+    static final UUID LOWER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    static final UUID HIGHER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Mock
+    PointsBagRepository pointsBagRepository;
+    @Mock
+    PointsLedgerEntryRepository pointsLedgerEntryRepository;
+
+    PointsBagService pointsBagService;
+
+    @BeforeEach
+    void setUp() {
+        pointsBagService = new PointsBagService(pointsBagRepository, pointsLedgerEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Should withdraw points first when sender has the lower id")
+    void shouldWithdrawPointsFirstWhenSenderHasTheLowerId() {
+        when(pointsBagRepository.withdrawPoints(LOWER_ID, 50L)).thenReturn(1);
+        when(pointsBagRepository.depositPoints(HIGHER_ID, 50L)).thenReturn(1);
+
+        pointsBagService.transferPoints(LOWER_ID, HIGHER_ID, 50L, 1L);
+
+        InOrder inOrder = inOrder(pointsBagRepository);
+        inOrder.verify(pointsBagRepository).withdrawPoints(LOWER_ID, 50L);
+        inOrder.verify(pointsBagRepository).depositPoints(HIGHER_ID, 50L);
+    }
+
+    @Test
+    @DisplayName("Should deposit points first when receiver has the lower id")
+    void shouldDepositPointsFirstWhenReceiverHasTheLowerId() {
+        when(pointsBagRepository.depositPoints(LOWER_ID, 50L)).thenReturn(1);
+        when(pointsBagRepository.withdrawPoints(HIGHER_ID, 50L)).thenReturn(1);
+
+        pointsBagService.transferPoints(HIGHER_ID, LOWER_ID, 50L, 1L);
+
+        InOrder inOrder = inOrder(pointsBagRepository);
+        inOrder.verify(pointsBagRepository).depositPoints(LOWER_ID, 50L);
+        inOrder.verify(pointsBagRepository).withdrawPoints(HIGHER_ID, 50L);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when sender has not enough points")
+    void shouldThrowExceptionWhenSenderHasNotEnoughPoints() {
+        when(pointsBagRepository.withdrawPoints(LOWER_ID, 50L)).thenReturn(0);
+
+        assertThatThrownBy(() -> pointsBagService.transferPoints(LOWER_ID, HIGHER_ID, 50L, 1L))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("NOT_ENOUGH_POINTS_TO_VOTE");
+        verify(pointsBagRepository, never()).depositPoints(any(), anyLong());
+        verify(pointsLedgerEntryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when receiver has no points bag")
+    void shouldThrowExceptionWhenReceiverHasNoPointsBag() {
+        when(pointsBagRepository.depositPoints(LOWER_ID, 50L)).thenReturn(0);
+
+        assertThatThrownBy(() -> pointsBagService.transferPoints(HIGHER_ID, LOWER_ID, 50L, 1L))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("POINTS_BAG_NOT_FOUND");
+        verify(pointsBagRepository, never()).withdrawPoints(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should record sent and received points in the ledger")
+    void shouldRecordSentAndReceivedPointsInTheLedger() {
+        when(pointsBagRepository.withdrawPoints(LOWER_ID, 50L)).thenReturn(1);
+        when(pointsBagRepository.depositPoints(HIGHER_ID, 50L)).thenReturn(1);
+
+        pointsBagService.transferPoints(LOWER_ID, HIGHER_ID, 50L, 1L);
+
+        ArgumentCaptor<PointsLedgerEntry> entries = ArgumentCaptor.forClass(PointsLedgerEntry.class);
+        verify(pointsLedgerEntryRepository, times(2)).save(entries.capture());
+        assertThat(entries.getAllValues())
+                .extracting(PointsLedgerEntry::getUserId, PointsLedgerEntry::getPoints, PointsLedgerEntry::getType, PointsLedgerEntry::getImageId)
+                .containsExactly(
+                        tuple(LOWER_ID, -50L, PointsLedgerEntryType.VOTE_SENT, 1L),
+                        tuple(HIGHER_ID, 50L, PointsLedgerEntryType.VOTE_RECEIVED, 1L));
+    }
+}
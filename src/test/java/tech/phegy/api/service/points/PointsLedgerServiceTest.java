@@ -0,0 +1,105 @@
+package tech.phegy.api.service.points;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.phegy.api.model.points.PointsBag;
+import tech.phegy.api.model.points.PointsBalanceSnapshot;
+import tech.phegy.api.model.user.PhegyUser;
+import tech.phegy.api.repository.PointsBagRepository;
+import tech.phegy.api.repository.PointsBalanceSnapshotRepository;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PointsLedgerServiceTest {
+    @Mock
+    PointsBagRepository pointsBagRepository;
+    @Mock
+    PointsLedgerEntryRepository pointsLedgerEntryRepository;
+    @Mock
+    PointsBalanceSnapshotRepository pointsBalanceSnapshotRepository;
+
+    PointsLedgerService pointsLedgerService;
+
+    final UUID userId = UUID.randomUUID();
+    final LocalDateTime at = LocalDateTime.of(2021, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        pointsLedgerService = new PointsLedgerService(
+                pointsBagRepository,
+                pointsLedgerEntryRepository,
+                pointsBalanceSnapshotRepository,
+                new PointsLedgerProps(3600000L, 2, 2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointsLedgerService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should add ledger entries after the last entry of the latest snapshot to the snapshot balance")
+    void shouldAddLedgerEntriesAfterTheLatestSnapshotToTheSnapshotBalance() {
+        final LocalDateTime takenOn = at.minusHours(1);
+        when(pointsBagRepository.findByUserUsername("user")).thenReturn(Optional.of(pointsBag()));
+        when(pointsBalanceSnapshotRepository.findFirstByUserIdAndTakenOnLessThanEqualOrderByTakenOnDesc(userId, at))
+                .thenReturn(Optional.of(new PointsBalanceSnapshot(1L, userId, 500L, 42L, takenOn)));
+        when(pointsLedgerEntryRepository.sumPointsByUserIdAfterEntryCreatedUntil(userId, 42L, at)).thenReturn(-20L);
+
+        assertThat(pointsLedgerService.getBalanceAt("user", at)).isEqualTo(480L);
+    }
+
+    @Test
+    @DisplayName("Should sum the whole ledger when no snapshot was taken before")
+    void shouldSumTheWholeLedgerWhenNoSnapshotWasTakenBefore() {
+        when(pointsBagRepository.findByUserUsername("user")).thenReturn(Optional.of(pointsBag()));
+        when(pointsBalanceSnapshotRepository.findFirstByUserIdAndTakenOnLessThanEqualOrderByTakenOnDesc(userId, at))
+                .thenReturn(Optional.empty());
+        when(pointsLedgerEntryRepository.sumPointsByUserIdAfterEntryCreatedUntil(userId, 0L, at)).thenReturn(300L);
+
+        assertThat(pointsLedgerService.getBalanceAt("user", at)).isEqualTo(300L);
+    }
+
+    @Test
+    @DisplayName("Should snapshot balances changed since the previous snapshot")
+    void shouldSnapshotBalancesChangedSinceThePreviousSnapshot() {
+        final LocalDateTime before = LocalDateTime.now();
+
+        pointsLedgerService.takeSnapshots();
+
+        ArgumentCaptor<LocalDateTime> takenOnCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pointsBalanceSnapshotRepository).snapshotAllChanged(takenOnCaptor.capture());
+        assertThat(takenOnCaptor.getValue()).isAfterOrEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Should rebuild points bags in chunks and count corrected bags")
+    void shouldRebuildPointsBagsInChunksAndCountCorrectedBags() {
+        when(pointsBagRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(pointsBagRepository.rebuildPointsByIdIn(List.of(1L, 2L))).thenReturn(1);
+        when(pointsBagRepository.rebuildPointsByIdIn(List.of(3L))).thenReturn(1);
+
+        assertThat(pointsLedgerService.rebuildBalances()).isEqualTo(2L);
+    }
+
+    private PointsBag pointsBag() {
+        return PointsBag.builder()
+                .points(0L)
+                .user(PhegyUser.builder().id(userId).username("user").build())
+                .build();
+    }
+}
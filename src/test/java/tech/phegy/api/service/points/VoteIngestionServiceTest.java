@@ -0,0 +1,269 @@
+package tech.phegy.api.service.points;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.points.PointsLedgerEntry;
+import tech.phegy.api.model.points.PointsLedgerEntryType;
+import tech.phegy.api.model.points.QueuedVote;
+import tech.phegy.api.repository.PointsLedgerEntryRepository;
+import tech.phegy.api.repository.VoteBatchRepository;
+import tech.phegy.api.repository.VoteRepository;
+import tech.phegy.api.service.feed.HotScoreProps;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteIngestionServiceTest {
+    @Mock
+    VoteBatchRepository voteBatchRepository;
+    @Mock
+    VoteRepository voteRepository;
+    @Mock
+    PointsLedgerEntryRepository pointsLedgerEntryRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path directory;
+
+    VoteIngestionService voteIngestionService;
+
+    final UUID voterId = UUID.randomUUID();
+    final UUID publisherId = UUID.randomUUID();
+    final LocalDateTime submittedAt = LocalDateTime.of(2021, 5, 1, 12, 30);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (voteIngestionService != null) {
+            voteIngestionService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refund vote skipped by insert ignore when its image was deleted")
+    void shouldRefundVoteSkippedByInsertIgnoreWhenItsImageWasDeleted() throws IOException {
+        voteIngestionService = create(false);
+        Files.createFile(journalPath());
+        voteIngestionService.start();
+        // insert ignore skips a vote violating the image foreign key like a duplicate one
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{0});
+        when(voteRepository.existsByVoterIdAndImageId(voterId, 1L)).thenReturn(false);
+        when(pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(voterId, 1L, PointsLedgerEntryType.REVERSAL))
+                .thenReturn(false);
+
+        voteIngestionService.commit(List.of(vote(1L, 1L)));
+
+        verify(voteBatchRepository).depositAll(Map.of(voterId, 50L));
+        assertThat(ledgerEntries())
+                .extracting(PointsLedgerEntry::getUserId, PointsLedgerEntry::getPoints, PointsLedgerEntry::getType)
+                .containsExactly(tuple(voterId, 50L, PointsLedgerEntryType.REVERSAL));
+        verify(voteBatchRepository).addAllToImages(List.of(), 43200L);
+    }
+
+    @Test
+    @DisplayName("Should not refund skipped vote when it is a duplicate")
+    void shouldNotRefundSkippedVoteWhenItIsADuplicate() throws IOException {
+        voteIngestionService = create(false);
+        Files.createFile(journalPath());
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{0});
+        when(voteRepository.existsByVoterIdAndImageId(voterId, 1L)).thenReturn(true);
+
+        voteIngestionService.commit(List.of(vote(1L, 1L)));
+
+        verify(voteBatchRepository).depositAll(Map.of());
+        assertThat(ledgerEntries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not refund skipped vote twice when it is replayed")
+    void shouldNotRefundSkippedVoteTwiceWhenItIsReplayed() throws IOException {
+        voteIngestionService = create(false);
+        Files.createFile(journalPath());
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{0});
+        when(voteRepository.existsByVoterIdAndImageId(voterId, 1L)).thenReturn(false);
+        when(pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(voterId, 1L, PointsLedgerEntryType.REVERSAL))
+                .thenReturn(true);
+
+        voteIngestionService.commit(List.of(vote(1L, 1L)));
+
+        verify(voteBatchRepository).depositAll(Map.of());
+    }
+
+    @Test
+    @DisplayName("Should replay journaled votes with withdrawn points at start")
+    void shouldReplayJournaledVotesWithWithdrawnPointsAtStart() throws IOException {
+        try (VoteJournal journal = new VoteJournal(journalPath())) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            // the request failed before withdrawing the points of this vote
+            journal.append(voterId, publisherId, 2L, 50L, submittedAt);
+        }
+        when(pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(voterId, 1L, PointsLedgerEntryType.VOTE_SENT))
+                .thenReturn(true);
+        when(pointsLedgerEntryRepository.existsByUserIdAndImageIdAndType(voterId, 2L, PointsLedgerEntryType.VOTE_SENT))
+                .thenReturn(false);
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{1});
+
+        voteIngestionService = create(false);
+        voteIngestionService.start();
+
+        verify(voteBatchRepository).insertAll(List.of(vote(1L, 1L)));
+        verify(voteBatchRepository).depositAll(Map.of(publisherId, 50L));
+        assertThat(Files.size(journalPath())).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch until it is saved")
+    void shouldRetryAFailedBatchUntilItIsSaved() throws Exception {
+        voteIngestionService = create(true);
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(new int[]{1});
+
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService.enqueue(voteIngestionService.journal(voterId, publisherId, 1L, 50L, submittedAt));
+
+        verify(voteBatchRepository, timeout(5000).times(2)).insertAll(List.of(vote(1L, 1L)));
+        verify(transactionManager, timeout(5000)).rollback(any());
+        verify(voteBatchRepository, timeout(5000)).depositAll(Map.of(publisherId, 50L));
+    }
+
+    @Test
+    @DisplayName("Should refund vote that can not be saved after the batch attempts")
+    void shouldRefundVoteThatCanNotBeSavedAfterTheBatchAttempts() throws Exception {
+        voteIngestionService = create(true);
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList())).thenThrow(new IllegalStateException("publisher deleted"));
+
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService.enqueue(voteIngestionService.journal(voterId, publisherId, 1L, 50L, submittedAt));
+
+        verify(voteBatchRepository, timeout(5000)).depositAll(Map.of(voterId, 50L));
+        voteIngestionService.shutdown();
+
+        // two batch attempts and the attempt of the single vote
+        verify(voteBatchRepository, times(3)).insertAll(List.of(vote(1L, 1L)));
+        assertThat(ledgerEntries())
+                .extracting(PointsLedgerEntry::getUserId, PointsLedgerEntry::getPoints, PointsLedgerEntry::getType)
+                .containsExactly(tuple(voterId, 50L, PointsLedgerEntryType.REVERSAL));
+        voteIngestionService.reserve(voterId, 1L);
+        assertThat(Files.size(journalPath())).isZero();
+        voteIngestionService = null;
+    }
+
+    @Test
+    @DisplayName("Should dead-letter vote that can neither be saved nor refunded")
+    void shouldDeadLetterVoteThatCanNeitherBeSavedNorRefunded() throws Exception {
+        voteIngestionService = create(true);
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList())).thenThrow(new IllegalStateException("publisher deleted"));
+        doThrow(new DataIntegrityViolationException("voter deleted"))
+                .when(voteBatchRepository).insertAllLedgerEntries(any());
+
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService.enqueue(voteIngestionService.journal(voterId, publisherId, 1L, 50L, submittedAt));
+
+        verify(voteBatchRepository, timeout(5000)).insertAllLedgerEntries(any());
+        voteIngestionService.shutdown();
+
+        assertThat(Files.readAllLines(Path.of(journalPath() + ".dead")))
+                .containsExactly(VoteJournal.format(vote(1L, 1L)));
+        assertThat(Files.size(journalPath())).isZero();
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService = null;
+    }
+
+    @Test
+    @DisplayName("Should release slot and pending vote after the queued vote is saved")
+    void shouldReleaseSlotAndPendingVoteAfterTheQueuedVoteIsSaved() throws Exception {
+        voteIngestionService = create(true);
+        voteIngestionService.start();
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{1});
+
+        voteIngestionService.reserve(voterId, 1L);
+        assertThatThrownBy(() -> voteIngestionService.reserve(voterId, 1L))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("ALREADY_VOTED");
+        assertThatThrownBy(() -> voteIngestionService.reserve(voterId, 2L))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("VOTE_QUEUE_FULL");
+
+        voteIngestionService.enqueue(voteIngestionService.journal(voterId, publisherId, 1L, 50L, submittedAt));
+        // waits for the queued vote to be saved
+        voteIngestionService.shutdown();
+
+        verify(voteBatchRepository).insertAll(List.of(vote(1L, 1L)));
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService.release(voterId, 1L);
+        voteIngestionService.reserve(voterId, 2L);
+        assertThat(Files.size(journalPath())).isZero();
+        voteIngestionService = null;
+    }
+
+    @Test
+    @DisplayName("Should free slot and keep journal clean when points of a journaled vote are not withdrawn")
+    void shouldFreeSlotWhenPointsOfAJournaledVoteAreNotWithdrawn() throws Exception {
+        voteIngestionService = create(true);
+        voteIngestionService.start();
+
+        voteIngestionService.reserve(voterId, 1L);
+        voteIngestionService.discard(voteIngestionService.journal(voterId, publisherId, 1L, 50L, submittedAt));
+
+        voteIngestionService.reserve(voterId, 1L);
+        verify(voteBatchRepository, never()).insertAll(anyList());
+    }
+
+    private VoteIngestionService create(boolean enabled) {
+        return new VoteIngestionService(
+                voteBatchRepository,
+                voteRepository,
+                pointsLedgerEntryRepository,
+                transactionManager,
+                new VoteIngestionProps(enabled, 1, 10, 10L, 2, journalPath().toString()),
+                new HotScoreProps(12d, 1d, 0.01, 600000L),
+                eventPublisher);
+    }
+
+    private Path journalPath() {
+        return directory.resolve("votes.log");
+    }
+
+    private QueuedVote vote(long sequence, Long imageId) {
+        return new QueuedVote(sequence, voterId, publisherId, imageId, 50L, submittedAt);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<PointsLedgerEntry> ledgerEntries() {
+        ArgumentCaptor<Collection<PointsLedgerEntry>> entries = ArgumentCaptor.forClass(Collection.class);
+        verify(voteBatchRepository).insertAllLedgerEntries(entries.capture());
+        return entries.getValue();
+    }
+}
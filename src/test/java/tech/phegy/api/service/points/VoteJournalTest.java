@@ -0,0 +1,159 @@
+package tech.phegy.api.service.points;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tech.phegy.api.model.points.QueuedVote;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteJournalTest {
+    @TempDir
+    Path directory;
+
+    final UUID voterId = UUID.randomUUID();
+    final UUID publisherId = UUID.randomUUID();
+    final LocalDateTime submittedAt = LocalDateTime.of(2021, 5, 1, 12, 30, 15);
+
+    @Test
+    @DisplayName("Should read appended votes after reopening the journal")
+    void shouldReadAppendedVotesAfterReopeningTheJournal() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 2L, 100L, submittedAt);
+        }
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            assertThat(journal.readUncommitted()).containsExactly(
+                    new QueuedVote(1L, voterId, publisherId, 1L, 50L, submittedAt),
+                    new QueuedVote(2L, voterId, publisherId, 2L, 100L, submittedAt));
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip votes covered by a checkpoint")
+    void shouldSkipVotesCoveredByACheckpoint() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 2L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 3L, 50L, submittedAt);
+            journal.commit(List.of(1L, 2L));
+        }
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            final List<QueuedVote> votes = journal.readUncommitted();
+            assertThat(votes).extracting(QueuedVote::getImageId).containsExactly(3L);
+
+            // new votes continue the sequence of the file
+            assertThat(journal.append(voterId, publisherId, 4L, 50L, submittedAt).getSequence()).isEqualTo(4L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should truncate journal when every vote is committed")
+    void shouldTruncateJournalWhenEveryVoteIsCommitted() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            journal.commit(List.of(1L));
+
+            assertThat(Files.size(path)).isZero();
+            assertThat(journal.readUncommitted()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip torn line without losing the next vote")
+    void shouldSkipTornLineWithoutLosingTheNextVote() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        Files.writeString(path, "V,1," + voterId + ",", StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            assertThat(journal.readUncommitted()).isEmpty();
+            journal.append(voterId, publisherId, 2L, 50L, submittedAt);
+        }
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            assertThat(journal.readUncommitted()).extracting(QueuedVote::getImageId).containsExactly(2L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not checkpoint past a vote still pending")
+    void shouldNotCheckpointPastAVoteStillPending() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 2L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 3L, 50L, submittedAt);
+            // the vote 1 is still withdrawing points while the later votes are saved
+            journal.commit(List.of(2L, 3L));
+        }
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            assertThat(journal.readUncommitted()).extracting(QueuedVote::getImageId).containsExactly(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should truncate journal when the remaining pending vote is discarded")
+    void shouldTruncateJournalWhenTheRemainingPendingVoteIsDiscarded() throws IOException {
+        final Path path = directory.resolve("votes.log");
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            journal.append(voterId, publisherId, 1L, 50L, submittedAt);
+            journal.append(voterId, publisherId, 2L, 50L, submittedAt);
+            journal.discard(1L);
+            journal.commit(List.of(2L));
+
+            assertThat(Files.size(path)).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("Should journal concurrent votes with distinct sequences")
+    void shouldJournalConcurrentVotesWithDistinctSequences() throws Exception {
+        final Path path = directory.resolve("votes.log");
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (VoteJournal journal = new VoteJournal(path)) {
+            journal.readUncommitted();
+            final List<Future<QueuedVote>> appended = new ArrayList<>();
+            for (long imageId = 1; imageId <= 100; imageId++) {
+                final long votedImageId = imageId;
+                appended.add(executor.submit(() -> journal.append(voterId, publisherId, votedImageId, 50L, submittedAt)));
+            }
+            final Set<Long> sequences = new HashSet<>();
+            for (Future<QueuedVote> vote : appended) {
+                sequences.add(vote.get().getSequence());
+            }
+            assertThat(sequences).hasSize(100);
+        } finally {
+            executor.shutdown();
+        }
+
+        try (VoteJournal journal = new VoteJournal(path)) {
+            assertThat(journal.readUncommitted()).hasSize(100);
+        }
+    }
+}
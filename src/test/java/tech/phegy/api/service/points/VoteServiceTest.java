@@ -0,0 +1,215 @@
+package tech.phegy.api.service.points;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.phegy.api.dto.poins.request.VoteDto;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.Image;
+import tech.phegy.api.model.points.QueuedVote;
+import tech.phegy.api.model.points.Vote;
+import tech.phegy.api.model.user.PhegyUser;
+import tech.phegy.api.repository.VoteBatchRepository;
+import tech.phegy.api.repository.VoteRepository;
+import tech.phegy.api.service.ImageService;
+import tech.phegy.api.service.PhegyUserService;
+import tech.phegy.api.service.feed.HotScoreProps;
+import tech.phegy.api.service.feed.event.OnImageFeedChangedEvent;
+import tech.phegy.api.service.leaderboard.event.OnLeaderboardChangedEvent;
+import tech.phegy.api.service.tally.event.OnImageTallyChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VoteServiceTest {
+    @Mock
+    VoteRepository voteRepository;
+    @Mock
+    VoteBatchRepository voteBatchRepository;
+    @Mock
+    PointsBagService pointsBagService;
+    @Mock
+    PhegyUserService userService;
+    @Mock
+    ImageService imageService;
+    @Mock
+    VoteIngestionService voteIngestionService;
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    VoteService voteService;
+
+    PhegyUser voter;
+    PhegyUser publisher;
+    Image image;
+
+    @BeforeEach
+    void setUp() {
+        voteService = new VoteService(
+                voteRepository,
+                voteBatchRepository,
+                pointsBagService,
+                userService,
+                imageService,
+                voteIngestionService,
+                mock(PlatformTransactionManager.class),
+                new VoteProps(100L, 10L, 31, "0 0 4 * * *", 20),
+                new HotScoreProps(12d, 1d, 0.01, 600000L),
+                eventPublisher);
+
+        voter = PhegyUser.builder().id(UUID.randomUUID()).username("voter").build();
+        publisher = PhegyUser.builder().id(UUID.randomUUID()).username("publisher").build();
+        image = Image.builder().id(1L).publisher(publisher).build();
+    }
+
+    @Test
+    @DisplayName("Should vote and transfer points to the publisher")
+    void shouldVoteAndTransferPointsToThePublisher() {
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImage(1L, "voter")).thenReturn(image);
+        when(voteRepository.existsByVoterIdAndImageId(voter.getId(), 1L)).thenReturn(false);
+
+        voteService.vote(1L, 50L, "voter");
+
+        verify(pointsBagService).transferPoints(voter.getId(), publisher.getId(), 50L, 1L);
+        verify(voteRepository).save(any(Vote.class));
+        verify(imageService).addVote(eq(1L), eq(50L), any());
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof OnImageTallyChangedEvent
+                && ((OnImageTallyChangedEvent) event).getImageIds().equals(List.of(1L))));
+    }
+
+    @Test
+    @DisplayName("Should journal the vote before withdrawing points when write-behind ingestion is enabled")
+    void shouldJournalTheVoteBeforeWithdrawingPointsWhenWriteBehindIngestionIsEnabled() {
+        final QueuedVote queued = new QueuedVote(1L, voter.getId(), publisher.getId(), 1L, 50L, LocalDateTime.now());
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImage(1L, "voter")).thenReturn(image);
+        when(voteRepository.existsByVoterIdAndImageId(voter.getId(), 1L)).thenReturn(false);
+        when(voteIngestionService.isEnabled()).thenReturn(true);
+        when(voteIngestionService.journal(eq(voter.getId()), eq(publisher.getId()), eq(1L), eq(50L), any(LocalDateTime.class)))
+                .thenReturn(queued);
+
+        voteService.vote(1L, 50L, "voter");
+
+        InOrder inOrder = inOrder(voteIngestionService, pointsBagService);
+        inOrder.verify(voteIngestionService).reserve(voter.getId(), 1L);
+        inOrder.verify(voteIngestionService).journal(eq(voter.getId()), eq(publisher.getId()), eq(1L), eq(50L), any(LocalDateTime.class));
+        inOrder.verify(pointsBagService).withdrawPoints(voter.getId(), 50L, 1L);
+        inOrder.verify(voteIngestionService).enqueue(queued);
+        verify(pointsBagService, never()).transferPoints(any(), any(), anyLong(), any());
+        verify(voteRepository, never()).save(any());
+        verify(imageService, never()).addVote(any(), anyLong(), any());
+        verify(eventPublisher).publishEvent(any(OnLeaderboardChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should discard the journaled vote when points can not be withdrawn")
+    void shouldDiscardTheJournaledVoteWhenPointsCanNotBeWithdrawn() {
+        final QueuedVote queued = new QueuedVote(1L, voter.getId(), publisher.getId(), 1L, 50L, LocalDateTime.now());
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImage(1L, "voter")).thenReturn(image);
+        when(voteRepository.existsByVoterIdAndImageId(voter.getId(), 1L)).thenReturn(false);
+        when(voteIngestionService.isEnabled()).thenReturn(true);
+        when(voteIngestionService.journal(any(), any(), any(), anyLong(), any())).thenReturn(queued);
+        doThrow(new PhegyHttpException("NOT_ENOUGH_POINTS_TO_VOTE", HttpStatus.BAD_REQUEST))
+                .when(pointsBagService).withdrawPoints(voter.getId(), 50L, 1L);
+
+        assertThatThrownBy(() -> voteService.vote(1L, 50L, "voter"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("NOT_ENOUGH_POINTS_TO_VOTE");
+        verify(voteIngestionService).discard(queued);
+        verify(voteIngestionService, never()).enqueue(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when already voted for the image")
+    void shouldThrowExceptionWhenAlreadyVotedForTheImage() {
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImage(1L, "voter")).thenReturn(image);
+        when(voteRepository.existsByVoterIdAndImageId(voter.getId(), 1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> voteService.vote(1L, 50L, "voter"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("ALREADY_VOTED");
+        verify(pointsBagService, never()).transferPoints(any(), any(), anyLong(), any());
+        verify(voteRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when concurrent vote for the image was saved first")
+    void shouldThrowExceptionWhenConcurrentVoteForTheImageWasSavedFirst() {
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImage(1L, "voter")).thenReturn(image);
+        when(voteRepository.existsByVoterIdAndImageId(voter.getId(), 1L)).thenReturn(false);
+        when(voteRepository.save(any(Vote.class))).thenThrow(DataIntegrityViolationException.class);
+
+        assertThatThrownBy(() -> voteService.vote(1L, 50L, "voter"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("ALREADY_VOTED");
+        verify(imageService, never()).addVote(any(), anyLong(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should settle all votes of a batch at once")
+    void shouldSettleAllVotesOfABatchAtOnce() {
+        final Image secondImage = Image.builder().id(2L).publisher(publisher).build();
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImages(Set.of(1L, 2L), "voter")).thenReturn(List.of(image, secondImage));
+        when(voteRepository.findAllVotedByVoterIdAndImageIdIn(voter.getId(), Set.of(1L, 2L))).thenReturn(List.of());
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{1, 1});
+
+        voteService.voteAll(List.of(new VoteDto(1L, 50L), new VoteDto(2L, 30L)), "voter");
+
+        verify(pointsBagService).settleVotes(eq(voter.getId()), argThat(votes -> votes.size() == 2));
+        verify(voteBatchRepository).addAllToImages(anyList(), anyLong());
+        verify(voteBatchRepository).addAllToRollups(anyList());
+        verify(eventPublisher).publishEvent(any(OnImageFeedChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(OnImageTallyChangedEvent.class));
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof OnLeaderboardChangedEvent
+                && ((OnLeaderboardChangedEvent) event).getScores().size() == 4));
+    }
+
+    @Test
+    @DisplayName("Should throw exception when a batch votes twice for the same image")
+    void shouldThrowExceptionWhenABatchVotesTwiceForTheSameImage() {
+        assertThatThrownBy(() -> voteService.voteAll(List.of(new VoteDto(1L, 50L), new VoteDto(1L, 30L)), "voter"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("VOTE_IMAGES_DUPLICATED");
+        verifyNoInteractions(pointsBagService, voteBatchRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when a concurrent vote for an image of the batch was saved first")
+    void shouldThrowExceptionWhenAConcurrentVoteForAnImageOfTheBatchWasSavedFirst() {
+        when(userService.getConfirmedUser("voter")).thenReturn(voter);
+        when(imageService.getImages(Set.of(1L), "voter")).thenReturn(List.of(image));
+        when(voteRepository.findAllVotedByVoterIdAndImageIdIn(voter.getId(), Set.of(1L))).thenReturn(List.of());
+        when(voteBatchRepository.insertAll(anyList())).thenReturn(new int[]{0});
+
+        assertThatThrownBy(() -> voteService.voteAll(List.of(new VoteDto(1L, 50L)), "voter"))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("ALREADY_VOTED");
+        verify(voteBatchRepository, never()).addAllToImages(anyList(), anyLong());
+    }
+}
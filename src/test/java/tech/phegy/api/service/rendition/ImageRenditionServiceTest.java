@@ -0,0 +1,149 @@
+package tech.phegy.api.service.rendition;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.repository.ImageBlobRepository;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.service.ingestion.event.OnImageIngestedEvent;
+import tech.phegy.api.service.storage.CloudStorageService;
+import tech.phegy.api.service.storage.StorageDeletionService;
+import tech.phegy.api.service.storage.StoragePath;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageRenditionServiceTest {
+    @Mock
+    ImageRepository imageRepository;
+    @Mock
+    ImageBlobRepository imageBlobRepository;
+    @Mock
+    CloudStorageService cloudStorageService;
+    @Mock
+    StorageDeletionService storageDeletionService;
+
+    ImageRenditionService imageRenditionService;
+
+    @BeforeEach
+    void setUp() {
+        imageRenditionService = new ImageRenditionService(
+                imageRepository,
+                imageBlobRepository,
+                cloudStorageService,
+                storageDeletionService,
+                new ImageRenditionProps(Lists.newArrayList(100, 400), Lists.newArrayList("jpg", "png"), 0.85f, 1, 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRenditionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should upload renditions smaller than the original image")
+    void shouldUploadRenditionsSmallerThanTheOriginalImage() throws IOException {
+        OnImageIngestedEvent ingested = createIngested(300, 150);
+
+        when(imageBlobRepository.updateRenditions("key.png", "100.jpg,100.png")).thenReturn(1);
+
+        imageRenditionService.render(ingested);
+
+        verify(imageRepository).updateRenditionsByImageKey("key.png", "100.jpg,100.png");
+
+        ArgumentCaptor<byte[]> bytesArgumentCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(cloudStorageService).upload(bytesArgumentCaptor.capture(), eq("key-100.jpg"), eq(StoragePath.IMAGE));
+        BufferedImage rendition = ImageIO.read(new ByteArrayInputStream(bytesArgumentCaptor.getValue()));
+        assertThat(rendition.getWidth()).isEqualTo(100);
+        assertThat(rendition.getHeight()).isEqualTo(50);
+
+        verify(cloudStorageService).upload(any(byte[].class), eq("key-100.png"), eq(StoragePath.IMAGE));
+        verify(cloudStorageService, never()).upload(any(byte[].class), eq("key-400.jpg"), any());
+        verify(storageDeletionService, never()).enqueueAll(any(), any());
+        assertThat(Files.exists(ingested.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should upload rendition of subsampled large image")
+    void shouldUploadRenditionOfSubsampledLargeImage() throws IOException {
+        OnImageIngestedEvent ingested = createIngested(2000, 1000);
+
+        when(imageBlobRepository.updateRenditions("key.png", "100.jpg,100.png,400.jpg,400.png")).thenReturn(1);
+
+        imageRenditionService.render(ingested);
+
+        ArgumentCaptor<byte[]> bytesArgumentCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(cloudStorageService).upload(bytesArgumentCaptor.capture(), eq("key-400.jpg"), eq(StoragePath.IMAGE));
+        BufferedImage rendition = ImageIO.read(new ByteArrayInputStream(bytesArgumentCaptor.getValue()));
+        assertThat(rendition.getWidth()).isEqualTo(400);
+        assertThat(rendition.getHeight()).isEqualTo(200);
+        assertThat(Files.exists(ingested.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not store renditions when the original image is small")
+    void shouldNotStoreRenditionsWhenTheOriginalImageIsSmall() throws IOException {
+        OnImageIngestedEvent ingested = createIngested(80, 80);
+
+        imageRenditionService.render(ingested);
+
+        verify(cloudStorageService, never()).upload(any(byte[].class), any(), any());
+        verify(imageBlobRepository, never()).updateRenditions(any(), any());
+        assertThat(Files.exists(ingested.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should queue uploaded renditions for removal when can not upload all of them")
+    void shouldRemoveUploadedRenditionsWhenCanNotUploadAllOfThem() throws IOException {
+        OnImageIngestedEvent ingested = createIngested(300, 150);
+
+        doThrow(PhegyHttpException.class).when(cloudStorageService).upload(any(byte[].class), eq("key-100.png"), any());
+
+        imageRenditionService.render(ingested);
+
+        verify(storageDeletionService).enqueueAll(List.of("key-100.jpg"), StoragePath.IMAGE);
+        verify(cloudStorageService, never()).remove(any(), any());
+        verify(imageBlobRepository, never()).updateRenditions(any(), any());
+        assertThat(Files.exists(ingested.getFile())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should queue uploaded renditions for removal when every image was deleted")
+    void shouldRemoveUploadedRenditionsWhenEveryImageWasDeleted() throws IOException {
+        OnImageIngestedEvent ingested = createIngested(300, 150);
+
+        when(imageBlobRepository.updateRenditions(eq("key.png"), anyString())).thenReturn(0);
+
+        imageRenditionService.render(ingested);
+
+        verify(imageRepository, never()).updateRenditionsByImageKey(any(), any());
+
+        verify(storageDeletionService).enqueueAll(List.of("key-100.jpg", "key-100.png"), StoragePath.IMAGE);
+        verify(cloudStorageService, never()).remove(any(), any());
+    }
+
+    private OnImageIngestedEvent createIngested(int width, int height) throws IOException {
+        Path file = Files.createTempFile("phegy-image-", ".upload");
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", file.toFile());
+        return new OnImageIngestedEvent(this, 1L, "key.png", file);
+    }
+}
@@ -10,10 +10,19 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import tech.phegy.api.exception.PhegyHttpException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -69,6 +78,39 @@ class CloudStorageServiceTest {
                 .hasMessage("CAN_NOT_UPLOAD_FILE");
     }
 
+    @Test
+    @DisplayName("Should stream file with known content length")
+    void shouldStreamFileWithKnownContentLength() {
+        String bucketName = "bucket";
+        InputStream fileStream = new ByteArrayInputStream(new byte[10]);
+        String fileKey = "key";
+        StoragePath path = StoragePath.IMAGE;
+
+        when(awsConfig.getBucketName()).thenReturn(bucketName);
+
+        cloudStorageService.upload(fileStream, 10L, fileKey, path);
+
+        ArgumentCaptor<PutObjectRequest> putObjectRequestArgumentCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<RequestBody> requestBodyArgumentCaptor = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(putObjectRequestArgumentCaptor.capture(), requestBodyArgumentCaptor.capture());
+        PutObjectRequest putObjectRequest = putObjectRequestArgumentCaptor.getValue();
+        assertThat(putObjectRequest.bucket()).isEqualTo(bucketName);
+        assertThat(putObjectRequest.key()).isEqualTo(path.toString().toLowerCase() + "/" + fileKey);
+        assertThat(putObjectRequest.contentLength()).isEqualTo(10L);
+        assertThat(requestBodyArgumentCaptor.getValue().contentLength()).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("Should throw exception when can not stream file")
+    void shouldThrowExceptionWhenCanNotStreamFile() {
+        when(awsConfig.getBucketName()).thenReturn("bucket");
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenThrow(S3Exception.class);
+
+        assertThatThrownBy(() -> cloudStorageService.upload(new ByteArrayInputStream(new byte[10]), 10L, "key", StoragePath.IMAGE))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("CAN_NOT_UPLOAD_FILE");
+    }
+
     @Test
     @DisplayName("Should remove file successfully")
     void shouldRemoveFileSuccessfully() {
@@ -101,4 +143,38 @@ class CloudStorageServiceTest {
                 .isInstanceOf(PhegyHttpException.class)
                 .hasMessage("CAN_NOT_REMOVE_FILE");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should remove files with a single request")
+    void shouldRemoveFilesWithASingleRequest() {
+        String bucketName = "bucket";
+        StoragePath path = StoragePath.IMAGE;
+
+        when(awsConfig.getBucketName()).thenReturn(bucketName);
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("image/second").code("AccessDenied").build())
+                .build());
+
+        Set<String> actual = cloudStorageService.removeAll(List.of("first", "second"), path);
+
+        assertThat(actual).containsExactly("second");
+        ArgumentCaptor<DeleteObjectsRequest> deleteObjectsRequestArgumentCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client).deleteObjects(deleteObjectsRequestArgumentCaptor.capture());
+        DeleteObjectsRequest deleteObjectsRequest = deleteObjectsRequestArgumentCaptor.getValue();
+        assertThat(deleteObjectsRequest.bucket()).isEqualTo(bucketName);
+        assertThat(deleteObjectsRequest.delete().objects())
+                .extracting(ObjectIdentifier::key)
+                .containsExactly("image/first", "image/second");
+    }
+
+    @Test
+    @DisplayName("Should throw exception when can not remove files")
+    void shouldThrowExceptionWhenCanNotRemoveFiles() {
+        when(awsConfig.getBucketName()).thenReturn("bucket");
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenThrow(S3Exception.class);
+
+        assertThatThrownBy(() -> cloudStorageService.removeAll(List.of("first"), StoragePath.IMAGE))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("CAN_NOT_REMOVE_FILE");
+    }
+}
@@ -0,0 +1,166 @@
+package tech.phegy.api.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.phegy.api.exception.PhegyHttpException;
+import tech.phegy.api.model.PendingStorageDeletion;
+import tech.phegy.api.repository.PendingStorageDeletionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageDeletionServiceTest {
+    @Mock
+    PendingStorageDeletionRepository pendingStorageDeletionRepository;
+    @Mock
+    CloudStorageService cloudStorageService;
+
+    StorageDeletionService storageDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        storageDeletionService = new StorageDeletionService(
+                pendingStorageDeletionRepository,
+                cloudStorageService,
+                mock(PlatformTransactionManager.class),
+                new StorageDeletionProps(5000, 10000L));
+    }
+
+    @Test
+    @DisplayName("Should queue files for removal")
+    @SuppressWarnings("unchecked")
+    void shouldQueueFilesForRemoval() {
+        storageDeletionService.enqueueAll(List.of("key.png", "key-256.jpg"), StoragePath.IMAGE);
+
+        ArgumentCaptor<Iterable<PendingStorageDeletion>> deletionsArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(pendingStorageDeletionRepository).saveAll(deletionsArgumentCaptor.capture());
+        assertThat(deletionsArgumentCaptor.getValue())
+                .extracting(PendingStorageDeletion::getFileKey)
+                .containsExactly("key.png", "key-256.jpg");
+        assertThat(deletionsArgumentCaptor.getValue())
+                .allMatch(x -> x.getPath() == StoragePath.IMAGE, "is image path")
+                .allMatch(x -> x.getRequestedOn() != null, "has request date");
+        verify(cloudStorageService, never()).removeAll(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should cancel queued removal of image file and its renditions")
+    void shouldCancelQueuedRemovalOfImageFileAndItsRenditions() {
+        storageDeletionService.cancelImageFiles("key.png");
+
+        verify(pendingStorageDeletionRepository).deleteAllByFileKeyOrPrefix(StoragePath.IMAGE, "key.png", "key-");
+    }
+
+    @Test
+    @DisplayName("Should remove queued files in batches of at most 1000")
+    void shouldRemoveQueuedFilesInBatchesOfAtMost1000() {
+        when(pendingStorageDeletionRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(List.of(
+                createDeletion(1L, "key.png", StoragePath.IMAGE),
+                createDeletion(2L, "user.png", StoragePath.USER)));
+        when(cloudStorageService.removeAll(any(), any())).thenReturn(Set.of());
+
+        storageDeletionService.drain();
+
+        ArgumentCaptor<Pageable> pageableArgumentCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(pendingStorageDeletionRepository).findOldestForUpdate(pageableArgumentCaptor.capture());
+        assertThat(pageableArgumentCaptor.getValue().getPageSize()).isEqualTo(CloudStorageService.MAX_REMOVE_BATCH_SIZE);
+        verify(cloudStorageService).removeAll(Set.of("key.png"), StoragePath.IMAGE);
+        verify(cloudStorageService).removeAll(Set.of("user.png"), StoragePath.USER);
+        verify(pendingStorageDeletionRepository).deleteAllByIdIn(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2));
+        verify(pendingStorageDeletionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should claim queued files before removing them and queue again files that could not be removed")
+    @SuppressWarnings("unchecked")
+    void shouldQueueAgainFilesThatCouldNotBeRemoved() {
+        when(pendingStorageDeletionRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(List.of(
+                createDeletion(1L, "first.png", StoragePath.IMAGE),
+                createDeletion(2L, "second.png", StoragePath.IMAGE)));
+        when(cloudStorageService.removeAll(any(), eq(StoragePath.IMAGE))).thenReturn(Set.of("second.png"));
+
+        storageDeletionService.drain();
+
+        InOrder inOrder = inOrder(pendingStorageDeletionRepository, cloudStorageService);
+        ArgumentCaptor<Collection<Long>> claimedArgumentCaptor = ArgumentCaptor.forClass(Collection.class);
+        inOrder.verify(pendingStorageDeletionRepository).deleteAllByIdIn(claimedArgumentCaptor.capture());
+        inOrder.verify(cloudStorageService).removeAll(Set.of("first.png", "second.png"), StoragePath.IMAGE);
+        assertThat(claimedArgumentCaptor.getValue()).containsExactly(1L, 2L);
+
+        ArgumentCaptor<Iterable<PendingStorageDeletion>> retriedArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(pendingStorageDeletionRepository).saveAll(retriedArgumentCaptor.capture());
+        assertThat(retriedArgumentCaptor.getValue())
+                .extracting(PendingStorageDeletion::getFileKey, PendingStorageDeletion::getPath)
+                .containsExactly(tuple("second.png", StoragePath.IMAGE));
+    }
+
+    @Test
+    @DisplayName("Should queue again every claimed file when the cloud storage fails")
+    @SuppressWarnings("unchecked")
+    void shouldQueueAgainEveryClaimedFileWhenTheCloudStorageFails() {
+        when(pendingStorageDeletionRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(List.of(
+                createDeletion(1L, "user.png", StoragePath.USER)));
+        when(cloudStorageService.removeAll(any(), any()))
+                .thenThrow(new PhegyHttpException("CAN_NOT_REMOVE_FILE", HttpStatus.INTERNAL_SERVER_ERROR));
+
+        storageDeletionService.drain();
+
+        ArgumentCaptor<Iterable<PendingStorageDeletion>> retriedArgumentCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(pendingStorageDeletionRepository).saveAll(retriedArgumentCaptor.capture());
+        assertThat(retriedArgumentCaptor.getValue())
+                .extracting(PendingStorageDeletion::getFileKey, PendingStorageDeletion::getPath)
+                .containsExactly(tuple("user.png", StoragePath.USER));
+    }
+
+    @Test
+    @DisplayName("Should not wait to cancel image files when no batch is removing them")
+    void shouldNotWaitToCancelImageFilesWhenNoBatchIsRemovingThem() {
+        when(pendingStorageDeletionRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(List.of(
+                createDeletion(1L, "key.png", StoragePath.IMAGE)));
+        when(cloudStorageService.removeAll(any(), any())).thenReturn(Set.of());
+
+        storageDeletionService.drain();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> storageDeletionService.cancelImageFiles("key.png"));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no files are queued")
+    void shouldDoNothingWhenNoFilesAreQueued() {
+        when(pendingStorageDeletionRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(List.of());
+
+        storageDeletionService.drain();
+
+        verify(cloudStorageService, never()).removeAll(any(), any());
+        verify(pendingStorageDeletionRepository, never()).deleteAllByIdIn(any());
+    }
+
+    private PendingStorageDeletion createDeletion(Long id, String fileKey, StoragePath path) {
+        return PendingStorageDeletion.builder()
+                .id(id)
+                .fileKey(fileKey)
+                .path(path)
+                .requestedOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package tech.phegy.api.service.tally;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tech.phegy.api.dto.image.response.ImageTallyResponseDto;
+import tech.phegy.api.model.ImageTallyView;
+import tech.phegy.api.repository.ImageRepository;
+import tech.phegy.api.websocket.WebSocketService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static tech.phegy.api.TestUtils.projection;
+
+@ExtendWith(MockitoExtension.class)
+class ImageTallyServiceTest {
+    @Mock
+    ImageRepository imageRepository;
+    @Mock
+    WebSocketService webSocketService;
+
+    ImageTallyService imageTallyService;
+
+    @BeforeEach
+    void setUp() {
+        imageTallyService = new ImageTallyService(imageRepository, webSocketService);
+    }
+
+    @Test
+    @DisplayName("Should push one tally per image for votes between flushes")
+    void shouldPushOneTallyPerImageForVotesBetweenFlushes() {
+        when(imageRepository.findAllTalliesByIdIn(List.of(1L))).thenReturn(List.of(
+                projection(ImageTallyView.class, Map.of("id", 1L, "totalPoints", 150L, "voteCount", 3L))));
+
+        imageTallyService.markChanged(List.of(1L));
+        imageTallyService.markChanged(List.of(1L));
+        imageTallyService.markChanged(List.of(1L));
+        imageTallyService.flush();
+
+        ArgumentCaptor<ImageTallyResponseDto> tallyCaptor = ArgumentCaptor.forClass(ImageTallyResponseDto.class);
+        verify(webSocketService).send(eq("/topic/image/1/tally"), tallyCaptor.capture());
+        assertThat(tallyCaptor.getValue())
+                .matches(x -> x.getTotalPoints() == 150L, "is current total points")
+                .matches(x -> x.getVoteCount() == 3L, "is current vote count");
+    }
+
+    @Test
+    @DisplayName("Should not query totals when no image changed since the previous flush")
+    void shouldNotQueryTotalsWhenNoImageChangedSinceThePreviousFlush() {
+        when(imageRepository.findAllTalliesByIdIn(List.of(1L))).thenReturn(List.of());
+
+        imageTallyService.markChanged(List.of(1L));
+        imageTallyService.flush();
+        imageTallyService.flush();
+
+        verify(imageRepository, times(1)).findAllTalliesByIdIn(anyCollection());
+        verify(webSocketService, never()).send(anyString(), any());
+    }
+}
@@ -0,0 +1,94 @@
+package tech.phegy.api.service.validator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tech.phegy.api.exception.PhegyHttpException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageFileVerifierTest {
+    ImageFileVerifier imageFileVerifier = new ImageFileVerifier(new ImageFileProps(List.of("png", "jpeg"), 100, 50, 4000));
+
+    Path imageFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        imageFile = Files.createTempFile("phegy-image-", ".upload");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(imageFile);
+    }
+
+    @Test
+    @DisplayName("Should accept image with supported format and dimensions")
+    void shouldAcceptImageWithSupportedFormatAndDimensions() throws IOException {
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), "png", imageFile.toFile());
+
+        assertThatCode(() -> imageFileVerifier.verifyImageFile(imageFile)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Should reject image larger than allowed")
+    void shouldRejectImageLargerThanAllowed() throws IOException {
+        ImageIO.write(new BufferedImage(100, 51, BufferedImage.TYPE_INT_RGB), "jpeg", imageFile.toFile());
+
+        assertThatThrownBy(() -> imageFileVerifier.verifyImageFile(imageFile))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_DIMENSIONS_TOO_LARGE");
+    }
+
+    @Test
+    @DisplayName("Should reject image with more pixels than allowed")
+    void shouldRejectImageWithMorePixelsThanAllowed() throws IOException {
+        ImageIO.write(new BufferedImage(90, 45, BufferedImage.TYPE_INT_RGB), "png", imageFile.toFile());
+
+        assertThatThrownBy(() -> imageFileVerifier.verifyImageFile(imageFile))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_DIMENSIONS_TOO_LARGE");
+    }
+
+    @Test
+    @DisplayName("Should reject image with format that is not accepted")
+    void shouldRejectImageWithFormatThatIsNotAccepted() throws IOException {
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "gif", imageFile.toFile());
+
+        assertThatThrownBy(() -> imageFileVerifier.verifyImageFile(imageFile))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_FORMAT_NOT_SUPPORTED");
+    }
+
+    @Test
+    @DisplayName("Should reject file that is not an image")
+    void shouldRejectFileThatIsNotAnImage() throws IOException {
+        Files.writeString(imageFile, "<html></html>");
+
+        assertThatThrownBy(() -> imageFileVerifier.verifyImageFile(imageFile))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_FORMAT_NOT_SUPPORTED");
+    }
+
+    @Test
+    @DisplayName("Should reject image with broken header")
+    void shouldRejectImageWithBrokenHeader() throws IOException {
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png", imageFile.toFile());
+        byte[] imageBytes = Files.readAllBytes(imageFile);
+        Files.write(imageFile, Arrays.copyOf(imageBytes, 12));
+
+        assertThatThrownBy(() -> imageFileVerifier.verifyImageFile(imageFile))
+                .isInstanceOf(PhegyHttpException.class)
+                .hasMessage("IMAGE_FILE_INVALID");
+    }
+}
@@ -0,0 +1,66 @@
+package tech.phegy.api.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class SendDestinationInterceptorTest {
+    SendDestinationInterceptor sendDestinationInterceptor;
+    MessageChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        sendDestinationInterceptor = new SendDestinationInterceptor("/ws/");
+        channel = mock(MessageChannel.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse client message sent to image tally topic")
+    void shouldRefuseClientMessageSentToImageTallyTopic() {
+        Message<byte[]> message = message(StompCommand.SEND, "/topic/image/1/tally");
+
+        assertThatThrownBy(() -> sendDestinationInterceptor.preSend(message, channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should refuse client message sent to user queue")
+    void shouldRefuseClientMessageSentToUserQueue() {
+        Message<byte[]> message = message(StompCommand.SEND, "/user/username/queue/notification");
+
+        assertThatThrownBy(() -> sendDestinationInterceptor.preSend(message, channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should accept client message sent to application destination")
+    void shouldAcceptClientMessageSentToApplicationDestination() {
+        Message<byte[]> message = message(StompCommand.SEND, "/ws/anything");
+
+        assertThat(sendDestinationInterceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    @Test
+    @DisplayName("Should accept subscription to image tally topic")
+    void shouldAcceptSubscriptionToImageTallyTopic() {
+        Message<byte[]> message = message(StompCommand.SUBSCRIBE, "/topic/image/1/tally");
+
+        assertThat(sendDestinationInterceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    private Message<byte[]> message(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
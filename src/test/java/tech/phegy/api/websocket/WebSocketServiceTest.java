@@ -54,4 +54,18 @@ class WebSocketServiceTest {
 
         verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should broadcast message to topic successfully")
+    void shouldBroadcastMessageToTopicSuccessfully() throws JsonProcessingException {
+        String destination = "/topic/dest";
+        Object paylaod = new Object();
+        String serializedPayload = "payload";
+
+        when(objectMapper.writeValueAsString(paylaod)).thenReturn(serializedPayload);
+
+        webSocketService.send(destination, paylaod);
+
+        verify(messagingTemplate).convertAndSend(destination, serializedPayload);
+    }
+}